@@ -139,6 +139,58 @@ def transcribe():
             'error': f'Transcription failed: {str(e)}'
         }), 500
 
+def extract_text(result):
+    """从 FunASR 返回结果中取出文本"""
+    if isinstance(result, list) and len(result) > 0:
+        return result[0].get('text', '')
+    elif isinstance(result, dict):
+        return result.get('text', '')
+    return str(result)
+
+@app.route('/transcribe_batch', methods=['POST'])
+def transcribe_batch():
+    """
+    批量音频转文字接口（后端跨会话合批）
+
+    接收：多段 PCM 16-bit 音频依次拼接（16kHz, Mono），X-Segment-Lengths 头给出每段字节数
+    返回：JSON { "texts": ["第一段文本", ...] }，顺序与请求一致
+    """
+    try:
+        audio_bytes = request.data
+        lengths = [int(x) for x in request.headers.get('X-Segment-Lengths', '').split(',') if x.strip()]
+        if not lengths or sum(lengths) != len(audio_bytes):
+            return jsonify({'error': 'Segment lengths do not match body size'}), 400
+
+        segments = []
+        offset = 0
+        for length in lengths:
+            pcm = audio_bytes[offset:offset + length]
+            segments.append(np.frombuffer(pcm, dtype=np.int16).astype(np.float32) / 32768.0)
+            offset += length
+
+        model_instance = load_model()
+        start_time = time.time()
+
+        # 多段音频作为一个列表输入，由模型按 batch_size 一起推理
+        results = model_instance.generate(input=segments, batch_size=len(segments), hotword="")
+        if isinstance(results, list) and len(results) == len(segments):
+            texts = [r.get('text', '').strip() for r in results]
+        else:
+            # 模型不支持列表输入时逐段识别
+            texts = [extract_text(model_instance.generate(input=audio, batch_size_s=300, hotword="")).strip()
+                     for audio in segments]
+
+        elapsed = time.time() - start_time
+        logger.info(f"Batch transcription completed in {elapsed:.2f}s: {len(segments)} segments")
+
+        return jsonify({'texts': texts, 'duration': elapsed})
+
+    except Exception as e:
+        logger.error(f"Batch transcription error: {str(e)}", exc_info=True)
+        return jsonify({
+            'error': f'Batch transcription failed: {str(e)}'
+        }), 500
+
 @app.route('/transcribe-stream', methods=['POST'])
 def transcribe_stream():
     """
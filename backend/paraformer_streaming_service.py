@@ -0,0 +1,218 @@
+#!/usr/bin/env python3
+"""
+Paraformer 实时流式语音转文字服务
+每个会议保持一条 WebSocket 长连接，持续推送 PCM 帧，服务端按 600ms 步长增量识别，
+返回部分结果（partial）和带标点的最终结果（final）
+
+协议：
+  客户端 -> 服务端
+    二进制帧：PCM 16-bit 音频（16kHz, Mono），长度任意，服务端按 600ms 重新分块
+    文本帧 {"type": "flush"}：结束当前语句，立即输出最终结果
+    文本帧 {"type": "end"}：结束音频流，输出剩余结果后关闭连接
+  服务端 -> 客户端
+    {"type": "partial", "segment": n, "text": "当前语句已识别的文本"}
+    {"type": "final", "segment": n, "text": "带标点的完整语句"}
+    {"type": "error", "error": "错误信息"}
+
+使用 --stub 启动时不加载模型，用固定文本模拟识别结果，便于联调和测试
+"""
+
+import argparse
+import asyncio
+import json
+import logging
+import time
+
+import numpy as np
+import websockets
+
+# 配置日志
+logging.basicConfig(
+    level=logging.INFO,
+    format='%(asctime)s - %(name)s - %(levelname)s - %(message)s'
+)
+logger = logging.getLogger(__name__)
+
+MODEL_NAME = "paraformer-zh-streaming"
+SAMPLE_RATE = 16000
+
+# FunASR 流式参数：[0, 10, 5] 表示 600ms 出字粒度，300ms 前瞻
+CHUNK_SIZE = [0, 10, 5]
+ENCODER_CHUNK_LOOK_BACK = 4
+DECODER_CHUNK_LOOK_BACK = 1
+CHUNK_STRIDE = CHUNK_SIZE[1] * 960  # 每次识别的采样点数（600ms）
+
+# 连续多少个无新文字的分块后认为语句结束
+SILENCE_CHUNKS_TO_FINALIZE = 2
+# 单条语句最长时长（秒），超过后强制输出最终结果
+MAX_SEGMENT_SECONDS = 15
+
+
+class StreamingRecognizer:
+    """FunASR Paraformer 流式识别"""
+
+    def __init__(self):
+        from funasr import AutoModel
+        logger.info(f"Loading streaming model: {MODEL_NAME}")
+        self.model = AutoModel(model=MODEL_NAME, device="cpu")
+        try:
+            self.punc_model = AutoModel(model="ct-punc", device="cpu")
+        except Exception as e:
+            logger.warning(f"Failed to load punctuation model, finals will be unpunctuated: {e}")
+            self.punc_model = None
+        logger.info("Streaming model loaded successfully")
+
+    def new_cache(self):
+        return {}
+
+    def recognize(self, samples, cache, is_final):
+        result = self.model.generate(
+            input=samples,
+            cache=cache,
+            is_final=is_final,
+            chunk_size=CHUNK_SIZE,
+            encoder_chunk_look_back=ENCODER_CHUNK_LOOK_BACK,
+            decoder_chunk_look_back=DECODER_CHUNK_LOOK_BACK
+        )
+        if isinstance(result, list) and len(result) > 0:
+            return result[0].get('text', '')
+        return ''
+
+    def punctuate(self, text):
+        if not text or self.punc_model is None:
+            return text
+        result = self.punc_model.generate(input=text)
+        if isinstance(result, list) and len(result) > 0:
+            return result[0].get('text', text)
+        return text
+
+
+class StubRecognizer:
+    """测试桩：有声音的分块输出固定文字，静音分块不输出"""
+
+    def new_cache(self):
+        return {}
+
+    def recognize(self, samples, cache, is_final):
+        if len(samples) == 0:
+            return ''
+        energy = float(np.sqrt(np.mean(samples ** 2)))
+        return '测试' if energy > 0.01 else ''
+
+    def punctuate(self, text):
+        return text + '。' if text else text
+
+
+class StreamSession:
+    """单条连接的识别状态"""
+
+    def __init__(self, recognizer):
+        self.recognizer = recognizer
+        self.cache = recognizer.new_cache()
+        self.pending = np.array([], dtype=np.float32)
+        self.segment = 1
+        self.text = ''
+        self.silent_chunks = 0
+        self.segment_samples = 0
+
+    def feed(self, pcm_bytes):
+        """追加音频，返回需要发送的消息列表"""
+        samples = np.frombuffer(pcm_bytes, dtype=np.int16).astype(np.float32) / 32768.0
+        self.pending = np.concatenate([self.pending, samples])
+        messages = []
+        while len(self.pending) >= CHUNK_STRIDE:
+            chunk = self.pending[:CHUNK_STRIDE]
+            self.pending = self.pending[CHUNK_STRIDE:]
+            messages.extend(self._recognize_chunk(chunk))
+        return messages
+
+    def finalize(self):
+        """输出当前语句的最终结果"""
+        chunk = self.pending
+        self.pending = np.array([], dtype=np.float32)
+        text = self.text + self.recognizer.recognize(chunk, self.cache, True)
+        messages = []
+        if text.strip():
+            messages.append({
+                'type': 'final',
+                'segment': self.segment,
+                'text': self.recognizer.punctuate(text.strip())
+            })
+            self.segment += 1
+        self.cache = self.recognizer.new_cache()
+        self.text = ''
+        self.silent_chunks = 0
+        self.segment_samples = 0
+        return messages
+
+    def _recognize_chunk(self, chunk):
+        new_text = self.recognizer.recognize(chunk, self.cache, False)
+        self.segment_samples += len(chunk)
+        if new_text:
+            self.text += new_text
+            self.silent_chunks = 0
+            return [{'type': 'partial', 'segment': self.segment, 'text': self.text}]
+
+        self.silent_chunks += 1
+        too_long = self.segment_samples >= MAX_SEGMENT_SECONDS * SAMPLE_RATE
+        if self.text and (self.silent_chunks >= SILENCE_CHUNKS_TO_FINALIZE or too_long):
+            return self.finalize()
+        return []
+
+
+async def handle_connection(websocket, recognizer):
+    """处理一条流式识别连接"""
+    loop = asyncio.get_running_loop()
+    session = StreamSession(recognizer)
+    peer = websocket.remote_address
+    logger.info(f"Streaming session opened: {peer}")
+    started = time.time()
+
+    try:
+        async for message in websocket:
+            command = None
+            if isinstance(message, bytes):
+                # 模型推理是阻塞调用，放到线程池执行
+                messages = await loop.run_in_executor(None, session.feed, message)
+            else:
+                command = json.loads(message).get('type')
+                if command in ('flush', 'end'):
+                    messages = await loop.run_in_executor(None, session.finalize)
+                else:
+                    messages = [{'type': 'error', 'error': f'Unknown command: {command}'}]
+
+            for item in messages:
+                await websocket.send(json.dumps(item, ensure_ascii=False))
+            if command == 'end':
+                break
+    except websockets.ConnectionClosed:
+        pass
+    except Exception as e:
+        logger.error(f"Streaming session error: {str(e)}", exc_info=True)
+        try:
+            await websocket.send(json.dumps({'type': 'error', 'error': str(e)}))
+        except Exception:
+            pass
+    finally:
+        logger.info(f"Streaming session closed: {peer}, duration {time.time() - started:.1f}s")
+        await websocket.close()
+
+
+async def main(host, port, stub):
+    recognizer = StubRecognizer() if stub else StreamingRecognizer()
+
+    async def handler(websocket, *args):
+        await handle_connection(websocket, recognizer)
+
+    logger.info(f"Paraformer streaming service listening on ws://{host}:{port}/stream (stub={stub})")
+    async with websockets.serve(handler, host, port, max_size=4 * 1024 * 1024):
+        await asyncio.Future()
+
+
+if __name__ == '__main__':
+    parser = argparse.ArgumentParser(description='Paraformer streaming ASR service')
+    parser.add_argument('--host', default='0.0.0.0')
+    parser.add_argument('--port', type=int, default=5003)  # 与 HTTP 服务 5002 区分
+    parser.add_argument('--stub', action='store_true', help='不加载模型，返回模拟识别结果')
+    args = parser.parse_args()
+    asyncio.run(main(args.host, args.port, args.stub))
@@ -0,0 +1,130 @@
+#!/usr/bin/env python3
+"""
+说话人声纹向量（embedding）服务
+使用 Flask 提供 HTTP API 接口，后端按语音段提取向量后在线聚类区分说话人
+安装了 FunASR 时使用 CAM++ 说话人模型；否则退回到对数梅尔频谱统计量的简易向量（仅供开发联调）
+"""
+
+import numpy as np
+import logging
+from flask import Flask, request, jsonify
+from flask_cors import CORS
+
+# 配置日志
+logging.basicConfig(
+    level=logging.INFO,
+    format='%(asctime)s - %(name)s - %(levelname)s - %(message)s'
+)
+logger = logging.getLogger(__name__)
+
+app = Flask(__name__)
+CORS(app)
+
+SAMPLE_RATE = 16000
+MODEL_NAME = "cam++"  # 阿里达摩院中文说话人确认模型
+
+# 全局变量存储模型（启动时加载一次）
+model = None
+model_name = None
+
+
+def load_model():
+    """加载说话人模型，FunASR 不可用时使用简易向量"""
+    global model, model_name
+    if model_name is None:
+        try:
+            from funasr import AutoModel
+            logger.info(f"Loading speaker model: {MODEL_NAME}")
+            model = AutoModel(model=MODEL_NAME, disable_update=True)
+            model_name = MODEL_NAME
+            logger.info(f"Model {MODEL_NAME} loaded successfully")
+        except Exception as e:
+            logger.warning(f"Speaker model unavailable ({e}), using log-mel statistics stub")
+            model_name = "log-mel-stub"
+    return model
+
+
+def mel_filterbank(n_fft=512, n_mels=40):
+    """三角梅尔滤波器组"""
+    def hz_to_mel(hz):
+        return 2595.0 * np.log10(1.0 + hz / 700.0)
+
+    def mel_to_hz(mel):
+        return 700.0 * (10 ** (mel / 2595.0) - 1.0)
+
+    mels = np.linspace(hz_to_mel(20), hz_to_mel(SAMPLE_RATE / 2), n_mels + 2)
+    bins = np.floor((n_fft + 1) * mel_to_hz(mels) / SAMPLE_RATE).astype(int)
+    bank = np.zeros((n_mels, n_fft // 2 + 1), dtype=np.float32)
+    for i in range(1, n_mels + 1):
+        left, center, right = bins[i - 1], bins[i], bins[i + 1]
+        for k in range(left, center):
+            bank[i - 1, k] = (k - left) / max(1, center - left)
+        for k in range(center, right):
+            bank[i - 1, k] = (right - k) / max(1, right - center)
+    return bank
+
+
+FILTERBANK = mel_filterbank()
+
+
+def stub_embedding(audio):
+    """对数梅尔频谱逐维均值和标准差（25ms 帧，10ms 帧移），L2 归一化"""
+    frame, hop = 400, 160
+    if len(audio) < frame:
+        audio = np.pad(audio, (0, frame - len(audio)))
+    count = 1 + (len(audio) - frame) // hop
+    frames = np.stack([audio[i * hop:i * hop + frame] for i in range(count)]) * np.hamming(frame)
+    power = np.abs(np.fft.rfft(frames, n=512)) ** 2
+    logmel = np.log(power @ FILTERBANK.T + 1e-6)
+    # 去掉逐段均值前先取统计量，保留音色信息
+    vector = np.concatenate([logmel.mean(axis=0), logmel.std(axis=0)])
+    vector = vector - vector.mean()
+    return vector / (np.linalg.norm(vector) + 1e-9)
+
+
+@app.route('/health', methods=['GET'])
+def health():
+    """健康检查接口"""
+    return jsonify({
+        'status': 'ok',
+        'model': model_name
+    })
+
+
+@app.route('/embed', methods=['POST'])
+def embed():
+    """
+    说话人向量接口
+
+    接收：PCM 16-bit 音频数据（16kHz, Mono）
+    返回：JSON { "embedding": [float, ...] }，已 L2 归一化
+    """
+    try:
+        audio_bytes = request.data
+        if not audio_bytes:
+            return jsonify({'error': 'No audio data received'}), 400
+
+        audio = np.frombuffer(audio_bytes, dtype=np.int16).astype(np.float32) / 32768.0
+        model_instance = load_model()
+        if model_instance is not None:
+            result = model_instance.generate(input=audio)
+            vector = np.asarray(result[0]['spk_embedding']).reshape(-1)
+            vector = vector / (np.linalg.norm(vector) + 1e-9)
+        else:
+            vector = stub_embedding(audio)
+
+        return jsonify({'embedding': [round(float(x), 6) for x in vector]})
+
+    except Exception as e:
+        logger.error(f"Embedding error: {str(e)}", exc_info=True)
+        return jsonify({
+            'error': f'Embedding failed: {str(e)}'
+        }), 500
+
+
+if __name__ == '__main__':
+    logger.info("Starting speaker embedding service...")
+    load_model()
+
+    # port=5004 避免与 Whisper、Paraformer 服务冲突
+    app.run(host='0.0.0.0', port=5004, debug=False, threaded=True)
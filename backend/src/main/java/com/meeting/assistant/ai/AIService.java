@@ -1,6 +1,9 @@
 package com.meeting.assistant.ai;
 
 import com.meeting.assistant.entity.Speaker;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
@@ -16,6 +19,18 @@ public interface AIService {
      */
     String transcribe(byte[] audioData);
 
+    /**
+     * 将音频转录为文字（缓冲区视图入口）
+     * 默认复制为字节数组后调用 {@link #transcribe(byte[])}，可直接写出缓冲区的实现应覆盖此方法
+     * @param audioData PCM 数据，读取 position 到 limit 之间的内容，不修改其 position
+     * @return 转录文本
+     */
+    default String transcribe(ByteBuffer audioData) {
+        byte[] bytes = new byte[audioData.remaining()];
+        audioData.duplicate().get(bytes);
+        return transcribe(bytes);
+    }
+
     /**
      * 生成会议总结
      * @param transcript 完整转录文本
@@ -24,9 +39,39 @@ public interface AIService {
      */
     String summarize(String transcript, List<Speaker> speakers);
 
+    /**
+     * 流式生成会议总结，模型每输出一段文本发出一次
+     * 默认在订阅时调用 {@link #summarize} 并整体发出，支持流式输出的实现应覆盖此方法
+     * @return 总结文本片段，按顺序拼接即为完整总结
+     */
+    default Flux<String> summarizeStream(String transcript, List<Speaker> speakers) {
+        return Flux.defer(() -> Flux.just(summarize(transcript, speakers)));
+    }
+
+    /**
+     * 单轮对话，用于分段总结等自定义提示词
+     * @param prompt 完整提示词
+     * @return 模型回复
+     */
+    String chat(String prompt);
+
     /**
      * 获取当前使用的模型名称
      * @return 模型名称
      */
     String getModelName();
+
+    /**
+     * 转录使用的模型，不随故障转移等运行时状态变化，用作缓存键等稳定标识
+     */
+    default String getAsrModelName() {
+        return getModelName();
+    }
+
+    /**
+     * 总结、对话使用的模型，要求同 {@link #getAsrModelName}
+     */
+    default String getLlmModelName() {
+        return getModelName();
+    }
 }
@@ -0,0 +1,160 @@
+package com.meeting.assistant.ai;
+
+import com.meeting.assistant.repository.AiCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 模型调用结果缓存
+ * 内存层按最近使用淘汰，总大小（按字符串占用估算）不超过 memory-max-bytes；
+ * 可选的持久层存放在 PostgreSQL ai_cache 表，内存未命中时查询，命中后回填内存
+ */
+@Slf4j
+@Component
+public class AiResultCache {
+
+    // 每个条目除文本外的估算开销（键、节点、对象头）
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+
+    private final AiCacheRepository repository;
+    private final MeterRegistry meterRegistry;
+    private final long memoryMaxBytes;
+    private final boolean persistent;
+
+    private final LinkedHashMap<String, String> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private final AtomicLong memoryBytes = new AtomicLong();
+
+    public AiResultCache(AiCacheRepository repository,
+                         MeterRegistry meterRegistry,
+                         @Value("${ai.cache.memory-max-bytes:67108864}") long memoryMaxBytes,
+                         @Value("${ai.cache.persistent:false}") boolean persistent) {
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+        this.memoryMaxBytes = memoryMaxBytes;
+        this.persistent = persistent;
+        Gauge.builder("ai.cache.memory.bytes", memoryBytes, AtomicLong::get).register(meterRegistry);
+        log.info("AI result cache: memory {} bytes, persistent: {}", memoryMaxBytes, persistent);
+    }
+
+    /**
+     * 由各部分输入计算缓存键，各部分之间加分隔避免拼接歧义
+     */
+    public static String key(String kind, String provider, String promptVersion, Object... parts) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, kind);
+        update(digest, provider);
+        update(digest, promptVersion);
+        for (Object part : parts) {
+            if (part instanceof ByteBuffer buffer) {
+                digest.update(buffer.duplicate());
+                digest.update((byte) 0);
+            } else if (part instanceof byte[] bytes) {
+                digest.update(bytes);
+                digest.update((byte) 0);
+            } else {
+                update(digest, String.valueOf(part));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * @param persist 是否查询持久层（转录等量大的结果只放内存）
+     */
+    public Optional<String> get(String kind, String key, boolean persist) {
+        String value;
+        synchronized (memory) {
+            value = memory.get(key);
+        }
+        if (value != null) {
+            count(kind, "hit-memory");
+            return Optional.of(value);
+        }
+        if (persistent && persist) {
+            try {
+                Optional<String> stored = repository.find(key);
+                if (stored.isPresent()) {
+                    count(kind, "hit-db");
+                    putMemory(key, stored.get());
+                    return stored;
+                }
+            } catch (Exception e) {
+                log.warn("AI cache lookup failed: {}", e.getMessage());
+            }
+        }
+        count(kind, "miss");
+        return Optional.empty();
+    }
+
+    public void put(String kind, String key, String value, boolean persist) {
+        if (value == null) {
+            return;
+        }
+        putMemory(key, value);
+        if (persistent && persist) {
+            try {
+                repository.save(key, kind, value);
+            } catch (Exception e) {
+                log.warn("AI cache write failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void putMemory(String key, String value) {
+        long weight = weigh(value);
+        if (weight > memoryMaxBytes) {
+            return;
+        }
+        synchronized (memory) {
+            String previous = memory.put(key, value);
+            long total = memoryBytes.addAndGet(weight - (previous != null ? weigh(previous) : 0));
+            // 按最近使用顺序淘汰最久未用的条目
+            Iterator<Map.Entry<String, String>> it = memory.entrySet().iterator();
+            while (total > memoryMaxBytes && it.hasNext()) {
+                Map.Entry<String, String> eldest = it.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                it.remove();
+                total = memoryBytes.addAndGet(-weigh(eldest.getValue()));
+            }
+        }
+    }
+
+    private static long weigh(String value) {
+        return ENTRY_OVERHEAD_BYTES + 2L * value.length();
+    }
+
+    private void count(String kind, String result) {
+        Counter.builder("ai.cache.requests")
+            .tag("kind", kind)
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment();
+    }
+}
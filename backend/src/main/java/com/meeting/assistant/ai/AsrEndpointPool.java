@@ -0,0 +1,344 @@
+package com.meeting.assistant.ai;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 本地模型服务的多实例负载均衡
+ * 按进行中的请求数（least-outstanding）或 进行中请求数 × 延迟 EWMA（ewma）选择实例；
+ * 连续失败或延迟过高的实例暂时摘除，摘除期满后重新参与选择（延迟统计清零）；
+ * 配置了健康检查路径且有多个实例时，定期探测，探测失败的实例同样摘除
+ * 流式识别会话按 affinity key 固定到同一实例，重连时优先回到原实例
+ */
+@Slf4j
+public class AsrEndpointPool {
+
+    // 延迟 EWMA 的平滑系数
+    private static final double EWMA_ALPHA = 0.3;
+
+    private final String name;
+    private final List<Endpoint> endpoints;
+    private final Settings settings;
+    private final String healthPath;
+    private final WebClient probeClient;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private final Map<Object, Endpoint> affinity;
+    private volatile Disposable probeTask;
+
+    /**
+     * @param strategy least-outstanding | ewma
+     * @param ejectAfterFailures 连续失败多少次后摘除
+     * @param ejectMs 摘除时长
+     * @param slowThresholdMs 延迟 EWMA 超过该值时摘除，0 表示不按延迟摘除
+     * @param probeIntervalMs 健康检查间隔，0 表示不探测
+     * @param probeTimeoutMs 健康检查超时
+     * @param affinityCapacity 最多记住的会话数，超出时淘汰最久未用的
+     */
+    public record Settings(String strategy, int ejectAfterFailures, long ejectMs, long slowThresholdMs,
+                           long probeIntervalMs, long probeTimeoutMs, int affinityCapacity) {
+    }
+
+    public static final class Endpoint {
+
+        private final String url;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        // 毫秒，小于 0 表示还没有样本
+        private volatile double latencyEwmaMs = -1;
+        private volatile long ejectedUntil;
+        private final Timer successTimer;
+        private final Timer failureTimer;
+
+        private Endpoint(String url, Timer successTimer, Timer failureTimer) {
+            this.url = url;
+            this.successTimer = successTimer;
+            this.failureTimer = failureTimer;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        private boolean isAvailable(long now) {
+            return ejectedUntil <= now;
+        }
+    }
+
+    public AsrEndpointPool(String name, String urls, String healthPath, Settings settings,
+                           WebClient probeClient, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.settings = settings;
+        this.healthPath = healthPath;
+        this.probeClient = probeClient;
+        this.meterRegistry = meterRegistry;
+
+        List<Endpoint> list = new ArrayList<>();
+        for (String url : parseUrls(urls)) {
+            list.add(register(url));
+        }
+        if (list.isEmpty()) {
+            throw new IllegalArgumentException(name + " 未配置服务地址");
+        }
+        this.endpoints = List.copyOf(list);
+        this.affinity = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Endpoint> eldest) {
+                return size() > settings.affinityCapacity();
+            }
+        });
+        log.info("{} endpoints: {}, strategy: {}", name,
+            endpoints.stream().map(Endpoint::getUrl).toList(), settings.strategy());
+    }
+
+    /**
+     * 解析逗号分隔的地址列表，去掉末尾的 /
+     */
+    public static List<String> parseUrls(String urls) {
+        return Arrays.stream(urls.split(","))
+            .map(String::trim)
+            .filter(url -> !url.isEmpty())
+            .map(url -> url.endsWith("/") ? url.substring(0, url.length() - 1) : url)
+            .distinct()
+            .toList();
+    }
+
+    private Endpoint register(String url) {
+        Timer success = Timer.builder("asr.endpoint.requests")
+            .tag("pool", name).tag("endpoint", url).tag("outcome", "success")
+            .register(meterRegistry);
+        Timer failure = Timer.builder("asr.endpoint.requests")
+            .tag("pool", name).tag("endpoint", url).tag("outcome", "failure")
+            .register(meterRegistry);
+        Endpoint endpoint = new Endpoint(url, success, failure);
+        Gauge.builder("asr.endpoint.in_flight", endpoint, e -> e.inFlight.get())
+            .tag("pool", name).tag("endpoint", url)
+            .register(meterRegistry);
+        Gauge.builder("asr.endpoint.latency.ewma", endpoint, e -> Math.max(0, e.latencyEwmaMs))
+            .tag("pool", name).tag("endpoint", url)
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        Gauge.builder("asr.endpoint.available", endpoint, e -> e.isAvailable(System.currentTimeMillis()) ? 1 : 0)
+            .tag("pool", name).tag("endpoint", url)
+            .register(meterRegistry);
+        return endpoint;
+    }
+
+    public int size() {
+        return endpoints.size();
+    }
+
+    /**
+     * 选择一个实例并计入进行中请求，用完后必须调用 {@link #release}
+     */
+    public Endpoint acquire() {
+        return acquire(null);
+    }
+
+    /**
+     * 选择一个实例并计入进行中请求；affinityKey 不为空时优先使用该会话上次的实例
+     */
+    public Endpoint acquire(Object affinityKey) {
+        startProbing();
+        long now = System.currentTimeMillis();
+        Endpoint chosen = null;
+        if (affinityKey != null) {
+            Endpoint previous = affinity.get(affinityKey);
+            if (previous != null && available(previous, now)) {
+                chosen = previous;
+            }
+        }
+        if (chosen == null) {
+            chosen = select(now);
+            if (affinityKey != null) {
+                affinity.put(affinityKey, chosen);
+            }
+        }
+        chosen.inFlight.incrementAndGet();
+        return chosen;
+    }
+
+    private Endpoint select(long now) {
+        int size = endpoints.size();
+        if (size == 1) {
+            return endpoints.get(0);
+        }
+        boolean ewma = "ewma".equalsIgnoreCase(settings.strategy());
+        // 从轮转位置开始比较，得分相同时请求均匀分散
+        int start = Math.floorMod(cursor.getAndIncrement(), size);
+        Endpoint best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Endpoint endpoint = endpoints.get((start + i) % size);
+            if (!available(endpoint, now)) {
+                continue;
+            }
+            double score = ewma
+                ? (endpoint.inFlight.get() + 1) * Math.max(endpoint.latencyEwmaMs, 0)
+                : endpoint.inFlight.get();
+            if (score < bestScore) {
+                best = endpoint;
+                bestScore = score;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+        // 全部被摘除时选最早恢复的实例，不让请求直接失败
+        Endpoint earliest = endpoints.get(0);
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.ejectedUntil < earliest.ejectedUntil) {
+                earliest = endpoint;
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * 摘除期满的实例重新参与选择，延迟和失败统计清零
+     */
+    private boolean available(Endpoint endpoint, long now) {
+        long until = endpoint.ejectedUntil;
+        if (until == 0) {
+            return true;
+        }
+        if (until > now) {
+            return false;
+        }
+        endpoint.ejectedUntil = 0;
+        endpoint.latencyEwmaMs = -1;
+        endpoint.consecutiveFailures.set(0);
+        log.info("{} endpoint {} back in rotation", name, endpoint.url);
+        return true;
+    }
+
+    /**
+     * 结束一次请求并记录结果
+     */
+    public void release(Endpoint endpoint, long elapsedNanos, boolean success) {
+        endpoint.inFlight.decrementAndGet();
+        double elapsedMs = elapsedNanos / 1_000_000.0;
+        if (success) {
+            endpoint.successTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            endpoint.consecutiveFailures.set(0);
+            double previous = endpoint.latencyEwmaMs;
+            double updated = previous < 0 ? elapsedMs : previous + EWMA_ALPHA * (elapsedMs - previous);
+            endpoint.latencyEwmaMs = updated;
+            if (settings.slowThresholdMs() > 0 && updated > settings.slowThresholdMs()) {
+                eject(endpoint, String.format("latency %.0f ms", updated));
+            }
+        } else {
+            endpoint.failureTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            int failures = endpoint.consecutiveFailures.incrementAndGet();
+            if (failures >= settings.ejectAfterFailures()) {
+                eject(endpoint, failures + " consecutive failures");
+            }
+        }
+    }
+
+    /**
+     * 结束一次请求但不计入统计（调用方取消）
+     */
+    public void abandon(Endpoint endpoint) {
+        endpoint.inFlight.decrementAndGet();
+    }
+
+    private void eject(Endpoint endpoint, String reason) {
+        if (endpoints.size() == 1) {
+            return;
+        }
+        boolean wasAvailable = endpoint.ejectedUntil == 0;
+        endpoint.ejectedUntil = System.currentTimeMillis() + settings.ejectMs();
+        if (wasAvailable) {
+            log.warn("{} endpoint {} ejected for {} ms: {}", name, endpoint.url, settings.ejectMs(), reason);
+        }
+    }
+
+    /**
+     * 阻塞调用：选择实例，把实例地址交给 action，按结果记录延迟与失败
+     */
+    public <T> T call(Function<String, T> action) {
+        Endpoint endpoint = acquire();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = action.apply(endpoint.url);
+            success = true;
+            return result;
+        } finally {
+            release(endpoint, System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * 非阻塞调用，订阅时选择实例
+     */
+    public <T> Mono<T> callAsync(Function<String, Mono<T>> action) {
+        return Mono.defer(() -> {
+            Endpoint endpoint = acquire();
+            long start = System.nanoTime();
+            return action.apply(endpoint.url)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        abandon(endpoint);
+                    } else {
+                        release(endpoint, System.nanoTime() - start, signal != SignalType.ON_ERROR);
+                    }
+                });
+        });
+    }
+
+    /**
+     * 第一次使用时开始健康检查，未被选中的提供者不探测
+     */
+    private void startProbing() {
+        if (healthPath == null || settings.probeIntervalMs() <= 0 || endpoints.size() == 1
+                || !probing.compareAndSet(false, true)) {
+            return;
+        }
+        probeTask = Flux.interval(Duration.ofMillis(settings.probeIntervalMs()))
+            .onBackpressureDrop()
+            .concatMap(tick -> Flux.fromIterable(endpoints).flatMap(this::probe))
+            .subscribe();
+    }
+
+    private Mono<Void> probe(Endpoint endpoint) {
+        return probeClient.get()
+            .uri(endpoint.url + healthPath)
+            .retrieve()
+            .toBodilessEntity()
+            .timeout(Duration.ofMillis(settings.probeTimeoutMs()))
+            .then()
+            .onErrorResume(e -> {
+                eject(endpoint, "health check failed: " + e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    public void close() {
+        Disposable task = probeTask;
+        if (task != null) {
+            task.dispose();
+        }
+    }
+}
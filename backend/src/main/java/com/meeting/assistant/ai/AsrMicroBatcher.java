@@ -0,0 +1,294 @@
+package com.meeting.assistant.ai;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * 跨会话的语音识别合批
+ * 各会话提交的音频段先进入同一个队列，凑够 batch-size 个或等待超过 batch-max-wait-ms 后
+ * 以一次 /transcribe_batch 请求发给本地模型服务，结果按顺序分发回各自的会话
+ * 同时进行的批量请求达到上限或提供者的并发许可用尽时暂停发送，等待期间到达的音频段并入这一批（最多 batch-max-size 个）；
+ * 每个批量请求占用提供者的一个并发许可，与不合批的调用共用同一个限制
+ */
+@Slf4j
+@Component
+public class AsrMicroBatcher implements ReactiveAIService {
+
+    private final WebClient webClient;
+    private final AsrEndpointPool endpointPool;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final String modelName;
+    private final int batchSize;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final boolean enabled;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Semaphore inFlight;
+    private final Thread dispatcher;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer queueWaitTimer;
+
+    private volatile boolean running = true;
+
+    private record Pending(ByteBuffer pcm, CompletableFuture<String> result, long enqueuedAt, Deadline deadline) {
+    }
+
+    public AsrMicroBatcher(WebClient asrWebClient,
+                           MeterRegistry meterRegistry,
+                           LocalWhisperProvider localWhisperProvider,
+                           ParaformerProvider paraformerProvider,
+                           @Value("${ai.provider:openai}") String provider,
+                           @Value("${meeting.transcription.batch-size:5}") int batchSize,
+                           @Value("${meeting.transcription.batch-max-size:16}") int maxBatchSize,
+                           @Value("${meeting.transcription.batch-max-wait-ms:5}") long maxWaitMs,
+                           @Value("${meeting.transcription.batch-max-in-flight:4}") int maxInFlight) {
+        this.webClient = asrWebClient;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatchSize = Math.max(this.batchSize, maxBatchSize);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMs));
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight));
+
+        if ("local-whisper".equalsIgnoreCase(provider)) {
+            this.endpointPool = localWhisperProvider.getEndpointPool();
+            this.concurrencyLimiter = localWhisperProvider.getConcurrencyLimiter();
+            this.modelName = "Local Whisper";
+        } else if ("paraformer".equalsIgnoreCase(provider)) {
+            this.endpointPool = paraformerProvider.getEndpointPool();
+            this.concurrencyLimiter = paraformerProvider.getConcurrencyLimiter();
+            this.modelName = "Paraformer";
+        } else {
+            this.endpointPool = null;
+            this.concurrencyLimiter = null;
+            this.modelName = provider;
+        }
+        // 只有本地模型服务提供批量接口；batch-size 为 1 时不合批
+        this.enabled = endpointPool != null && this.batchSize > 1;
+
+        this.batchSizeSummary = DistributionSummary.builder("asr.batch.size")
+            .description("每次批量请求包含的音频段数")
+            .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("asr.batch.queue.wait")
+            .description("音频段在合批队列中的等待时间")
+            .register(meterRegistry);
+
+        if (enabled) {
+            this.dispatcher = Thread.ofPlatform().daemon().name("asr-batcher").start(this::dispatchLoop);
+            log.info("ASR micro-batching for {}: up to {} segments ({} when backlogged), {} ms wait, {} batches in flight",
+                modelName, this.batchSize, this.maxBatchSize, maxWaitMs, maxInFlight);
+        } else {
+            this.dispatcher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 提交一个音频段，结果在所在批次返回后完成
+     * 完成之前调用方不能复用该缓冲区
+     */
+    public CompletableFuture<String> submit(ByteBuffer pcm) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new RuntimeException(modelName + " 合批服务已关闭"));
+        }
+        return enqueue(pcm).result();
+    }
+
+    private Pending enqueue(ByteBuffer pcm) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        Pending pending = new Pending(pcm.duplicate(), result, System.nanoTime(), Deadline.current());
+        queue.add(pending);
+        // 调用方放弃等待（超时、取消）时，还没发出的音频段直接移出队列
+        result.whenComplete((text, error) -> {
+            if (result.isCancelled()) {
+                queue.remove(pending);
+            }
+        });
+        return pending;
+    }
+
+    @Override
+    public Mono<String> transcribeAsync(ByteBuffer pcm) {
+        return Mono.defer(() -> Mono.fromFuture(submit(pcm)));
+    }
+
+    /**
+     * 阻塞等待转录结果，供 blocking 模式的转录线程使用
+     */
+    public String transcribe(ByteBuffer pcm) {
+        if (!running) {
+            throw new RuntimeException(modelName + " 合批服务已关闭");
+        }
+        Pending pending = enqueue(pcm);
+        CompletableFuture<String> result = pending.result();
+        Deadline deadline = Deadline.current();
+        try {
+            return deadline == null ? result.join() : result.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+        } catch (CompletionException | ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            // 仍在队列里说明还没发出，否则是模型服务在截止时间内没有返回
+            boolean dispatched = !queue.remove(pending);
+            result.cancel(false);
+            throw new DeadlineExceededException(modelName + " 合批转录已超过截止时间", dispatched);
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(modelName + " 等待合批转录被中断", e);
+        }
+    }
+
+    @Override
+    public String getModelName() {
+        return modelName + " (batched)";
+    }
+
+    private void dispatchLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                Pending first = queue.take();
+                batch.add(first);
+                // 从第一个音频段入队开始计算等待时间，凑够一批或超时即发送
+                long deadline = first.enqueuedAt() + maxWaitNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                inFlight.acquire();
+                try {
+                    concurrencyLimiter.acquire();
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                // 等待许可期间到达的音频段并入这一批
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                // 等待期间已过截止时间的音频段不再发送
+                batch.removeIf(p -> {
+                    if (p.deadline() != null && p.deadline().isExpired()) {
+                        p.result().completeExceptionally(new DeadlineExceededException(modelName + " 合批转录已超过截止时间"));
+                        return true;
+                    }
+                    return false;
+                });
+                if (batch.isEmpty()) {
+                    releasePermits();
+                    continue;
+                }
+                try {
+                    send(List.copyOf(batch));
+                } catch (RuntimeException e) {
+                    releasePermits();
+                    throw e;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("ASR batch dispatch failed", e);
+                batch.forEach(p -> p.result().completeExceptionally(e));
+            }
+            batch.clear();
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        long now = System.nanoTime();
+        batch.forEach(p -> queueWaitTimer.record(now - p.enqueuedAt(), TimeUnit.NANOSECONDS));
+        batchSizeSummary.record(batch.size());
+
+        long contentLength = 0;
+        for (Pending p : batch) {
+            contentLength += p.pcm().remaining();
+        }
+        String lengths = batch.stream()
+            .map(p -> String.valueOf(p.pcm().remaining()))
+            .collect(Collectors.joining(","));
+        log.debug("Sending ASR batch of {} segments, {} bytes", batch.size(), contentLength);
+
+        // 各段 PCM 依次写入请求体（直接包装缓冲区，不复制），X-Segment-Lengths 给出每段的字节数
+        Flux<DataBuffer> body = Flux.fromIterable(batch)
+            .map(p -> DefaultDataBufferFactory.sharedInstance.wrap(p.pcm().duplicate()));
+
+        long length = contentLength;
+        endpointPool.callAsync(serviceUrl -> webClient.post()
+                .uri(serviceUrl + "/transcribe_batch")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(length)
+                .header("X-Segment-Lengths", lengths)
+                .body(BodyInserters.fromDataBuffers(body))
+                .retrieve()
+                .bodyToMono(Map.class))
+            .doFinally(signal -> releasePermits())
+            .subscribe(
+                response -> complete(batch, response),
+                error -> {
+                    RuntimeException failure = new RuntimeException(modelName + " 批量转录失败: " + error.getMessage(), error);
+                    batch.forEach(p -> p.result().completeExceptionally(failure));
+                });
+    }
+
+    private void releasePermits() {
+        concurrencyLimiter.release();
+        inFlight.release();
+    }
+
+    private void complete(List<Pending> batch, Map<?, ?> response) {
+        Object texts = response.get("texts");
+        if (!(texts instanceof List<?> list) || list.size() != batch.size()) {
+            RuntimeException failure = new RuntimeException(modelName + " 批量转录返回的结果数量不匹配");
+            batch.forEach(p -> p.result().completeExceptionally(failure));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Object text = list.get(i);
+            batch.get(i).result().complete(text != null ? text.toString() : "");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        RuntimeException failure = new RuntimeException(modelName + " 合批服务已关闭");
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(failure);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.meeting.assistant.ai;
+
+import com.meeting.assistant.entity.Speaker;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * 转录走跨会话合批的 AIService，其余调用交给原提供者
+ */
+public class BatchingAIService implements AIService {
+
+    private final AIService delegate;
+    private final AsrMicroBatcher batcher;
+
+    public BatchingAIService(AIService delegate, AsrMicroBatcher batcher) {
+        this.delegate = delegate;
+        this.batcher = batcher;
+    }
+
+    @Override
+    public String transcribe(byte[] audioData) {
+        return batcher.transcribe(ByteBuffer.wrap(audioData));
+    }
+
+    @Override
+    public String transcribe(ByteBuffer audioData) {
+        return batcher.transcribe(audioData);
+    }
+
+    @Override
+    public String summarize(String transcript, List<Speaker> speakers) {
+        return delegate.summarize(transcript, speakers);
+    }
+
+    @Override
+    public Flux<String> summarizeStream(String transcript, List<Speaker> speakers) {
+        return delegate.summarizeStream(transcript, speakers);
+    }
+
+    @Override
+    public String chat(String prompt) {
+        return delegate.chat(prompt);
+    }
+
+    @Override
+    public String getModelName() {
+        return delegate.getModelName();
+    }
+
+    @Override
+    public String getAsrModelName() {
+        return delegate.getAsrModelName();
+    }
+
+    @Override
+    public String getLlmModelName() {
+        return delegate.getLlmModelName();
+    }
+}
@@ -0,0 +1,149 @@
+package com.meeting.assistant.ai;
+
+import com.meeting.assistant.entity.Speaker;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * 带结果缓存的 AIService：相同的 (提供者, 模型, 提示词版本, 输入) 直接返回上次的结果
+ * 用于重复完成会议、客户端重发音频等场景，避免把相同内容再次发给模型
+ * 修改提示词模板时需要调整 ai.cache.prompt-version，使旧结果失效
+ */
+public class CachingAIService implements AIService {
+
+    private static final String KIND_TRANSCRIBE = "transcribe";
+    private static final String KIND_SUMMARIZE = "summarize";
+    private static final String KIND_CHAT = "chat";
+
+    private final AIService delegate;
+    private final AiResultCache cache;
+    private final String provider;
+    private final String promptVersion;
+    private final boolean persistTranscriptions;
+
+    public CachingAIService(AIService delegate, AiResultCache cache, String provider,
+                            String promptVersion, boolean persistTranscriptions) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.provider = provider;
+        this.promptVersion = promptVersion;
+        this.persistTranscriptions = persistTranscriptions;
+    }
+
+    @Override
+    public String transcribe(byte[] audioData) {
+        return transcribe(ByteBuffer.wrap(audioData));
+    }
+
+    @Override
+    public String transcribe(ByteBuffer audioData) {
+        String key = key(KIND_TRANSCRIBE, audioData);
+        Optional<String> cached = cache.get(KIND_TRANSCRIBE, key, persistTranscriptions);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        String text = delegate.transcribe(audioData);
+        cache.put(KIND_TRANSCRIBE, key, text, persistTranscriptions);
+        return text;
+    }
+
+    @Override
+    public String summarize(String transcript, List<Speaker> speakers) {
+        String key = key(KIND_SUMMARIZE, transcript, speakerNames(speakers));
+        Optional<String> cached = cache.get(KIND_SUMMARIZE, key, true);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        String summary = delegate.summarize(transcript, speakers);
+        cache.put(KIND_SUMMARIZE, key, summary, true);
+        return summary;
+    }
+
+    /**
+     * 命中时整体发出缓存的总结；未命中时透传模型输出，完整结束后写入缓存
+     */
+    @Override
+    public Flux<String> summarizeStream(String transcript, List<Speaker> speakers) {
+        return Flux.defer(() -> {
+            String key = key(KIND_SUMMARIZE, transcript, speakerNames(speakers));
+            Optional<String> cached = cache.get(KIND_SUMMARIZE, key, true);
+            if (cached.isPresent()) {
+                return Flux.just(cached.get());
+            }
+            StringBuilder text = new StringBuilder();
+            return delegate.summarizeStream(transcript, speakers)
+                .doOnNext(text::append)
+                .doOnComplete(() -> cache.put(KIND_SUMMARIZE, key, text.toString(), true));
+        });
+    }
+
+    @Override
+    public String chat(String prompt) {
+        String key = key(KIND_CHAT, prompt);
+        Optional<String> cached = cache.get(KIND_CHAT, key, true);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        String reply = delegate.chat(prompt);
+        cache.put(KIND_CHAT, key, reply, true);
+        return reply;
+    }
+
+    @Override
+    public String getModelName() {
+        return delegate.getModelName();
+    }
+
+    @Override
+    public String getAsrModelName() {
+        return delegate.getAsrModelName();
+    }
+
+    @Override
+    public String getLlmModelName() {
+        return delegate.getLlmModelName();
+    }
+
+    /**
+     * 给非阻塞转录加上同一份缓存
+     */
+    public ReactiveAIService wrap(ReactiveAIService reactive) {
+        return new ReactiveAIService() {
+            @Override
+            public Mono<String> transcribeAsync(ByteBuffer pcm) {
+                String key = key(KIND_TRANSCRIBE, pcm);
+                Optional<String> cached = cache.get(KIND_TRANSCRIBE, key, persistTranscriptions);
+                if (cached.isPresent()) {
+                    return Mono.just(cached.get());
+                }
+                return reactive.transcribeAsync(pcm)
+                    .doOnNext(text -> cache.put(KIND_TRANSCRIBE, key, text, persistTranscriptions));
+            }
+
+            @Override
+            public String getModelName() {
+                return reactive.getModelName();
+            }
+        };
+    }
+
+    /**
+     * 按调用类型取模型标识：故障转移切换转录提供者时，总结和对话的缓存键不变
+     */
+    private String key(String kind, Object... parts) {
+        String model = KIND_TRANSCRIBE.equals(kind) ? delegate.getAsrModelName() : delegate.getLlmModelName();
+        return AiResultCache.key(kind, provider + "/" + model, promptVersion, parts);
+    }
+
+    private static String speakerNames(List<Speaker> speakers) {
+        if (speakers == null) {
+            return "";
+        }
+        return speakers.stream().map(Speaker::getName).collect(Collectors.joining("\u0000"));
+    }
+}
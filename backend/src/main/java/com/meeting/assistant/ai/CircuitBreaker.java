@@ -0,0 +1,167 @@
+package com.meeting.assistant.ai;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.function.Supplier;
+
+/**
+ * 模型服务熔断器
+ * 连续失败达到阈值后打开，期间直接拒绝调用；open-ms 后进入半开状态，放行少量探测调用，
+ * 探测成功则关闭，失败则重新打开
+ * 请求已发给模型服务却在截止时间内没有返回（含因截止时间取消的非阻塞调用）计为失败，
+ * 服务卡住时也能熔断；还没发出就已超时、调用方主动取消、熔断拒绝本身不计为失败
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    /**
+     * @param failureThreshold 连续失败多少次后打开
+     * @param openMs 打开后多久进入半开状态
+     * @param halfOpenMaxCalls 半开状态下同时放行的探测调用数
+     */
+    public record Settings(int failureThreshold, long openMs, int halfOpenMaxCalls) {
+    }
+
+    private final String name;
+    private final Settings settings;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private int halfOpenCalls;
+
+    public CircuitBreaker(String name, Settings settings) {
+        this.name = name;
+        this.settings = settings;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public <T> T call(Supplier<T> action) {
+        acquire();
+        try {
+            T result = action.get();
+            onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            onError(e);
+            throw e;
+        }
+    }
+
+    public <T> Mono<T> callAsync(Supplier<Mono<T>> action) {
+        return Mono.defer(() -> {
+            Deadline deadline = Deadline.current();
+            acquire();
+            return action.get()
+                .doOnSuccess(result -> onSuccess())
+                .doOnError(this::onError)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        onCancel(deadline);
+                    }
+                });
+        });
+    }
+
+    public <T> Flux<T> callStream(Supplier<Flux<T>> action) {
+        return Flux.defer(() -> {
+            Deadline deadline = Deadline.current();
+            acquire();
+            return action.get()
+                .doOnComplete(this::onSuccess)
+                .doOnError(this::onError)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        onCancel(deadline);
+                    }
+                });
+        });
+    }
+
+    private synchronized void acquire() {
+        if (state == State.OPEN) {
+            long openFor = System.currentTimeMillis() - openedAt;
+            if (openFor < settings.openMs()) {
+                throw new CircuitOpenException(name + " 熔断中，暂停调用", settings.openMs() - openFor);
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenCalls >= settings.halfOpenMaxCalls()) {
+                throw new CircuitOpenException(name + " 熔断探测中，暂停调用");
+            }
+            halfOpenCalls++;
+        }
+    }
+
+    private synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            transition(State.CLOSED);
+        }
+    }
+
+    private void onError(Throwable error) {
+        if (error instanceof CircuitOpenException
+                || error instanceof DeadlineExceededException e && !e.isDispatched()) {
+            onIgnored();
+            return;
+        }
+        onFailure();
+    }
+
+    /**
+     * 非阻塞调用被取消：调用方在截止时间到达时取消（timeout）说明服务没有及时返回，计为失败；
+     * 其他取消（会话关闭等）不计
+     * 截止时间按毫秒向下取整计时，取消时剩余不足 1 毫秒即视为已到
+     */
+    private void onCancel(Deadline deadline) {
+        if (deadline != null && deadline.remainingMillis() == 0) {
+            onFailure();
+        } else {
+            onIgnored();
+        }
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= settings.failureThreshold()) {
+            openedAt = System.currentTimeMillis();
+            transition(State.OPEN);
+        }
+    }
+
+    private synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenCalls > 0) {
+            halfOpenCalls--;
+        }
+    }
+
+    // 调用方持有锁
+    private void transition(State next) {
+        if (state == next) {
+            return;
+        }
+        if (next == State.OPEN) {
+            log.warn("Circuit {} opened after {} consecutive failures", name, consecutiveFailures);
+        } else {
+            log.info("Circuit {} {}", name, next == State.CLOSED ? "closed" : "half-open, probing");
+        }
+        state = next;
+        halfOpenCalls = 0;
+    }
+}
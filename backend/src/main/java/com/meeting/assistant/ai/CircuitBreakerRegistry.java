@@ -0,0 +1,39 @@
+package com.meeting.assistant.ai;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按名称共享熔断器，阻塞与非阻塞调用同一服务时使用同一个熔断器
+ * 状态指标 ai.circuit.state：0 关闭，1 半开，2 打开
+ */
+@Component
+public class CircuitBreakerRegistry {
+
+    private final CircuitBreaker.Settings settings;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry(MeterRegistry meterRegistry,
+                                  @Value("${ai.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                  @Value("${ai.circuit-breaker.open-ms:30000}") long openMs,
+                                  @Value("${ai.circuit-breaker.half-open-max-calls:1}") int halfOpenMaxCalls) {
+        this.meterRegistry = meterRegistry;
+        this.settings = new CircuitBreaker.Settings(failureThreshold, openMs, halfOpenMaxCalls);
+    }
+
+    public CircuitBreaker get(String name) {
+        return breakers.computeIfAbsent(name, key -> {
+            CircuitBreaker breaker = new CircuitBreaker(key, settings);
+            Gauge.builder("ai.circuit.state", breaker, b -> b.getState().ordinal())
+                .tag("breaker", key)
+                .register(meterRegistry);
+            return breaker;
+        });
+    }
+}
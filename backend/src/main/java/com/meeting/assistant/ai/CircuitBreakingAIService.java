@@ -0,0 +1,87 @@
+package com.meeting.assistant.ai;
+
+import com.meeting.assistant.entity.Speaker;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * 给单个提供者加上熔断：转录和大模型调用各用一个熔断器，
+ * 语音识别服务挂起时不影响总结；截止时间已过的调用不再发出
+ */
+public class CircuitBreakingAIService implements AIService {
+
+    private final AIService delegate;
+    private final CircuitBreaker asrBreaker;
+    private final CircuitBreaker llmBreaker;
+
+    public CircuitBreakingAIService(AIService delegate, String provider, CircuitBreakerRegistry registry) {
+        this.delegate = delegate;
+        this.asrBreaker = registry.get(provider + ".asr");
+        this.llmBreaker = registry.get(provider + ".llm");
+    }
+
+    @Override
+    public String transcribe(byte[] audioData) {
+        Deadline.check("转录");
+        return asrBreaker.call(() -> delegate.transcribe(audioData));
+    }
+
+    @Override
+    public String transcribe(ByteBuffer audioData) {
+        Deadline.check("转录");
+        return asrBreaker.call(() -> delegate.transcribe(audioData));
+    }
+
+    @Override
+    public String summarize(String transcript, List<Speaker> speakers) {
+        Deadline.check("总结");
+        return llmBreaker.call(() -> delegate.summarize(transcript, speakers));
+    }
+
+    @Override
+    public Flux<String> summarizeStream(String transcript, List<Speaker> speakers) {
+        return llmBreaker.callStream(() -> delegate.summarizeStream(transcript, speakers));
+    }
+
+    @Override
+    public String chat(String prompt) {
+        Deadline.check("模型调用");
+        return llmBreaker.call(() -> delegate.chat(prompt));
+    }
+
+    @Override
+    public String getModelName() {
+        return delegate.getModelName();
+    }
+
+    @Override
+    public String getAsrModelName() {
+        return delegate.getAsrModelName();
+    }
+
+    @Override
+    public String getLlmModelName() {
+        return delegate.getLlmModelName();
+    }
+
+    /**
+     * 非阻塞转录使用同一个转录熔断器
+     */
+    public static ReactiveAIService wrap(ReactiveAIService reactive, String provider, CircuitBreakerRegistry registry) {
+        CircuitBreaker breaker = registry.get(provider + ".asr");
+        return new ReactiveAIService() {
+            @Override
+            public Mono<String> transcribeAsync(ByteBuffer pcm) {
+                return breaker.callAsync(() -> reactive.transcribeAsync(pcm));
+            }
+
+            @Override
+            public String getModelName() {
+                return reactive.getModelName();
+            }
+        };
+    }
+}
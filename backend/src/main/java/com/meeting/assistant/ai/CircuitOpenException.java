@@ -0,0 +1,23 @@
+package com.meeting.assistant.ai;
+
+/**
+ * 熔断器打开，调用被直接拒绝
+ * retryAfterMs 为距离放行探测调用的大致时间，未知时为 0
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    private final long retryAfterMs;
+
+    public CircuitOpenException(String message) {
+        this(message, 0);
+    }
+
+    public CircuitOpenException(String message, long retryAfterMs) {
+        super(message);
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
@@ -0,0 +1,69 @@
+package com.meeting.assistant.ai;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 模型服务并发限制
+ * 转录任务运行在虚拟线程上时并发不再受线程数约束，每个提供者用一个信号量保护下游模型服务
+ */
+@Slf4j
+public class ConcurrencyLimiter {
+
+    private final String name;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final long acquireTimeoutMs;
+
+    public ConcurrencyLimiter(String name, int maxConcurrency, long acquireTimeoutMs) {
+        this.name = name;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        log.info("{} concurrency limit: {}", name, maxConcurrency);
+    }
+
+    /**
+     * 获取许可后执行调用，超时仍未获取到许可时抛出异常
+     * 当前线程带有截止时间时最多等到截止时间
+     */
+    public <T> T call(Supplier<T> action) {
+        acquire();
+        try {
+            return action.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * 阻塞获取一个许可，规则同 {@link #call}；用于非阻塞调用，调用结束后必须 {@link #release}
+     */
+    public void acquire() {
+        boolean acquired;
+        long timeoutMs = Deadline.remainingMillis(acquireTimeoutMs);
+        try {
+            acquired = permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(name + " 等待并发许可时被中断", e);
+        }
+        if (!acquired) {
+            if (timeoutMs < acquireTimeoutMs) {
+                throw new DeadlineExceededException(name + " 等待并发许可超过截止时间");
+            }
+            throw new RuntimeException(name + " 并发请求已达上限 (" + maxConcurrency + ")");
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getInFlight() {
+        return maxConcurrency - permits.availablePermits();
+    }
+}
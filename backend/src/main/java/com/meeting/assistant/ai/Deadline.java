@@ -0,0 +1,82 @@
+package com.meeting.assistant.ai;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * 一次模型调用的截止时间
+ * 通过 {@link #call} 绑定到当前线程，调用链上的限流等待、合批、故障转移按剩余时间决定是否继续；
+ * 切换线程时用 {@link #propagate} 带上调用方的截止时间
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * 当前线程绑定的截止时间，没有时返回 null
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 当前截止时间的剩余毫秒数，没有截止时间时返回 fallbackMs，取两者较小值
+     */
+    public static long remainingMillis(long fallbackMs) {
+        Deadline deadline = CURRENT.get();
+        return deadline == null ? fallbackMs : Math.min(fallbackMs, deadline.remainingMillis());
+    }
+
+    /**
+     * 当前截止时间已过时抛出 {@link DeadlineExceededException}
+     */
+    public static void check(String operation) {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException(operation + " 已超过截止时间");
+        }
+    }
+
+    /**
+     * 包装 supplier，在执行它的线程上恢复调用方当前的截止时间
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> supplier) {
+        Deadline deadline = CURRENT.get();
+        return deadline == null ? supplier : () -> deadline.call(supplier);
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, (expiresAtNanos - System.nanoTime()) / 1_000_000);
+    }
+
+    public boolean isExpired() {
+        return System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    /**
+     * 在该截止时间下执行，结束后恢复原来的截止时间
+     */
+    public <T> T call(Supplier<T> supplier) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return supplier.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
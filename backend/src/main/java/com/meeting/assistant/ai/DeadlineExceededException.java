@@ -0,0 +1,23 @@
+package com.meeting.assistant.ai;
+
+/**
+ * 模型调用在截止时间之前没有完成（或还没开始就已超时）
+ * dispatched 表示请求是否已经发给模型服务：已发出仍超时说明服务端变慢，熔断器计为失败
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    private final boolean dispatched;
+
+    public DeadlineExceededException(String message) {
+        this(message, false);
+    }
+
+    public DeadlineExceededException(String message, boolean dispatched) {
+        super(message);
+        this.dispatched = dispatched;
+    }
+
+    public boolean isDispatched() {
+        return dispatched;
+    }
+}
@@ -0,0 +1,462 @@
+package com.meeting.assistant.ai;
+
+import com.meeting.assistant.entity.Speaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 多提供者组合 AIService
+ * 请求发给当前主提供者；转录在主提供者超过其 p95 延迟仍未返回时，向下一个提供者发出对冲请求，取先返回的结果。
+ * 当前提供者最近的错误率或 p95 延迟超出阈值时自动切换到下一个提供者，切换 failback-ms 后再尝试回到首选提供者
+ * 总结与对话不对冲（成本高），只在出错时依次尝试后续提供者
+ * 转录和大模型调用的延迟相差一个数量级，两者分别统计、分别切换，互不影响
+ */
+@Slf4j
+public class FailoverAIService implements AIService {
+
+    private final List<Route> routes;
+    private final Settings settings;
+    private final Selector asr;
+    private final Selector llm;
+    private final MeterRegistry meterRegistry;
+    // 所有提供者的模型组合，不随当前提供者变化
+    private final String asrModelName;
+    private final String llmModelName;
+    private final ExecutorService executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ai-hedge-", 0).factory());
+
+    private final Counter requests;
+    private final Counter hedges;
+    private final Object hedgeBudgetLock = new Object();
+    private double hedgeBudget;
+
+    /**
+     * @param hedgeEnabled 是否对转录发出对冲请求
+     * @param hedgeMinDelayMs 对冲等待时间下限
+     * @param hedgeMaxRatio 对冲请求占全部请求的比例上限
+     * @param windowSize 每个提供者统计最近多少次请求
+     * @param minSamples 样本数达到该值后才判断是否切换
+     * @param errorRateThreshold 错误率超过该值时切换
+     * @param latencySloMs 转录 p95 延迟超过该值时切换
+     * @param llmLatencySloMs 总结、对话 p95 延迟超过该值时切换
+     * @param failbackMs 切换后多久尝试回到首选提供者
+     */
+    public record Settings(boolean hedgeEnabled, long hedgeMinDelayMs, double hedgeMaxRatio, int windowSize,
+                           int minSamples, double errorRateThreshold, long latencySloMs, long llmLatencySloMs,
+                           long failbackMs) {
+    }
+
+    public FailoverAIService(List<String> names, List<AIService> services, Settings settings,
+                             MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+        this.routes = IntStream.range(0, names.size())
+            .mapToObj(i -> new Route(i, names.get(i), services.get(i)))
+            .toList();
+        this.asrModelName = routes.stream().map(r -> r.service().getAsrModelName()).distinct()
+            .collect(Collectors.joining(" | "));
+        this.llmModelName = routes.stream().map(r -> r.service().getLlmModelName()).distinct()
+            .collect(Collectors.joining(" | "));
+        this.asr = new Selector("asr", settings.latencySloMs());
+        this.llm = new Selector("llm", settings.llmLatencySloMs());
+        this.requests = Counter.builder("ai.failover.requests").register(meterRegistry);
+        this.hedges = Counter.builder("ai.failover.hedges").register(meterRegistry);
+        log.info("AI failover order: {}, hedging: {}", names, settings.hedgeEnabled());
+    }
+
+    private record Route(int index, String name, AIService service) {
+    }
+
+    private record Outcome(Route route, String text) {
+    }
+
+    @Override
+    public String transcribe(ByteBuffer audioData) {
+        // 对冲时落后的请求可能在调用方回收缓冲区之后才读取音频，这里先复制一份
+        byte[] audio = new byte[audioData.remaining()];
+        audioData.duplicate().get(audio);
+        return transcribe(audio);
+    }
+
+    @Override
+    public String transcribe(byte[] audioData) {
+        requests.increment();
+        Route primary = asr.current();
+        CompletableFuture<Outcome> first = submit(primary, audioData);
+        Route secondary = next(primary);
+        if (!settings.hedgeEnabled() || secondary == null) {
+            return awaitOrFailover(first, primary, audioData);
+        }
+        accrueHedgeBudget();
+        try {
+            return first.get(Deadline.remainingMillis(asr.hedgeDelayMs(primary)), TimeUnit.MILLISECONDS).text();
+        } catch (TimeoutException e) {
+            Deadline.check("转录");
+            if (!spendHedgeBudget()) {
+                return awaitOrFailover(first, primary, audioData);
+            }
+            hedges.increment();
+            log.debug("Hedging transcription from {} to {}", primary.name(), secondary.name());
+            Outcome winner;
+            try {
+                winner = join(firstSuccessful(first, submit(secondary, audioData)));
+            } catch (DeadlineExceededException ex) {
+                throw ex;
+            } catch (RuntimeException ex) {
+                // 主提供者和对冲都失败：继续尝试还没试过的提供者
+                return callInOrder(secondary, 2, route -> join(submit(route, audioData)).text(), ex);
+            }
+            Counter.builder("ai.failover.hedge.wins")
+                .tag("winner", winner.route() == primary ? "primary" : "hedge")
+                .register(meterRegistry)
+                .increment();
+            return winner.text();
+        } catch (ExecutionException e) {
+            return failover(primary, audioData, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("转录被中断", e);
+        }
+    }
+
+    private String awaitOrFailover(CompletableFuture<Outcome> future, Route primary, byte[] audioData) {
+        try {
+            return join(future).text();
+        } catch (DeadlineExceededException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return failover(primary, audioData, e);
+        }
+    }
+
+    /**
+     * 主提供者出错后依次尝试后续提供者
+     */
+    private String failover(Route failed, byte[] audioData, Throwable cause) {
+        return callInOrder(failed, 1, route -> join(submit(route, audioData)).text(), cause);
+    }
+
+    private CompletableFuture<Outcome> submit(Route route, byte[] audioData) {
+        // 在虚拟线程上恢复调用方的截止时间
+        return CompletableFuture.supplyAsync(Deadline.propagate(() -> new Outcome(route, timed(asr, route,
+            () -> route.service().transcribe(ByteBuffer.wrap(audioData))))), executor);
+    }
+
+    /**
+     * 取第一个成功的结果，全部失败时以最后一个错误结束
+     */
+    private static CompletableFuture<Outcome> firstSuccessful(CompletableFuture<Outcome> a, CompletableFuture<Outcome> b) {
+        CompletableFuture<Outcome> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<Outcome> future : List.of(a, b)) {
+            future.whenComplete((outcome, error) -> {
+                if (error == null) {
+                    result.complete(outcome);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * 等待结果，最多等到当前截止时间
+     */
+    private static Outcome join(CompletableFuture<Outcome> future) {
+        Deadline deadline = Deadline.current();
+        try {
+            return deadline == null ? future.get() : future.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("转录已超过截止时间");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("转录被中断", e);
+        }
+    }
+
+    @Override
+    public String summarize(String transcript, List<Speaker> speakers) {
+        Route primary = llm.current();
+        try {
+            return timed(llm, primary, () -> primary.service().summarize(transcript, speakers));
+        } catch (RuntimeException e) {
+            return callInOrder(primary, 1, route -> timed(llm, route, () -> route.service().summarize(transcript, speakers)), e);
+        }
+    }
+
+    /**
+     * 还没有输出任何文本时出错才切换到下一个提供者，避免重复输出
+     */
+    @Override
+    public Flux<String> summarizeStream(String transcript, List<Speaker> speakers) {
+        return Flux.defer(() -> stream(llm.current(), transcript, speakers, 0));
+    }
+
+    private Flux<String> stream(Route route, String transcript, List<Speaker> speakers, int attempt) {
+        AtomicBoolean emitted = new AtomicBoolean();
+        long start = System.nanoTime();
+        return route.service().summarizeStream(transcript, speakers)
+            .doOnNext(delta -> emitted.set(true))
+            .doOnComplete(() -> llm.record(route, System.nanoTime() - start, true))
+            .onErrorResume(e -> {
+                llm.record(route, System.nanoTime() - start, false);
+                Route next = next(route);
+                if (emitted.get() || next == null || attempt + 1 >= routes.size()) {
+                    return Flux.error(e);
+                }
+                log.warn("Summary stream from {} failed, retrying with {}: {}", route.name(), next.name(), e.getMessage());
+                return stream(next, transcript, speakers, attempt + 1);
+            });
+    }
+
+    @Override
+    public String chat(String prompt) {
+        Route primary = llm.current();
+        try {
+            return timed(llm, primary, () -> primary.service().chat(prompt));
+        } catch (RuntimeException e) {
+            return callInOrder(primary, 1, route -> timed(llm, route, () -> route.service().chat(prompt)), e);
+        }
+    }
+
+    @Override
+    public String getModelName() {
+        return asr.current().service().getModelName();
+    }
+
+    @Override
+    public String getAsrModelName() {
+        return asrModelName;
+    }
+
+    @Override
+    public String getLlmModelName() {
+        return llmModelName;
+    }
+
+    /**
+     * 从 failed 之后依次尝试其余提供者
+     * @param tried 已经失败的提供者数（failed 及其之前连续的几个），这些不再重试
+     */
+    private String callInOrder(Route failed, int tried, Function<Route, String> call, Throwable cause) {
+        RuntimeException last = cause instanceof RuntimeException re ? re : new RuntimeException(cause);
+        if (last instanceof DeadlineExceededException) {
+            throw last;
+        }
+        int start = failed.index();
+        for (int i = 1; i <= routes.size() - tried; i++) {
+            Route route = routes.get((start + i) % routes.size());
+            log.warn("{} failed, trying {}: {}", failed.name(), route.name(), last.getMessage());
+            try {
+                return call.apply(route);
+            } catch (DeadlineExceededException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                last = e;
+                failed = route;
+            }
+        }
+        throw last;
+    }
+
+    private static String timed(Selector selector, Route route, Supplier<String> call) {
+        long start = System.nanoTime();
+        try {
+            String result = call.get();
+            selector.record(route, System.nanoTime() - start, true);
+            return result;
+        } catch (RuntimeException e) {
+            selector.record(route, System.nanoTime() - start, false);
+            throw e;
+        }
+    }
+
+    private Route next(Route route) {
+        if (routes.size() < 2) {
+            return null;
+        }
+        return routes.get((route.index() + 1) % routes.size());
+    }
+
+    /**
+     * 每个转录请求积累 hedgeMaxRatio 的额度，限制对冲占比
+     */
+    private void accrueHedgeBudget() {
+        synchronized (hedgeBudgetLock) {
+            hedgeBudget = Math.min(hedgeBudget + settings.hedgeMaxRatio(), 10);
+        }
+    }
+
+    /**
+     * 主提供者超过对冲等待时间时消耗 1 个额度发出对冲，额度不足时不对冲
+     */
+    private boolean spendHedgeBudget() {
+        synchronized (hedgeBudgetLock) {
+            if (hedgeBudget >= 1) {
+                hedgeBudget -= 1;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 一类调用（转录或大模型）的提供者选择：每个提供者一个统计窗口，当前提供者超出阈值时切换
+     */
+    private final class Selector {
+
+        private final String kind;
+        private final long latencySloMs;
+        private final LatencyWindow[] windows;
+        private volatile int active;
+        private volatile long switchedAt;
+
+        Selector(String kind, long latencySloMs) {
+            this.kind = kind;
+            this.latencySloMs = latencySloMs;
+            this.windows = new LatencyWindow[routes.size()];
+            for (int i = 0; i < windows.length; i++) {
+                windows[i] = new LatencyWindow(settings.windowSize());
+            }
+        }
+
+        void record(Route route, long elapsedNanos, boolean success) {
+            LatencyWindow window = windows[route.index()];
+            window.record(TimeUnit.NANOSECONDS.toMillis(elapsedNanos), success);
+            if (route.index() != active) {
+                return;
+            }
+            if (window.samples() < settings.minSamples()) {
+                return;
+            }
+            double errorRate = window.errorRate();
+            long p95 = window.p95();
+            if (errorRate > settings.errorRateThreshold()) {
+                switchFrom(route, String.format("error rate %.2f", errorRate));
+            } else if (p95 > latencySloMs) {
+                switchFrom(route, "p95 " + p95 + " ms");
+            }
+        }
+
+        private synchronized void switchFrom(Route route, String reason) {
+            Route next = next(route);
+            if (route.index() != active || next == null) {
+                return;
+            }
+            activate(next, reason);
+        }
+
+        private void activate(Route route, String reason) {
+            Route previous = routes.get(active);
+            active = route.index();
+            switchedAt = System.currentTimeMillis();
+            // 重新开始统计，切回来时不受旧样本影响
+            windows[route.index()].reset();
+            log.warn("AI provider failover ({}): {} -> {} ({})", kind, previous.name(), route.name(), reason);
+            Counter.builder("ai.failover.events")
+                .tag("kind", kind)
+                .tag("from", previous.name())
+                .tag("to", route.name())
+                .tag("reason", reason.startsWith("error") ? "error-rate" : reason.startsWith("p95") ? "latency" : "failback")
+                .register(meterRegistry)
+                .increment();
+        }
+
+        /**
+         * 当前提供者；已切换且超过 failback-ms 时先回到首选提供者
+         */
+        Route current() {
+            if (active != 0 && System.currentTimeMillis() - switchedAt > settings.failbackMs()) {
+                synchronized (this) {
+                    if (active != 0 && System.currentTimeMillis() - switchedAt > settings.failbackMs()) {
+                        activate(routes.get(0), "failback");
+                    }
+                }
+            }
+            return routes.get(active);
+        }
+
+        /**
+         * 对冲等待时间：该提供者最近请求的 p95（不低于下限），样本不足时按延迟 SLO 等待
+         */
+        long hedgeDelayMs(Route route) {
+            LatencyWindow window = windows[route.index()];
+            if (window.samples() < settings.minSamples()) {
+                return Math.max(settings.hedgeMinDelayMs(), latencySloMs);
+            }
+            return Math.max(settings.hedgeMinDelayMs(), window.p95());
+        }
+    }
+
+    /**
+     * 最近 N 次请求的延迟和成败
+     */
+    private static final class LatencyWindow {
+
+        private final long[] latencies;
+        private final boolean[] failures;
+        private int next;
+        private int count;
+
+        LatencyWindow(int size) {
+            this.latencies = new long[size];
+            this.failures = new boolean[size];
+        }
+
+        synchronized void record(long latencyMs, boolean success) {
+            latencies[next] = latencyMs;
+            failures[next] = !success;
+            next = (next + 1) % latencies.length;
+            count = Math.min(count + 1, latencies.length);
+        }
+
+        synchronized int samples() {
+            return count;
+        }
+
+        synchronized double errorRate() {
+            int failed = 0;
+            for (int i = 0; i < count; i++) {
+                if (failures[i]) {
+                    failed++;
+                }
+            }
+            return count == 0 ? 0 : (double) failed / count;
+        }
+
+        synchronized long p95() {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(count * 0.95) - 1];
+        }
+
+        synchronized void reset() {
+            next = 0;
+            count = 0;
+        }
+    }
+}
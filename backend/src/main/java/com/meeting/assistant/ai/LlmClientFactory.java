@@ -0,0 +1,41 @@
+package com.meeting.assistant.ai;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * 大模型客户端工厂
+ * 每个提供者用自己的地址、密钥和模型创建独立的 ChatClient（OpenAI 兼容接口），
+ * 故障转移切换提供者时总结、对话也切到另一套大模型服务；HTTP 客户端沿用带大模型超时设置的 builder
+ */
+@Component
+public class LlmClientFactory {
+
+    private final RestClient.Builder restClientBuilder;
+    private final WebClient.Builder webClientBuilder;
+    private final double temperature;
+
+    public LlmClientFactory(RestClient.Builder restClientBuilder,
+                            WebClient.Builder webClientBuilder,
+                            @Value("${spring.ai.openai.chat.options.temperature:0.7}") double temperature) {
+        this.restClientBuilder = restClientBuilder;
+        this.webClientBuilder = webClientBuilder;
+        this.temperature = temperature;
+    }
+
+    public ChatClient create(String baseUrl, String apiKey, String model) {
+        // OpenAiApi 会修改传入的 builder，每个客户端各用一份副本
+        OpenAiApi api = new OpenAiApi(baseUrl, apiKey, restClientBuilder.clone(), webClientBuilder.clone());
+        OpenAiChatModel chatModel = new OpenAiChatModel(api, OpenAiChatOptions.builder()
+            .withModel(model)
+            .withTemperature(temperature)
+            .build());
+        return ChatClient.builder(chatModel).build();
+    }
+}
@@ -1,13 +1,19 @@
 package com.meeting.assistant.ai;
 
 import com.meeting.assistant.entity.Speaker;
+import com.meeting.assistant.util.AudioUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -21,37 +27,60 @@ import java.util.stream.Collectors;
 public class LocalWhisperProvider implements AIService {
 
     private final ChatClient chatClient;
+    private final String llmModel;
     private final RestTemplate restTemplate;
-
-    @Value("${whisper.service.url:http://localhost:5001}")
-    private String whisperServiceUrl;
-
-    public LocalWhisperProvider(ChatClient.Builder chatClientBuilder) {
-        this.chatClient = chatClientBuilder.build();
-        this.restTemplate = new RestTemplate();
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final AsrEndpointPool endpointPool;
+
+    public LocalWhisperProvider(LlmClientFactory llmClients,
+                                @Value("${ai.llm.local-whisper.base-url:${spring.ai.openai.base-url}}") String llmBaseUrl,
+                                @Value("${ai.llm.local-whisper.api-key:${spring.ai.openai.api-key}}") String llmApiKey,
+                                @Value("${ai.llm.local-whisper.model:${spring.ai.openai.chat.options.model:gpt-4o}}") String llmModel,
+                                RestTemplate modelRestTemplate,
+                                @Value("${whisper.service.max-concurrency:2}") int maxConcurrency,
+                                @Value("${ai.concurrency.acquire-timeout-ms:30000}") long acquireTimeoutMs,
+                                @Value("${whisper.service.urls:${whisper.service.url:http://localhost:5001}}") String serviceUrls,
+                                AsrEndpointPool.Settings endpointSettings,
+                                WebClient asrWebClient,
+                                MeterRegistry meterRegistry) {
+        // 每个提供者独立的大模型客户端，未单独配置时沿用 spring.ai.openai
+        this.chatClient = llmClients.create(llmBaseUrl, llmApiKey, llmModel);
+        this.llmModel = llmModel;
+        this.restTemplate = modelRestTemplate;
+        this.endpointPool = new AsrEndpointPool("Local Whisper", serviceUrls, "/health", endpointSettings,
+            asrWebClient, meterRegistry);
+        // 并发上限按实例计算
+        this.concurrencyLimiter = new ConcurrencyLimiter("Local Whisper", maxConcurrency * endpointPool.size(), acquireTimeoutMs);
     }
 
     @Override
     public String transcribe(byte[] audioData) {
-        log.info("Transcribing audio with local Whisper service, PCM size: {} bytes", audioData.length);
-        try {
-            // 构建请求头
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        return transcribe(ByteBuffer.wrap(audioData));
+    }
 
-            // 直接发送 PCM 数据（不需要转换为 WAV，Python 服务会处理）
-            HttpEntity<byte[]> requestEntity = new HttpEntity<>(audioData, headers);
+    @Override
+    public String transcribe(ByteBuffer audioData) {
+        return concurrencyLimiter.call(() -> endpointPool.call(serviceUrl -> doTranscribe(serviceUrl, audioData)));
+    }
 
-            // 调用本地 Whisper 服务
-            String transcribeUrl = whisperServiceUrl + "/transcribe";
-            ResponseEntity<Map> response = restTemplate.exchange(
+    private String doTranscribe(String serviceUrl, ByteBuffer audioData) {
+        int size = audioData.remaining();
+        log.info("Transcribing audio with local Whisper service, PCM size: {} bytes", size);
+        try {
+            // 调用本地 Whisper 服务，直接发送 PCM 数据（不需要转换为 WAV，Python 服务会处理）
+            String transcribeUrl = serviceUrl + "/transcribe";
+            ResponseEntity<Map> response = restTemplate.execute(
                 transcribeUrl,
                 HttpMethod.POST,
-                requestEntity,
-                Map.class
+                request -> {
+                    request.getHeaders().setContentType(MediaType.APPLICATION_OCTET_STREAM);
+                    request.getHeaders().setContentLength(size);
+                    AudioUtils.writeTo(audioData, request.getBody());
+                },
+                restTemplate.responseEntityExtractor(Map.class)
             );
 
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+            if (response != null && response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 String text = (String) response.getBody().get("text");
                 log.info("Transcription completed, text length: {}", text.length());
                 return text;
@@ -88,9 +117,58 @@ public class LocalWhisperProvider implements AIService {
         }
     }
 
+    @Override
+    public Flux<String> summarizeStream(String transcript, List<Speaker> speakers) {
+        String speakerNames = speakers.stream()
+            .map(Speaker::getName)
+            .collect(Collectors.joining(", "));
+
+        return chatClient.prompt()
+            .user(buildSummaryPrompt(transcript, speakerNames))
+            .stream()
+            .content()
+            .onErrorMap(e -> new RuntimeException("总结生成失败: " + e.getMessage(), e));
+    }
+
+    @Override
+    public String chat(String prompt) {
+        try {
+            return chatClient.prompt()
+                .user(prompt)
+                .call()
+                .content();
+        } catch (Exception e) {
+            log.error("Chat completion failed", e);
+            throw new RuntimeException("模型调用失败: " + e.getMessage(), e);
+        }
+    }
+
+    public AsrEndpointPool getEndpointPool() {
+        return endpointPool;
+    }
+
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        endpointPool.close();
+    }
+
     @Override
     public String getModelName() {
-        return "Local Whisper + GPT-4o";
+        return "Local Whisper + " + llmModel;
+    }
+
+    @Override
+    public String getAsrModelName() {
+        return "Local Whisper";
+    }
+
+    @Override
+    public String getLlmModelName() {
+        return llmModel;
     }
 
     private String buildSummaryPrompt(String transcript, String speakerNames) {
@@ -0,0 +1,254 @@
+package com.meeting.assistant.ai;
+
+import com.meeting.assistant.entity.Speaker;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 长会议的分段总结（map-reduce）
+ * 转录较短时直接调用 {@link AIService#summarize}；超过单次预算时按 token 预算切成窗口，
+ * 各窗口并行提取要点笔记（并发受线程池大小限制），笔记过长时再分组合并，
+ * 最后把笔记交给 {@link AIService#summarize}，输出格式与单次总结一致
+ */
+@Slf4j
+@Component
+public class MapReduceSummarizer {
+
+    private static final int MAX_COLLAPSE_LEVELS = 3;
+
+    private final AIService aiService;
+    private final int singlePassMaxTokens;
+    private final int windowTokens;
+    private final int reduceMaxTokens;
+    private final ExecutorService mapExecutor;
+
+    private final DistributionSummary inputTokens;
+    private final DistributionSummary notesTokens;
+    private final DistributionSummary windowCount;
+    private final Timer singleTimer;
+    private final Timer mapTimer;
+    private final Timer collapseTimer;
+    private final Timer reduceTimer;
+    private final Timer firstTokenTimer;
+
+    public MapReduceSummarizer(AIService aiService,
+                               MeterRegistry meterRegistry,
+                               @Value("${ai.summary.single-pass-max-tokens:24000}") int singlePassMaxTokens,
+                               @Value("${ai.summary.window-tokens:6000}") int windowTokens,
+                               @Value("${ai.summary.reduce-max-tokens:24000}") int reduceMaxTokens,
+                               @Value("${ai.summary.map-concurrency:4}") int mapConcurrency) {
+        this.aiService = aiService;
+        this.singlePassMaxTokens = singlePassMaxTokens;
+        this.windowTokens = windowTokens;
+        this.reduceMaxTokens = reduceMaxTokens;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.mapExecutor = Executors.newFixedThreadPool(mapConcurrency, r -> {
+            Thread thread = new Thread(r, "summary-map-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.inputTokens = meterRegistry.summary("ai.summary.tokens", "stage", "input");
+        this.notesTokens = meterRegistry.summary("ai.summary.tokens", "stage", "notes");
+        this.windowCount = meterRegistry.summary("ai.summary.windows");
+        this.singleTimer = meterRegistry.timer("ai.summary.stage", "stage", "single");
+        this.mapTimer = meterRegistry.timer("ai.summary.stage", "stage", "map");
+        this.collapseTimer = meterRegistry.timer("ai.summary.stage", "stage", "collapse");
+        this.reduceTimer = meterRegistry.timer("ai.summary.stage", "stage", "reduce");
+        this.firstTokenTimer = meterRegistry.timer("ai.summary.first-token");
+        log.info("Summary budget: single pass {} tokens, window {} tokens, reduce {} tokens, map concurrency {}",
+            singlePassMaxTokens, windowTokens, reduceMaxTokens, mapConcurrency);
+    }
+
+    /**
+     * @param lines 按顺序排列的转录行（已带说话人标记）
+     */
+    public String summarize(List<String> lines, List<Speaker> speakers) {
+        return summarize(lines, speakers, delta -> {
+        });
+    }
+
+    /**
+     * 最终总结阶段流式输出，每收到一段文本回调一次 onDelta；返回完整总结
+     * 分段总结时，各窗口的要点提取完成后才开始输出
+     */
+    public String summarize(List<String> lines, List<Speaker> speakers, Consumer<String> onDelta) {
+        int total = lines.stream().mapToInt(line -> TokenEstimator.estimate(line) + 1).sum();
+        inputTokens.record(total);
+        if (total <= singlePassMaxTokens) {
+            log.info("Summarizing {} transcript lines (~{} tokens) in a single pass", lines.size(), total);
+            return singleTimer.record(() -> collect(aiService.summarizeStream(String.join("\n", lines), speakers), onDelta));
+        }
+
+        String speakerNames = speakers.stream().map(Speaker::getName).collect(Collectors.joining(", "));
+        List<String> windows = split(lines, windowTokens);
+        windowCount.record(windows.size());
+        log.info("Summarizing {} transcript lines (~{} tokens) in {} windows", lines.size(), total, windows.size());
+
+        List<String> notes = mapTimer.record(() -> mapAll(windows,
+            (index, window) -> aiService.chat(buildWindowPrompt(window, index + 1, windows.size(), speakerNames))));
+
+        // 笔记合计仍超过预算时分组合并，最多合并几轮
+        for (int level = 0; level < MAX_COLLAPSE_LEVELS && estimate(notes) > reduceMaxTokens; level++) {
+            List<String> groups = split(notes, reduceMaxTokens);
+            if (groups.size() >= notes.size()) {
+                break;
+            }
+            log.info("Collapsing {} note blocks into {} groups", notes.size(), groups.size());
+            notes = collapseTimer.record(() -> mapAll(groups, (index, group) -> aiService.chat(buildCollapsePrompt(group))));
+        }
+
+        List<String> finalNotes = notes;
+        notesTokens.record(estimate(finalNotes));
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < finalNotes.size(); i++) {
+            joined.append("【第").append(i + 1).append("部分要点】\n").append(finalNotes.get(i)).append("\n\n");
+        }
+        return reduceTimer.record(() -> collect(aiService.summarizeStream(joined.toString(), speakers), onDelta));
+    }
+
+    /**
+     * 等待流式输出结束，边转发边拼接
+     */
+    private String collect(Flux<String> stream, Consumer<String> onDelta) {
+        StringBuilder summary = new StringBuilder();
+        long start = System.nanoTime();
+        AtomicBoolean first = new AtomicBoolean(true);
+        Flux<String> forwarded = stream.doOnNext(delta -> {
+                if (first.compareAndSet(true, false)) {
+                    firstTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+                summary.append(delta);
+                onDelta.accept(delta);
+            });
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            forwarded.blockLast();
+        } else {
+            // 每段输出后按剩余时间重新计时，整体超过截止时间时取消流式请求
+            forwarded.timeout(Mono.delay(Duration.ofMillis(deadline.remainingMillis())),
+                    delta -> Mono.delay(Duration.ofMillis(deadline.remainingMillis())),
+                    Flux.error(new DeadlineExceededException("总结生成已超过截止时间")))
+                .blockLast();
+        }
+        return summary.toString();
+    }
+
+    /**
+     * 并行处理各段，任一段失败时整体失败
+     */
+    private List<String> mapAll(List<String> inputs, BiFunction<Integer, String, String> task) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            int index = i;
+            // 各段在线程池中执行，带上调用方的截止时间
+            futures.add(CompletableFuture.supplyAsync(
+                Deadline.propagate(() -> task.apply(index, inputs.get(index))), mapExecutor));
+        }
+        try {
+            return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        } catch (CompletionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException("分段总结失败", e.getCause());
+        }
+    }
+
+    /**
+     * 按 token 预算把行拼成窗口，不在行中间切分；单行超过预算时按同一估算切成不超过预算的几段
+     */
+    static List<String> split(List<String> lines, int budget) {
+        List<String> windows = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int currentTokens = 0;
+        for (String line : lines) {
+            int tokens = TokenEstimator.estimate(line) + 1;
+            if (tokens > budget) {
+                if (current.length() > 0) {
+                    windows.add(current.toString());
+                    current.setLength(0);
+                    currentTokens = 0;
+                }
+                for (int start = 0; start < line.length(); ) {
+                    int end = TokenEstimator.prefixEnd(line, start, budget);
+                    windows.add(line.substring(start, end));
+                    start = end;
+                }
+                continue;
+            }
+            if (currentTokens + tokens > budget && current.length() > 0) {
+                windows.add(current.toString());
+                current.setLength(0);
+                currentTokens = 0;
+            }
+            current.append(line).append('\n');
+            currentTokens += tokens;
+        }
+        if (current.length() > 0) {
+            windows.add(current.toString());
+        }
+        return windows;
+    }
+
+    private static int estimate(List<String> texts) {
+        return texts.stream().mapToInt(TokenEstimator::estimate).sum();
+    }
+
+    private String buildWindowPrompt(String window, int index, int total, String speakerNames) {
+        return String.format("""
+            以下是一场较长会议的第 %d/%d 段转录，请提取这一段的要点笔记，使用简体中文：
+
+            参会人员：%s
+
+            转录内容：
+            %s
+
+            请按以下结构输出，只记录本段实际出现的内容，没有的项写“无”，不要编造：
+            - 讨论点：
+            - 决策：
+            - 待办（注明负责人）：
+            - 各发言人观点（注明发言人）：
+            """, index, total, speakerNames, window);
+    }
+
+    private String buildCollapsePrompt(String notes) {
+        return String.format("""
+            以下是同一场会议连续几段的要点笔记，请合并为一份笔记，使用简体中文：
+            保留所有决策、待办及负责人和发言人观点，去掉重复内容，不要编造。
+
+            %s
+
+            按相同结构输出（讨论点、决策、待办、各发言人观点）。
+            """, notes);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        mapExecutor.shutdownNow();
+        try {
+            mapExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.Map;
@@ -24,7 +25,9 @@ import java.util.stream.Collectors;
 public class OpenAIProvider implements AIService {
 
     private final ChatClient chatClient;
+    private final String llmModel;
     private final RestTemplate restTemplate;
+    private final ConcurrencyLimiter concurrencyLimiter;
 
     @Value("${spring.ai.openai.api-key}")
     private String apiKey;
@@ -32,13 +35,26 @@ public class OpenAIProvider implements AIService {
     @Value("${spring.ai.openai.base-url}")
     private String baseUrl;
 
-    public OpenAIProvider(ChatClient.Builder chatClientBuilder) {
-        this.chatClient = chatClientBuilder.build();
-        this.restTemplate = new RestTemplate();
+    public OpenAIProvider(LlmClientFactory llmClients,
+                          @Value("${ai.llm.openai.base-url:${spring.ai.openai.base-url}}") String llmBaseUrl,
+                          @Value("${ai.llm.openai.api-key:${spring.ai.openai.api-key}}") String llmApiKey,
+                          @Value("${ai.llm.openai.model:${spring.ai.openai.chat.options.model:gpt-4o}}") String llmModel,
+                          RestTemplate modelRestTemplate,
+                          @Value("${ai.openai.max-concurrency:16}") int maxConcurrency,
+                          @Value("${ai.concurrency.acquire-timeout-ms:30000}") long acquireTimeoutMs) {
+        // 每个提供者独立的大模型客户端，未单独配置时沿用 spring.ai.openai
+        this.chatClient = llmClients.create(llmBaseUrl, llmApiKey, llmModel);
+        this.llmModel = llmModel;
+        this.restTemplate = modelRestTemplate;
+        this.concurrencyLimiter = new ConcurrencyLimiter("OpenAI Whisper API", maxConcurrency, acquireTimeoutMs);
     }
 
     @Override
     public String transcribe(byte[] audioData) {
+        return concurrencyLimiter.call(() -> doTranscribe(audioData));
+    }
+
+    private String doTranscribe(byte[] audioData) {
         log.info("Transcribing audio with Whisper API, PCM size: {} bytes", audioData.length);
         try {
             // 将 PCM 数据转换为 WAV 格式
@@ -111,9 +127,45 @@ public class OpenAIProvider implements AIService {
         }
     }
 
+    @Override
+    public Flux<String> summarizeStream(String transcript, List<Speaker> speakers) {
+        String speakerNames = speakers.stream()
+            .map(Speaker::getName)
+            .collect(Collectors.joining(", "));
+
+        return chatClient.prompt()
+            .user(buildSummaryPrompt(transcript, speakerNames))
+            .stream()
+            .content()
+            .onErrorMap(e -> new RuntimeException("总结生成失败: " + e.getMessage(), e));
+    }
+
+    @Override
+    public String chat(String prompt) {
+        try {
+            return chatClient.prompt()
+                .user(prompt)
+                .call()
+                .content();
+        } catch (Exception e) {
+            log.error("Chat completion failed", e);
+            throw new RuntimeException("模型调用失败: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public String getModelName() {
-        return "GPT-4o (OpenAI)";
+        return llmModel + " (OpenAI)";
+    }
+
+    @Override
+    public String getAsrModelName() {
+        return "OpenAI whisper-1";
+    }
+
+    @Override
+    public String getLlmModelName() {
+        return llmModel;
     }
 
     private String buildSummaryPrompt(String transcript, String speakerNames) {
@@ -0,0 +1,379 @@
+package com.meeting.assistant.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Paraformer 实时流式识别客户端
+ * 每个会议一条到 paraformer_streaming_service.py 的 WebSocket 长连接，模型在整个会议中保持上下文，
+ * 不再为每个音频段重新发起 HTTP 请求
+ * 配置了多个流式服务实例时按打开的连接数选择实例，同一会议重连时优先回到原实例
+ * 会议中途连接断开时按退避间隔自动重连，断线期间的音频帧暂存（有上限），重连后按顺序补发
+ */
+@Slf4j
+@Component
+public class ParaformerStreamingClient {
+
+    private final WebSocketClient webSocketClient = new StandardWebSocketClient();
+    private final ObjectMapper objectMapper;
+    private final AsrEndpointPool endpointPool;
+    private final long connectTimeoutMs;
+    private final long finishTimeoutMs;
+    private final long reconnectBackoffMs;
+    private final long maxReconnectBackoffMs;
+    private final long maxBacklogBytes;
+    private final Counter reconnectedCounter;
+    private final Counter reconnectFailedCounter;
+    private final Counter droppedFramesCounter;
+
+    public ParaformerStreamingClient(ObjectMapper objectMapper,
+                                     @Value("${paraformer.streaming.urls:${paraformer.streaming.url:ws://localhost:5003/stream}}") String streamingUrls,
+                                     AsrEndpointPool.Settings endpointSettings,
+                                     WebClient asrWebClient,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${paraformer.streaming.connect-timeout-ms:3000}") long connectTimeoutMs,
+                                     @Value("${paraformer.streaming.finish-timeout-ms:5000}") long finishTimeoutMs,
+                                     @Value("${paraformer.streaming.reconnect-backoff-ms:500}") long reconnectBackoffMs,
+                                     @Value("${paraformer.streaming.max-reconnect-backoff-ms:10000}") long maxReconnectBackoffMs,
+                                     @Value("${paraformer.streaming.reconnect-buffer-ms:10000}") long reconnectBufferMs) {
+        this.objectMapper = objectMapper;
+        // 流式服务没有 HTTP 健康检查接口，只按连接结果摘除实例
+        this.endpointPool = new AsrEndpointPool("Paraformer streaming", streamingUrls, null, endpointSettings,
+            asrWebClient, meterRegistry);
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.finishTimeoutMs = finishTimeoutMs;
+        this.reconnectBackoffMs = Math.max(1, reconnectBackoffMs);
+        this.maxReconnectBackoffMs = Math.max(this.reconnectBackoffMs, maxReconnectBackoffMs);
+        // 16kHz 16-bit 单声道每毫秒 32 字节
+        this.maxBacklogBytes = Math.max(0, reconnectBufferMs) * 32;
+        this.reconnectedCounter = Counter.builder("asr.streaming.reconnects")
+            .tag("outcome", "success")
+            .register(meterRegistry);
+        this.reconnectFailedCounter = Counter.builder("asr.streaming.reconnects")
+            .tag("outcome", "failure")
+            .register(meterRegistry);
+        this.droppedFramesCounter = Counter.builder("asr.streaming.dropped_frames")
+            .description("Audio frames dropped while the streaming connection was down")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 打开一条流式识别会话
+     * @param affinityKey 会话标识（会议ID），同一标识优先连接上次的实例
+     * @throws RuntimeException 连接失败或超时
+     */
+    public StreamingAsrSession open(Object affinityKey, StreamingAsrListener listener) {
+        return new ReconnectingSession(affinityKey, listener, connect(affinityKey, listener));
+    }
+
+    private Connection connect(Object affinityKey, StreamingAsrListener listener) {
+        AsrEndpointPool.Endpoint endpoint = endpointPool.acquire(affinityKey);
+        Connection connection = new Connection(listener, endpoint);
+        long start = System.nanoTime();
+        try {
+            WebSocketSession session = webSocketClient.execute(connection, endpoint.getUrl())
+                .get(connectTimeoutMs, TimeUnit.MILLISECONDS);
+            connection.attach(session, System.nanoTime() - start);
+            log.info("Opened Paraformer streaming session {} to {}", session.getId(), endpoint.getUrl());
+            return connection;
+        } catch (InterruptedException e) {
+            connection.connectFailed(System.nanoTime() - start);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("连接 Paraformer 流式服务被中断", e);
+        } catch (Exception e) {
+            connection.connectFailed(System.nanoTime() - start);
+            throw new RuntimeException("无法连接 Paraformer 流式服务: " + e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        endpointPool.close();
+    }
+
+    /**
+     * 对调用方保持为一条会话：底层连接断开后，下一次发送时按退避间隔重新连接（同一会议优先回到原实例）
+     * 还没连上时音频帧和语句结束标记进入暂存队列，超过上限时丢弃最早的帧；重连成功后先补发暂存内容
+     * 服务端会从新的语句开始识别，断开时尚未输出最终结果的语句会丢失
+     */
+    private class ReconnectingSession implements StreamingAsrSession {
+
+        // 暂存队列中的语句结束标记
+        private static final ByteBuffer FLUSH = ByteBuffer.allocate(0);
+
+        private final Object affinityKey;
+        private final StreamingAsrListener listener;
+        private final Deque<ByteBuffer> backlog = new ArrayDeque<>();
+        private volatile Connection connection;
+        private volatile boolean closed;
+        private long backlogBytes;
+        private long backoffMs = reconnectBackoffMs;
+        private long nextAttemptAt;
+        private boolean reconnecting;
+
+        ReconnectingSession(Object affinityKey, StreamingAsrListener listener, Connection connection) {
+            this.affinityKey = affinityKey;
+            this.listener = listener;
+            this.connection = connection;
+        }
+
+        @Override
+        public synchronized void sendAudio(ByteBuffer pcm) {
+            if (closed) {
+                return;
+            }
+            if (ready()) {
+                try {
+                    connection.sendAudio(pcm);
+                    return;
+                } catch (RuntimeException e) {
+                    log.warn("Paraformer streaming session lost while sending audio: {}", e.getMessage());
+                    connection.close();
+                }
+            }
+            ByteBuffer copy = ByteBuffer.allocate(pcm.remaining());
+            copy.put(pcm.duplicate()).flip();
+            hold(copy);
+        }
+
+        @Override
+        public synchronized void flush() {
+            if (closed) {
+                return;
+            }
+            if (ready()) {
+                connection.flush();
+            } else {
+                hold(FLUSH);
+            }
+        }
+
+        @Override
+        public synchronized void finish() {
+            if (closed) {
+                return;
+            }
+            // 还有暂存的音频时不等退避间隔，最后尝试一次把它送出去
+            if (!backlog.isEmpty()) {
+                nextAttemptAt = 0;
+                ready();
+            }
+            closed = true;
+            backlog.clear();
+            backlogBytes = 0;
+            connection.finish();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            connection.close();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed;
+        }
+
+        /**
+         * 确保有可用的连接：已断开且到了重试时间时重新连接并补发暂存内容
+         * @return 当前帧可以直接发送
+         */
+        private boolean ready() {
+            if (connection.isOpen() && backlog.isEmpty()) {
+                return true;
+            }
+            if (!connection.isOpen()) {
+                long now = System.currentTimeMillis();
+                if (now < nextAttemptAt) {
+                    return false;
+                }
+                try {
+                    connection = connect(affinityKey, listener);
+                } catch (RuntimeException e) {
+                    reconnectFailedCounter.increment();
+                    nextAttemptAt = now + backoffMs;
+                    log.warn("Paraformer streaming reconnect failed, retrying in {} ms: {}", backoffMs, e.getMessage());
+                    backoffMs = Math.min(maxReconnectBackoffMs, backoffMs * 2);
+                    if (!reconnecting) {
+                        reconnecting = true;
+                        listener.onError(new RuntimeException("Paraformer 流式识别连接中断，正在重连", e));
+                    }
+                    return false;
+                }
+                reconnectedCounter.increment();
+                log.info("Paraformer streaming session reconnected, replaying {} buffered bytes", backlogBytes);
+                reconnecting = false;
+                backoffMs = reconnectBackoffMs;
+                nextAttemptAt = 0;
+            }
+            return replay();
+        }
+
+        private boolean replay() {
+            while (!backlog.isEmpty()) {
+                ByteBuffer item = backlog.peekFirst();
+                try {
+                    if (item == FLUSH) {
+                        connection.flush();
+                    } else {
+                        connection.sendAudio(item);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Paraformer streaming session lost while replaying audio: {}", e.getMessage());
+                    connection.close();
+                    return false;
+                }
+                backlog.pollFirst();
+                backlogBytes -= item.remaining();
+            }
+            return true;
+        }
+
+        private void hold(ByteBuffer item) {
+            backlog.addLast(item);
+            backlogBytes += item.remaining();
+            while (backlogBytes > maxBacklogBytes && !backlog.isEmpty()) {
+                ByteBuffer dropped = backlog.pollFirst();
+                if (dropped != FLUSH) {
+                    backlogBytes -= dropped.remaining();
+                    droppedFramesCounter.increment();
+                }
+            }
+        }
+    }
+
+    private class Connection extends TextWebSocketHandler implements StreamingAsrSession {
+
+        private final StreamingAsrListener listener;
+        private final AsrEndpointPool.Endpoint endpoint;
+        private final CompletableFuture<Void> closed = new CompletableFuture<>();
+        private volatile WebSocketSession session;
+        private volatile long connectNanos;
+        private volatile boolean transportFailed;
+
+        Connection(StreamingAsrListener listener, AsrEndpointPool.Endpoint endpoint) {
+            this.listener = listener;
+            this.endpoint = endpoint;
+        }
+
+        void attach(WebSocketSession session, long connectNanos) {
+            this.session = session;
+            this.connectNanos = connectNanos;
+        }
+
+        void connectFailed(long elapsedNanos) {
+            if (closed.complete(null)) {
+                endpointPool.release(endpoint, elapsedNanos, false);
+            }
+        }
+
+        @Override
+        public synchronized void sendAudio(ByteBuffer pcm) {
+            try {
+                session.sendMessage(new BinaryMessage(pcm.duplicate(), true));
+            } catch (Exception e) {
+                throw new RuntimeException("发送音频到 Paraformer 流式服务失败: " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void flush() {
+            sendCommand("flush");
+        }
+
+        @Override
+        public void finish() {
+            if (!isOpen()) {
+                return;
+            }
+            sendCommand("end");
+            try {
+                closed.get(finishTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Paraformer streaming session {} did not finish within {} ms", session.getId(), finishTimeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.warn("Error waiting for Paraformer streaming session to finish", e);
+            } finally {
+                close();
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (session != null && session.isOpen()) {
+                    session.close();
+                }
+            } catch (Exception e) {
+                log.warn("Error closing Paraformer streaming session", e);
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return session != null && session.isOpen();
+        }
+
+        @Override
+        protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+            JsonNode node = objectMapper.readTree(message.getPayload());
+            String type = node.path("type").asText();
+            int segment = node.path("segment").asInt();
+            String text = node.path("text").asText("");
+            switch (type) {
+                case "partial" -> listener.onPartial(segment, text);
+                case "final" -> listener.onFinal(segment, text);
+                case "error" -> listener.onError(new RuntimeException("Paraformer 流式识别失败: " + node.path("error").asText()));
+                default -> log.debug("Ignoring Paraformer streaming message: {}", type);
+            }
+        }
+
+        @Override
+        public void handleTransportError(WebSocketSession session, Throwable exception) {
+            // 连接随后关闭，由 ReconnectingSession 重连，重连失败时才通知调用方
+            transportFailed = true;
+            log.warn("Paraformer streaming session {} transport error: {}", session.getId(), exception.getMessage());
+        }
+
+        @Override
+        public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+            log.info("Paraformer streaming session {} closed: {}", session.getId(), status);
+            // 连接关闭时才释放实例，延迟按建立连接的耗时计
+            if (closed.complete(null)) {
+                endpointPool.release(endpoint, connectNanos, !transportFailed);
+            }
+        }
+
+        private synchronized void sendCommand(String type) {
+            try {
+                session.sendMessage(new TextMessage("{\"type\":\"" + type + "\"}"));
+            } catch (Exception e) {
+                log.warn("Failed to send '{}' to Paraformer streaming service", type, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.meeting.assistant.ai;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 非阻塞 AI 转录服务接口，对应 {@link AIService} 的转录部分
+ * 调用方组合返回的 Mono 即可，等待模型服务响应期间不占用任何线程
+ */
+public interface ReactiveAIService {
+
+    /**
+     * 将音频转录为文字
+     * @param pcm PCM 数据（16kHz, 16-bit, Mono），读取 position 到 limit 之间的内容；
+     *            返回的 Mono 结束之前调用方不能复用该缓冲区
+     * @return 转录文本
+     */
+    Mono<String> transcribeAsync(ByteBuffer pcm);
+
+    /**
+     * 获取当前使用的模型名称
+     * @return 模型名称
+     */
+    String getModelName();
+
+    /**
+     * 把阻塞实现包装为 ReactiveAIService，调用在 boundedElastic 线程池上执行
+     * 用于没有非阻塞实现的提供者（如 OpenAI Whisper API）
+     */
+    static ReactiveAIService fromBlocking(AIService delegate) {
+        return new ReactiveAIService() {
+            @Override
+            public Mono<String> transcribeAsync(ByteBuffer pcm) {
+                return Mono.fromCallable(() -> delegate.transcribe(pcm))
+                    .subscribeOn(Schedulers.boundedElastic());
+            }
+
+            @Override
+            public String getModelName() {
+                return delegate.getModelName();
+            }
+        };
+    }
+}
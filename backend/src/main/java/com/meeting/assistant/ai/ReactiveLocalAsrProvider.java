@@ -0,0 +1,53 @@
+package com.meeting.assistant.ai;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * 本地语音识别服务（Paraformer / Whisper）的非阻塞实现
+ * 通过共享连接池的 WebClient 调用 /transcribe，连接保持复用，不再每个音频段新建连接
+ * 配置了多个实例时由 AsrEndpointPool 选择实例
+ */
+@Slf4j
+public class ReactiveLocalAsrProvider implements ReactiveAIService {
+
+    private final WebClient webClient;
+    private final AsrEndpointPool endpointPool;
+    private final String modelName;
+
+    public ReactiveLocalAsrProvider(WebClient webClient, AsrEndpointPool endpointPool, String modelName) {
+        this.webClient = webClient;
+        this.endpointPool = endpointPool;
+        this.modelName = modelName;
+    }
+
+    @Override
+    public Mono<String> transcribeAsync(ByteBuffer pcm) {
+        int size = pcm.remaining();
+        log.info("Transcribing audio with {} (non-blocking), PCM size: {} bytes", modelName, size);
+        return endpointPool.callAsync(serviceUrl -> webClient.post()
+                .uri(serviceUrl + "/transcribe")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(size)
+                // ByteBuffer 直接包装为请求体，不复制
+                .bodyValue(pcm.duplicate())
+                .retrieve()
+                .bodyToMono(Map.class))
+            .map(body -> {
+                Object text = body.get("text");
+                return text != null ? text.toString() : "";
+            })
+            .doOnNext(text -> log.info("Transcription completed, text length: {}", text.length()))
+            .onErrorMap(e -> new RuntimeException(modelName + " 音频转录失败: " + e.getMessage(), e));
+    }
+
+    @Override
+    public String getModelName() {
+        return modelName;
+    }
+}
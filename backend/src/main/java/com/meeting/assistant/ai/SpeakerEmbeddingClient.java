@@ -0,0 +1,61 @@
+package com.meeting.assistant.ai;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 本地说话人声纹向量服务（speaker_embedding_service.py）客户端
+ * 向量提取比转录快得多，单独使用较短的超时，不占用转录服务的连接和并发配额
+ */
+@Slf4j
+@Component
+public class SpeakerEmbeddingClient {
+
+    private final RestTemplate restTemplate;
+    private final String serviceUrl;
+
+    public SpeakerEmbeddingClient(RestTemplateBuilder builder,
+                                  @Value("${diarization.service.url:http://localhost:5004}") String serviceUrl,
+                                  @Value("${diarization.service.connect-timeout-ms:1000}") long connectTimeoutMs,
+                                  @Value("${diarization.service.read-timeout-ms:3000}") long readTimeoutMs) {
+        this.restTemplate = builder
+            .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+            .build();
+        this.serviceUrl = serviceUrl;
+    }
+
+    /**
+     * 提取一段 PCM（16kHz, 16-bit, Mono）的说话人向量，返回 L2 归一化后的向量
+     */
+    public float[] embed(byte[] pcm) {
+        Map<?, ?> body = restTemplate.execute(
+            serviceUrl + "/embed",
+            HttpMethod.POST,
+            request -> {
+                request.getHeaders().setContentType(MediaType.APPLICATION_OCTET_STREAM);
+                request.getHeaders().setContentLength(pcm.length);
+                request.getBody().write(pcm);
+            },
+            restTemplate.responseEntityExtractor(Map.class)
+        ).getBody();
+
+        if (body == null || !(body.get("embedding") instanceof List<?> values) || values.isEmpty()) {
+            throw new RuntimeException("声纹向量服务返回了无效的响应");
+        }
+        float[] vector = new float[values.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = ((Number) values.get(i)).floatValue();
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,24 @@
+package com.meeting.assistant.ai;
+
+/**
+ * 流式识别结果回调
+ * 同一会话的回调按服务端发送顺序在同一线程上串行触发，实现中不应长时间阻塞
+ */
+public interface StreamingAsrListener {
+
+    /**
+     * 当前语句的中间结果（后续可能变化）
+     * @param segment 语句编号
+     * @param text 当前语句已识别的全部文本
+     */
+    void onPartial(int segment, String text);
+
+    /**
+     * 当前语句的最终结果
+     * @param segment 语句编号
+     * @param text 带标点的完整语句
+     */
+    void onFinal(int segment, String text);
+
+    void onError(Throwable error);
+}
@@ -0,0 +1,33 @@
+package com.meeting.assistant.ai;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 流式语音识别会话：一条到识别服务的长连接，持续推送 PCM 帧
+ * 识别结果通过 {@link StreamingAsrListener} 异步回调
+ */
+public interface StreamingAsrSession {
+
+    /**
+     * 发送一帧 PCM 音频（16kHz, 16-bit, Mono）
+     * 方法返回时数据已写出，调用方可以复用缓冲区
+     */
+    void sendAudio(ByteBuffer pcm);
+
+    /**
+     * 结束当前语句，让服务端立即输出最终结果
+     */
+    void flush();
+
+    /**
+     * 结束音频流：等待服务端返回剩余结果并关闭连接，超时后强制关闭
+     */
+    void finish();
+
+    /**
+     * 立即关闭连接
+     */
+    void close();
+
+    boolean isOpen();
+}
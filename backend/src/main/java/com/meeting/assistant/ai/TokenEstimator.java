@@ -0,0 +1,64 @@
+package com.meeting.assistant.ai;
+
+/**
+ * 粗略估算文本的 token 数，用于总结时切分窗口
+ * 中日韩字符约 1 个 token，其余字符约 4 个一个 token；偏保守，不依赖具体模型的分词器
+ */
+public final class TokenEstimator {
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(CharSequence text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int cjk = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isCjk(c)) {
+                cjk++;
+            } else {
+                other++;
+            }
+        }
+        return cjk + (other + 3) / 4;
+    }
+
+    /**
+     * 从 start 开始、估算不超过 budget 个 token 的最长前缀的结束位置（不含），至少前进一个字符，
+     * 不拆开代理对
+     */
+    public static int prefixEnd(CharSequence text, int start, int budget) {
+        int cjk = 0;
+        int other = 0;
+        int end = start;
+        while (end < text.length()) {
+            if (isCjk(text.charAt(end))) {
+                cjk++;
+            } else {
+                other++;
+            }
+            if (end > start && cjk + (other + 3) / 4 > budget) {
+                break;
+            }
+            end++;
+        }
+        if (end < text.length() && end - start > 1 && Character.isLowSurrogate(text.charAt(end))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isCjk(char c) {
+        Character.UnicodeBlock block = Character.UnicodeBlock.of(c);
+        return block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS
+            || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_A
+            || block == Character.UnicodeBlock.CJK_SYMBOLS_AND_PUNCTUATION
+            || block == Character.UnicodeBlock.HALFWIDTH_AND_FULLWIDTH_FORMS
+            || block == Character.UnicodeBlock.HIRAGANA
+            || block == Character.UnicodeBlock.KATAKANA
+            || block == Character.UnicodeBlock.HANGUL_SYLLABLES;
+    }
+}
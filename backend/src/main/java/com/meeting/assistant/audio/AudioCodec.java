@@ -0,0 +1,50 @@
+package com.meeting.assistant.audio;
+
+/**
+ * 上行音频编码，id 对应音频帧头中的 codec 字段，name 用于连接时协商
+ */
+public enum AudioCodec {
+
+    PCM16(0, "pcm"),
+    OPUS(1, "opus");
+
+    private final int id;
+    private final String codecName;
+
+    AudioCodec(int id, String codecName) {
+        this.id = id;
+        this.codecName = codecName;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getCodecName() {
+        return codecName;
+    }
+
+    /**
+     * @return 未知的 id 返回 null
+     */
+    public static AudioCodec fromId(int id) {
+        for (AudioCodec codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return 未知的名称返回 null
+     */
+    public static AudioCodec fromName(String name) {
+        for (AudioCodec codec : values()) {
+            if (codec.codecName.equalsIgnoreCase(name.trim())) {
+                return codec;
+            }
+        }
+        return null;
+    }
+}
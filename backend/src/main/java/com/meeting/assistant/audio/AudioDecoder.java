@@ -0,0 +1,16 @@
+package com.meeting.assistant.audio;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 把压缩音频帧还原为 16kHz, 16-bit, Mono 的小端 PCM
+ * 解码器有状态，每个会话一个实例，在该会话的消息线程上顺序调用
+ */
+public interface AudioDecoder {
+
+    /**
+     * 解码一帧负载
+     * @return PCM 数据，内部缓冲区的视图，在下一次调用前有效
+     */
+    ByteBuffer decode(ByteBuffer payload);
+}
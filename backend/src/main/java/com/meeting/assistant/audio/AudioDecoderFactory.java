@@ -0,0 +1,74 @@
+package com.meeting.assistant.audio;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 上行编码协商与解码器创建
+ * 客户端在连接 URL 上用 codecs 参数按偏好顺序列出支持的编码，服务端选第一个同样启用的；
+ * 未声明时使用 PCM，保持与旧客户端兼容
+ */
+@Slf4j
+@Component
+public class AudioDecoderFactory {
+
+    private static final int SAMPLE_RATE = 16000;
+
+    private final List<AudioCodec> enabledCodecs;
+
+    public AudioDecoderFactory(@Value("${meeting.audio.codecs:pcm,opus}") List<String> codecs) {
+        List<AudioCodec> enabled = new ArrayList<>();
+        for (String name : codecs) {
+            AudioCodec codec = AudioCodec.fromName(name);
+            if (codec == null) {
+                throw new RuntimeException("不支持的音频编码: " + name);
+            }
+            enabled.add(codec);
+        }
+        // PCM 始终可用
+        if (!enabled.contains(AudioCodec.PCM16)) {
+            enabled.add(AudioCodec.PCM16);
+        }
+        this.enabledCodecs = Collections.unmodifiableList(enabled);
+        log.info("Enabled uplink audio codecs: {}", enabledCodecs);
+    }
+
+    public List<AudioCodec> getEnabledCodecs() {
+        return enabledCodecs;
+    }
+
+    public boolean isEnabled(AudioCodec codec) {
+        return enabledCodecs.contains(codec);
+    }
+
+    /**
+     * @param clientCodecs 客户端声明的编码（逗号分隔，按偏好排序），可以为 null
+     */
+    public AudioCodec negotiate(String clientCodecs) {
+        if (clientCodecs == null || clientCodecs.isBlank()) {
+            return AudioCodec.PCM16;
+        }
+        for (String name : clientCodecs.split(",")) {
+            AudioCodec codec = AudioCodec.fromName(name);
+            if (codec != null && enabledCodecs.contains(codec)) {
+                return codec;
+            }
+        }
+        return AudioCodec.PCM16;
+    }
+
+    /**
+     * 为会话创建解码器，PCM 不需要解码时返回 null
+     */
+    public AudioDecoder create(AudioCodec codec) {
+        return switch (codec) {
+            case PCM16 -> null;
+            case OPUS -> new OpusAudioDecoder(SAMPLE_RATE);
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.meeting.assistant.audio;
+
+/**
+ * 基于短时能量和过零率的 VAD
+ * 能量阈值跟随环境噪声自适应：静音帧上噪声基线缓慢上升、快速下降，语音帧上只做极慢的跟随，
+ * 避免持续的背景噪声（空调、风扇）被一直判为语音；
+ * 能量略低于阈值但过零率落在清辅音区间的帧也判为语音，减少"s""sh"等音被截断
+ */
+public class EnergyVad implements VoiceActivityDetector {
+
+    private static final double SILENCE_RISE = 0.02;
+    private static final double SPEECH_RISE = 0.002;
+    private static final double FALL = 0.3;
+    private static final double FRICATIVE_ZCR_MIN = 0.15;
+    private static final double FRICATIVE_ZCR_MAX = 0.5;
+    private static final double FRICATIVE_MARGIN_DB = 6.0;
+
+    private final double minEnergyDb;
+    private final double marginDb;
+    private double noiseFloorDb;
+
+    /**
+     * @param minEnergyDb 语音帧的最低能量（dBFS），低于该值一律视为静音
+     * @param marginDb    语音帧需高出噪声基线的分贝数
+     */
+    public EnergyVad(double minEnergyDb, double marginDb) {
+        this.minEnergyDb = minEnergyDb;
+        this.marginDb = marginDb;
+        this.noiseFloorDb = minEnergyDb - marginDb;
+    }
+
+    @Override
+    public boolean isSpeech(byte[] frame, int offset, int length) {
+        int samples = length / 2;
+        if (samples == 0) {
+            return false;
+        }
+
+        double sumSquares = 0;
+        int crossings = 0;
+        int previous = 0;
+        for (int i = 0; i < samples; i++) {
+            int index = offset + i * 2;
+            int sample = (short) ((frame[index] & 0xFF) | (frame[index + 1] << 8));
+            sumSquares += (double) sample * sample;
+            if (i > 0 && (sample >= 0) != (previous >= 0)) {
+                crossings++;
+            }
+            previous = sample;
+        }
+
+        double rms = Math.sqrt(sumSquares / samples);
+        double energyDb = 20 * Math.log10(rms / 32768.0 + 1e-10);
+        double zcr = samples > 1 ? (double) crossings / (samples - 1) : 0;
+
+        double threshold = Math.max(minEnergyDb, noiseFloorDb + marginDb);
+        boolean speech = energyDb >= threshold ||
+            (energyDb >= threshold - FRICATIVE_MARGIN_DB && zcr >= FRICATIVE_ZCR_MIN && zcr <= FRICATIVE_ZCR_MAX);
+
+        // 更新噪声基线
+        if (energyDb < noiseFloorDb) {
+            noiseFloorDb += FALL * (energyDb - noiseFloorDb);
+        } else {
+            noiseFloorDb += (speech ? SPEECH_RISE : SILENCE_RISE) * (energyDb - noiseFloorDb);
+        }
+        return speech;
+    }
+
+    public double getNoiseFloorDb() {
+        return noiseFloorDb;
+    }
+}
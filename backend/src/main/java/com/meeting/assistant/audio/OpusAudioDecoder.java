@@ -0,0 +1,80 @@
+package com.meeting.assistant.audio;
+
+import io.github.jaredmdobson.concentus.OpusDecoder;
+import io.github.jaredmdobson.concentus.OpusException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Opus 解码器
+ * 一帧负载包含若干个 Opus 包，每个包前有 2 字节（大端序）长度；
+ * 解码器和输出缓冲区在会话内复用，损坏的包用丢包补偿（PLC）填充，保持时间轴连续
+ */
+public class OpusAudioDecoder implements AudioDecoder {
+
+    // Opus 单个包最长 120ms
+    private static final int MAX_PACKET_SAMPLES = 16000 * 120 / 1000;
+
+    private final OpusDecoder decoder;
+    private final short[] pcm = new short[MAX_PACKET_SAMPLES];
+    private byte[] packet = new byte[1500];
+    private ByteBuffer output = ByteBuffer.allocate(MAX_PACKET_SAMPLES * 2 * 8).order(ByteOrder.LITTLE_ENDIAN);
+    private int lastPacketSamples = 16000 * 20 / 1000;
+
+    public OpusAudioDecoder(int sampleRate) {
+        try {
+            this.decoder = new OpusDecoder(sampleRate, 1);
+        } catch (OpusException e) {
+            throw new RuntimeException("Opus 解码器初始化失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public ByteBuffer decode(ByteBuffer payload) {
+        ByteBuffer in = payload.duplicate().order(ByteOrder.BIG_ENDIAN);
+        output.clear();
+
+        while (in.remaining() >= 2) {
+            int length = in.getShort() & 0xFFFF;
+            if (length > in.remaining()) {
+                throw new RuntimeException("Opus 包长度超出帧范围: " + length);
+            }
+            if (packet.length < length) {
+                packet = new byte[length];
+            }
+            in.get(packet, 0, length);
+
+            int samples;
+            try {
+                samples = decoder.decode(packet, 0, length, pcm, 0, MAX_PACKET_SAMPLES, false);
+                lastPacketSamples = samples;
+            } catch (OpusException e) {
+                // 损坏的包按上一个包的时长做丢包补偿
+                samples = concealLoss();
+            }
+            write(samples);
+        }
+        return output.flip();
+    }
+
+    private int concealLoss() {
+        try {
+            return decoder.decode(null, 0, 0, pcm, 0, lastPacketSamples, false);
+        } catch (OpusException e) {
+            return 0;
+        }
+    }
+
+    private void write(int samples) {
+        if (output.remaining() < samples * 2) {
+            ByteBuffer grown = ByteBuffer.allocate(output.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+            output.flip();
+            grown.put(output);
+            output = grown;
+        }
+        for (int i = 0; i < samples; i++) {
+            output.putShort(pcm[i]);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.meeting.assistant.audio;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PCM 环形缓冲区池
+ * 所有会话共享，缓冲区按固定容量预分配（堆内或直接内存），会话关闭后归还复用
+ */
+@Slf4j
+@Component
+public class PcmBufferPool {
+
+    private final int bufferCapacity;
+    private final boolean direct;
+    private final int maxPooled;
+
+    private final Queue<PcmRingBuffer> free = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger freeCount = new AtomicInteger();
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    public PcmBufferPool(@Value("${meeting.audio.ring-buffer-bytes:1572864}") int bufferCapacity,
+                         @Value("${meeting.audio.direct-buffers:false}") boolean direct,
+                         @Value("${meeting.websocket.max-connections:100}") int maxPooled) {
+        this.bufferCapacity = bufferCapacity;
+        this.direct = direct;
+        this.maxPooled = maxPooled;
+        log.info("PCM buffer pool: capacity {} bytes per session, direct: {}, max pooled: {}",
+            bufferCapacity, direct, maxPooled);
+    }
+
+    /**
+     * 借出一个空的环形缓冲区，池为空时新分配
+     */
+    public PcmRingBuffer acquire() {
+        PcmRingBuffer buffer = free.poll();
+        if (buffer != null) {
+            freeCount.decrementAndGet();
+            return buffer;
+        }
+        allocated.incrementAndGet();
+        ByteBuffer storage = direct
+            ? ByteBuffer.allocateDirect(bufferCapacity)
+            : ByteBuffer.allocate(bufferCapacity);
+        return new PcmRingBuffer(storage, this);
+    }
+
+    void recycle(PcmRingBuffer buffer) {
+        buffer.reset();
+        if (freeCount.incrementAndGet() <= maxPooled) {
+            free.offer(buffer);
+        } else {
+            // 池已满，交给 GC 回收
+            freeCount.decrementAndGet();
+            allocated.decrementAndGet();
+        }
+    }
+
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    public int getAllocatedCount() {
+        return allocated.get();
+    }
+
+    public int getFreeCount() {
+        return freeCount.get();
+    }
+}
@@ -0,0 +1,161 @@
+package com.meeting.assistant.audio;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * 固定容量的 PCM 环形缓冲区
+ * 每个 WebSocket 会话从 {@link PcmBufferPool} 借出一个；flush 时以只读切片的形式交给转录阶段，
+ * 切片释放之前其所在区域不会被覆盖，因此整个过程没有中间拷贝
+ */
+public class PcmRingBuffer {
+
+    private final ByteBuffer storage;
+    private final PcmBufferPool pool;
+
+    // 待 flush 的区域 [start, end)，始终保持连续
+    private int start;
+    private int end;
+
+    // 已交出但尚未全部释放的切片，按 flush 顺序排列
+    private final ArrayDeque<PcmSegment> outstanding = new ArrayDeque<>();
+
+    private boolean closed;
+    private long droppedBytes;
+
+    PcmRingBuffer(ByteBuffer storage, PcmBufferPool pool) {
+        this.storage = storage;
+        this.pool = pool;
+    }
+
+    /**
+     * 追加音频数据
+     * @return 空间不足（未释放的切片占满缓冲区）时返回 false，数据被丢弃
+     */
+    public synchronized boolean append(byte[] data, int offset, int length) {
+        if (!ensureWritable(length)) {
+            droppedBytes += length;
+            return false;
+        }
+        storage.put(end, data, offset, length);
+        end += length;
+        return true;
+    }
+
+    /**
+     * 追加 src 中 position 到 limit 之间的数据，成功时推进 src 的 position
+     */
+    public synchronized boolean append(ByteBuffer src) {
+        int length = src.remaining();
+        if (!ensureWritable(length)) {
+            droppedBytes += length;
+            return false;
+        }
+        storage.put(end, src, src.position(), length);
+        src.position(src.position() + length);
+        end += length;
+        return true;
+    }
+
+    /**
+     * 将待处理数据作为只读切片交出
+     * @return 没有待处理数据时返回 null
+     */
+    public synchronized PcmSegment flush() {
+        if (end == start || closed) {
+            return null;
+        }
+        PcmSegment segment = new PcmSegment(this, start, storage.slice(start, end - start).asReadOnlyBuffer());
+        outstanding.addLast(segment);
+        start = end;
+        return segment;
+    }
+
+    public synchronized int pendingBytes() {
+        return end - start;
+    }
+
+    public int capacity() {
+        return storage.capacity();
+    }
+
+    public synchronized long droppedBytes() {
+        return droppedBytes;
+    }
+
+    /**
+     * 会话结束：丢弃未 flush 的数据，所有切片释放后归还到池中
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        start = end;
+        recycleIfIdle();
+    }
+
+    synchronized void release(PcmSegment segment) {
+        segment.markReleased();
+        // 只有队首切片释放后空间才能被复用，乱序释放的切片等待前面的切片
+        while (!outstanding.isEmpty() && outstanding.peekFirst().isReleased()) {
+            outstanding.pollFirst();
+        }
+        if (outstanding.isEmpty() && start == end) {
+            start = 0;
+            end = 0;
+        }
+        recycleIfIdle();
+    }
+
+    synchronized void reset() {
+        start = 0;
+        end = 0;
+        outstanding.clear();
+        closed = false;
+        droppedBytes = 0;
+    }
+
+    private void recycleIfIdle() {
+        if (closed && outstanding.isEmpty()) {
+            pool.recycle(this);
+        }
+    }
+
+    private boolean ensureWritable(int length) {
+        if (closed) {
+            return false;
+        }
+        int capacity = storage.capacity();
+        PcmSegment oldest = outstanding.peekFirst();
+
+        // 写指针之后如果有尚未释放的旧切片（已回绕），只能写到它之前
+        int limit = (oldest != null && oldest.offset() >= end) ? oldest.offset() : capacity;
+        if (end + length <= limit) {
+            return true;
+        }
+
+        // 尾部空间不足：把尚未 flush 的数据搬到头部，头部空间需在最旧的未释放切片之前
+        int frontLimit;
+        if (oldest == null) {
+            frontLimit = capacity;
+        } else if (oldest.offset() < start) {
+            frontLimit = oldest.offset();
+        } else {
+            return false;
+        }
+
+        int pending = end - start;
+        if (pending + length > frontLimit) {
+            return false;
+        }
+        if (pending > 0 && start > 0) {
+            storage.limit(end).position(start);
+            storage.compact();
+        }
+        storage.clear();
+        start = 0;
+        end = pending;
+        return true;
+    }
+}
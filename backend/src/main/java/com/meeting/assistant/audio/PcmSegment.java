@@ -0,0 +1,55 @@
+package com.meeting.assistant.audio;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 环形缓冲区中一段已 flush 的 PCM 数据的只读视图
+ * 使用完毕后必须调用 {@link #release()}，否则所在区域无法被复用
+ */
+public class PcmSegment {
+
+    private final PcmRingBuffer owner;
+    private final int offset;
+    private final ByteBuffer view;
+    private final AtomicBoolean releaseRequested = new AtomicBoolean();
+    private volatile boolean released;
+
+    PcmSegment(PcmRingBuffer owner, int offset, ByteBuffer view) {
+        this.owner = owner;
+        this.offset = offset;
+        this.view = view;
+    }
+
+    /**
+     * 返回独立 position/limit 的只读视图，调用方可以随意读取
+     */
+    public ByteBuffer data() {
+        return view.duplicate();
+    }
+
+    public int size() {
+        return view.capacity();
+    }
+
+    /**
+     * 释放切片，可重复调用
+     */
+    public void release() {
+        if (releaseRequested.compareAndSet(false, true)) {
+            owner.release(this);
+        }
+    }
+
+    int offset() {
+        return offset;
+    }
+
+    boolean isReleased() {
+        return released;
+    }
+
+    void markReleased() {
+        released = true;
+    }
+}
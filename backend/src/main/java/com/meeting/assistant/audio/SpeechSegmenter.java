@@ -0,0 +1,167 @@
+package com.meeting.assistant.audio;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 按语音边界切分音频流
+ * 输入按固定时长分帧（不足一帧的尾部留到下次），交给 {@link VoiceActivityDetector} 判断：
+ * 静音帧直接丢弃，不进入缓冲区；连续若干语音帧后认为语音开始，同时补回之前的一小段（预留帧），
+ * 避免句首被截断；语音后连续静音超过拖尾时长认为语音结束，此时调用方应切分并转录
+ */
+public class SpeechSegmenter {
+
+    private final VoiceActivityDetector vad;
+    private final int frameBytes;
+    private final int startFrames;
+    private final int hangoverFrames;
+    private final Counter speechFrameCounter;
+    private final Counter silenceFrameCounter;
+
+    // 不足一帧的尾部数据
+    private final byte[] carry;
+
+    // 读取堆外缓冲区时使用的复用数组
+    private byte[] scratch;
+    private int carryLength;
+
+    // 语音开始前的最近若干帧（循环使用）
+    private final byte[][] preRoll;
+    private int preRollHead;
+    private int preRollCount;
+
+    private boolean inSpeech;
+    private int onsetRun;
+    private int silenceRun;
+    private boolean speechEnded;
+
+    private long speechFrames;
+    private long totalFrames;
+
+    SpeechSegmenter(VoiceActivityDetector vad, int frameBytes, int startFrames, int hangoverFrames,
+                    int preRollFrames, Counter speechFrameCounter, Counter silenceFrameCounter) {
+        this.vad = vad;
+        this.frameBytes = frameBytes;
+        this.startFrames = Math.max(1, startFrames);
+        this.hangoverFrames = Math.max(1, hangoverFrames);
+        this.speechFrameCounter = speechFrameCounter;
+        this.silenceFrameCounter = silenceFrameCounter;
+        this.carry = new byte[frameBytes];
+        this.preRoll = new byte[Math.max(preRollFrames, this.startFrames)][frameBytes];
+    }
+
+    /**
+     * 处理一段音频，语音帧写入 out
+     */
+    public synchronized void accept(byte[] data, int offset, int length, PcmRingBuffer out) {
+        int position = offset;
+        int limit = offset + length;
+
+        // 先补齐上次留下的半帧
+        if (carryLength > 0) {
+            int n = Math.min(frameBytes - carryLength, limit - position);
+            System.arraycopy(data, position, carry, carryLength, n);
+            carryLength += n;
+            position += n;
+            if (carryLength < frameBytes) {
+                return;
+            }
+            processFrame(carry, 0, out);
+            carryLength = 0;
+        }
+
+        while (limit - position >= frameBytes) {
+            processFrame(data, position, out);
+            position += frameBytes;
+        }
+
+        carryLength = limit - position;
+        System.arraycopy(data, position, carry, 0, carryLength);
+    }
+
+    /**
+     * 处理 src 中 position 到 limit 之间的数据并推进 position；堆外缓冲区分块拷贝到帧缓冲
+     */
+    public synchronized void accept(ByteBuffer src, PcmRingBuffer out) {
+        if (src.hasArray()) {
+            accept(src.array(), src.arrayOffset() + src.position(), src.remaining(), out);
+            src.position(src.limit());
+            return;
+        }
+        if (scratch == null) {
+            scratch = new byte[frameBytes * 8];
+        }
+        while (src.hasRemaining()) {
+            int n = Math.min(scratch.length, src.remaining());
+            src.get(scratch, 0, n);
+            accept(scratch, 0, n, out);
+        }
+    }
+
+    private void processFrame(byte[] frame, int offset, PcmRingBuffer out) {
+        totalFrames++;
+        boolean speech = vad.isSpeech(frame, offset, frameBytes);
+        if (speech) {
+            speechFrames++;
+            speechFrameCounter.increment();
+        } else {
+            silenceFrameCounter.increment();
+        }
+
+        if (inSpeech) {
+            // 语音中：静音帧作为拖尾保留，超过拖尾时长则语音结束
+            out.append(frame, offset, frameBytes);
+            silenceRun = speech ? 0 : silenceRun + 1;
+            if (silenceRun >= hangoverFrames) {
+                inSpeech = false;
+                speechEnded = true;
+                silenceRun = 0;
+            }
+            return;
+        }
+
+        pushPreRoll(frame, offset);
+        onsetRun = speech ? onsetRun + 1 : 0;
+        if (onsetRun >= startFrames) {
+            // 语音开始：写入预留帧（包含判定用的起始帧）
+            for (int i = 0; i < preRollCount; i++) {
+                out.append(preRoll[(preRollHead + i) % preRoll.length], 0, frameBytes);
+            }
+            preRollCount = 0;
+            onsetRun = 0;
+            inSpeech = true;
+        }
+    }
+
+    private void pushPreRoll(byte[] frame, int offset) {
+        int slot = (preRollHead + preRollCount) % preRoll.length;
+        System.arraycopy(frame, offset, preRoll[slot], 0, frameBytes);
+        if (preRollCount < preRoll.length) {
+            preRollCount++;
+        } else {
+            preRollHead = (preRollHead + 1) % preRoll.length;
+        }
+    }
+
+    /**
+     * 自上次调用以来是否出现过语音结束边界，调用后清除
+     */
+    public synchronized boolean takeSpeechEnded() {
+        boolean ended = speechEnded;
+        speechEnded = false;
+        return ended;
+    }
+
+    public synchronized boolean isInSpeech() {
+        return inSpeech;
+    }
+
+    public synchronized long getSpeechFrames() {
+        return speechFrames;
+    }
+
+    public synchronized long getTotalFrames() {
+        return totalFrames;
+    }
+}
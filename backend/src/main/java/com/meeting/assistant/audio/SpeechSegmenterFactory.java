@@ -0,0 +1,84 @@
+package com.meeting.assistant.audio;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 为每个会话创建 {@link SpeechSegmenter}
+ * VAD 实现由 meeting.vad.type 选择，新的检测模型实现 {@link VoiceActivityDetector} 后在 createDetector 中注册即可
+ */
+@Slf4j
+@Component
+public class SpeechSegmenterFactory {
+
+    // 16kHz, 16bit, mono：每毫秒 32 字节
+    private static final int BYTES_PER_MS = 32;
+
+    private final boolean enabled;
+    private final String type;
+    private final int frameBytes;
+    private final int startFrames;
+    private final int hangoverFrames;
+    private final int preRollFrames;
+    private final int maxSegmentBytes;
+    private final double minEnergyDb;
+    private final double marginDb;
+    private final Counter speechFrameCounter;
+    private final Counter silenceFrameCounter;
+
+    public SpeechSegmenterFactory(@Value("${meeting.vad.enabled:true}") boolean enabled,
+                                  @Value("${meeting.vad.type:energy}") String type,
+                                  @Value("${meeting.vad.frame-ms:30}") int frameMs,
+                                  @Value("${meeting.vad.start-ms:90}") int startMs,
+                                  @Value("${meeting.vad.hangover-ms:600}") int hangoverMs,
+                                  @Value("${meeting.vad.pre-roll-ms:300}") int preRollMs,
+                                  @Value("${meeting.vad.max-segment-ms:8000}") int maxSegmentMs,
+                                  @Value("${meeting.vad.min-energy-db:-50}") double minEnergyDb,
+                                  @Value("${meeting.vad.margin-db:10}") double marginDb,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.type = type.trim().toLowerCase();
+        this.frameBytes = frameMs * BYTES_PER_MS;
+        this.startFrames = Math.max(1, startMs / frameMs);
+        this.hangoverFrames = Math.max(1, hangoverMs / frameMs);
+        this.preRollFrames = Math.max(1, preRollMs / frameMs);
+        this.maxSegmentBytes = maxSegmentMs * BYTES_PER_MS;
+        this.minEnergyDb = minEnergyDb;
+        this.marginDb = marginDb;
+        this.speechFrameCounter = meterRegistry.counter("meeting.vad.frames", "result", "speech");
+        this.silenceFrameCounter = meterRegistry.counter("meeting.vad.frames", "result", "silence");
+
+        // 启动时校验类型，配置错误尽早暴露
+        if (enabled) {
+            createDetector();
+            log.info("Server-side VAD enabled: {}, frame {} ms, hangover {} ms, max segment {} ms",
+                this.type, frameMs, hangoverMs, maxSegmentMs);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 一个语音段的最大字节数，超过后即使仍在说话也切分
+     */
+    public int getMaxSegmentBytes() {
+        return maxSegmentBytes;
+    }
+
+    public SpeechSegmenter create() {
+        return new SpeechSegmenter(createDetector(), frameBytes, startFrames, hangoverFrames, preRollFrames,
+            speechFrameCounter, silenceFrameCounter);
+    }
+
+    private VoiceActivityDetector createDetector() {
+        return switch (type) {
+            case "energy" -> new EnergyVad(minEnergyDb, marginDb);
+            default -> throw new RuntimeException("不支持的 VAD 类型: " + type);
+        };
+    }
+}
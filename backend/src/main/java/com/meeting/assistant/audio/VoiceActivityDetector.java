@@ -0,0 +1,17 @@
+package com.meeting.assistant.audio;
+
+/**
+ * 语音活动检测（VAD）
+ * 逐帧判断是否为语音，输入为 16kHz, 16-bit, Mono 的小端 PCM 帧；实现可以有状态（如自适应噪声基线），
+ * 因此每个会话使用独立的实例
+ */
+public interface VoiceActivityDetector {
+
+    /**
+     * @param frame  PCM 数据
+     * @param offset 帧起始位置
+     * @param length 帧长度（字节）
+     * @return 该帧是否包含语音
+     */
+    boolean isSpeech(byte[] frame, int offset, int length);
+}
@@ -1,18 +1,34 @@
 package com.meeting.assistant.config;
 
 import com.meeting.assistant.ai.AIService;
+import com.meeting.assistant.ai.AiResultCache;
+import com.meeting.assistant.ai.AsrMicroBatcher;
+import com.meeting.assistant.ai.BatchingAIService;
+import com.meeting.assistant.ai.CachingAIService;
+import com.meeting.assistant.ai.CircuitBreakerRegistry;
+import com.meeting.assistant.ai.CircuitBreakingAIService;
+import com.meeting.assistant.ai.FailoverAIService;
 import com.meeting.assistant.ai.LocalWhisperProvider;
 import com.meeting.assistant.ai.OpenAIProvider;
 import com.meeting.assistant.ai.ParaformerProvider;
+import com.meeting.assistant.ai.ReactiveAIService;
+import com.meeting.assistant.ai.ReactiveLocalAsrProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * AI 服务配置类
  * 根据配置选择使用 OpenAI API、本地 Whisper 或 Paraformer
+ * 开启故障转移时以 ai.provider 为主提供者，ai.failover.fallbacks 依次作为备用
  */
 @Slf4j
 @Configuration
@@ -21,6 +37,21 @@ public class AIServiceConfig {
     @Value("${ai.provider:openai}")
     private String aiProvider;
 
+    @Value("${ai.failover.enabled:false}")
+    private boolean failoverEnabled;
+
+    @Value("${ai.failover.fallbacks:openai}")
+    private String failoverFallbacks;
+
+    @Value("${ai.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${ai.cache.prompt-version:v1}")
+    private String cachePromptVersion;
+
+    @Value("${ai.cache.persist-transcriptions:false}")
+    private boolean cachePersistTranscriptions;
+
     /**
      * 根据配置选择 AI 服务提供者
      */
@@ -28,9 +59,77 @@ public class AIServiceConfig {
     @Primary
     public AIService aiService(OpenAIProvider openAIProvider,
                                LocalWhisperProvider localWhisperProvider,
-                               ParaformerProvider paraformerProvider) {
+                               ParaformerProvider paraformerProvider,
+                               AiResultCache aiResultCache,
+                               AsrMicroBatcher asrMicroBatcher,
+                               FailoverAIService.Settings failoverSettings,
+                               CircuitBreakerRegistry circuitBreakers,
+                               MeterRegistry meterRegistry) {
         log.info("AI Provider configuration: {}", aiProvider);
 
+        AIService provider = selectProvider(openAIProvider, localWhisperProvider, paraformerProvider);
+        if (asrMicroBatcher.isEnabled()) {
+            // 本地模型服务：转录请求跨会话合批
+            provider = new BatchingAIService(provider, asrMicroBatcher);
+        }
+        // 每个提供者各自熔断，故障转移时熔断中的提供者直接失败
+        provider = new CircuitBreakingAIService(provider, aiProvider.toLowerCase(), circuitBreakers);
+        if (failoverEnabled) {
+            List<String> names = new ArrayList<>(List.of(aiProvider.toLowerCase()));
+            List<AIService> services = new ArrayList<>(List.of(provider));
+            for (String name : Arrays.stream(failoverFallbacks.split(",")).map(String::trim).toList()) {
+                AIService fallback = providerByName(name, openAIProvider, localWhisperProvider, paraformerProvider);
+                if (fallback != null && !names.contains(name.toLowerCase())) {
+                    names.add(name.toLowerCase());
+                    services.add(new CircuitBreakingAIService(fallback, name.toLowerCase(), circuitBreakers));
+                }
+            }
+            provider = new FailoverAIService(names, services, failoverSettings, meterRegistry);
+        }
+        if (!cacheEnabled) {
+            return provider;
+        }
+        log.info("AI result cache enabled, prompt version: {}", cachePromptVersion);
+        return new CachingAIService(provider, aiResultCache, aiProvider.toLowerCase(),
+            cachePromptVersion, cachePersistTranscriptions);
+    }
+
+    private AIService providerByName(String name,
+                                     OpenAIProvider openAIProvider,
+                                     LocalWhisperProvider localWhisperProvider,
+                                     ParaformerProvider paraformerProvider) {
+        return switch (name.toLowerCase()) {
+            case "openai" -> openAIProvider;
+            case "local-whisper" -> localWhisperProvider;
+            case "paraformer" -> paraformerProvider;
+            default -> {
+                log.warn("Unknown failover provider: {}", name);
+                yield null;
+            }
+        };
+    }
+
+    /**
+     * 故障转移与对冲请求参数
+     */
+    @Bean
+    public FailoverAIService.Settings failoverSettings(
+            @Value("${ai.failover.hedge-enabled:true}") boolean hedgeEnabled,
+            @Value("${ai.failover.hedge-min-delay-ms:300}") long hedgeMinDelayMs,
+            @Value("${ai.failover.hedge-max-ratio:0.1}") double hedgeMaxRatio,
+            @Value("${ai.failover.window-size:100}") int windowSize,
+            @Value("${ai.failover.min-samples:20}") int minSamples,
+            @Value("${ai.failover.error-rate-threshold:0.3}") double errorRateThreshold,
+            @Value("${ai.failover.latency-slo-ms:10000}") long latencySloMs,
+            @Value("${ai.failover.llm-latency-slo-ms:120000}") long llmLatencySloMs,
+            @Value("${ai.failover.failback-ms:60000}") long failbackMs) {
+        return new FailoverAIService.Settings(hedgeEnabled, hedgeMinDelayMs, hedgeMaxRatio, windowSize,
+            minSamples, errorRateThreshold, latencySloMs, llmLatencySloMs, failbackMs);
+    }
+
+    private AIService selectProvider(OpenAIProvider openAIProvider,
+                                     LocalWhisperProvider localWhisperProvider,
+                                     ParaformerProvider paraformerProvider) {
         if ("local-whisper".equalsIgnoreCase(aiProvider)) {
             log.info("Using Local Whisper for audio transcription");
             return localWhisperProvider;
@@ -42,4 +141,32 @@ public class AIServiceConfig {
             return openAIProvider;
         }
     }
+
+    /**
+     * 非阻塞转录服务：本地模型服务走连接池 WebClient（开启合批时走合批队列），OpenAI 包装阻塞实现
+     */
+    @Bean
+    @Primary
+    public ReactiveAIService reactiveAIService(AIService aiService, WebClient asrWebClient,
+                                               AsrMicroBatcher asrMicroBatcher,
+                                               LocalWhisperProvider localWhisperProvider,
+                                               ParaformerProvider paraformerProvider,
+                                               CircuitBreakerRegistry circuitBreakers) {
+        ReactiveAIService reactive;
+        if (failoverEnabled) {
+            // 故障转移与对冲在阻塞实现中完成
+            return ReactiveAIService.fromBlocking(aiService);
+        } else if (asrMicroBatcher.isEnabled()) {
+            reactive = asrMicroBatcher;
+        } else if ("local-whisper".equalsIgnoreCase(aiProvider)) {
+            reactive = new ReactiveLocalAsrProvider(asrWebClient, localWhisperProvider.getEndpointPool(), "Local Whisper");
+        } else if ("paraformer".equalsIgnoreCase(aiProvider)) {
+            reactive = new ReactiveLocalAsrProvider(asrWebClient, paraformerProvider.getEndpointPool(), "Paraformer");
+        } else {
+            // 包装的阻塞实现已经带缓存
+            return ReactiveAIService.fromBlocking(aiService);
+        }
+        reactive = CircuitBreakingAIService.wrap(reactive, aiProvider.toLowerCase(), circuitBreakers);
+        return aiService instanceof CachingAIService caching ? caching.wrap(reactive) : reactive;
+    }
 }
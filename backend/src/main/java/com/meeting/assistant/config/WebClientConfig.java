@@ -0,0 +1,115 @@
+package com.meeting.assistant.config;
+
+import com.meeting.assistant.ai.AsrEndpointPool;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.ClientHttpRequestFactories;
+import org.springframework.boot.web.client.ClientHttpRequestFactorySettings;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * 模型服务 HTTP 客户端配置
+ * 连接池按目标主机分别限制连接数，空闲连接保持复用，超过上限的请求排队等待
+ * 所有模型调用都设置连接和读取超时，模型服务挂起时调用线程不会一直阻塞
+ */
+@Slf4j
+@Configuration
+public class WebClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider asrConnectionProvider(
+            @Value("${ai.http.max-connections-per-host:32}") int maxConnections,
+            @Value("${ai.http.pending-acquire-max-count:256}") int pendingAcquireMaxCount,
+            @Value("${ai.http.pending-acquire-timeout-ms:5000}") long pendingAcquireTimeoutMs,
+            @Value("${ai.http.max-idle-time-ms:60000}") long maxIdleTimeMs) {
+        log.info("ASR connection pool: {} connections per host, {} pending acquires",
+            maxConnections, pendingAcquireMaxCount);
+        return ConnectionProvider.builder("asr")
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMaxCount)
+            .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+            .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+            .evictInBackground(Duration.ofSeconds(30))
+            .metrics(true)
+            .build();
+    }
+
+    @Bean
+    public WebClient asrWebClient(ConnectionProvider asrConnectionProvider,
+                                  @Value("${ai.http.connect-timeout-ms:2000}") int connectTimeoutMs,
+                                  @Value("${ai.http.read-timeout-ms:30000}") long readTimeoutMs) {
+        HttpClient httpClient = HttpClient.create(asrConnectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+            .option(ChannelOption.SO_KEEPALIVE, true)
+            .keepAlive(true)
+            .responseTimeout(Duration.ofMillis(readTimeoutMs));
+        return WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .build();
+    }
+
+    /**
+     * 阻塞模式下调用语音识别服务（本地模型、Whisper API）的 RestTemplate
+     */
+    @Bean
+    public RestTemplate modelRestTemplate(RestTemplateBuilder builder,
+                                          @Value("${ai.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+                                          @Value("${ai.http.read-timeout-ms:30000}") long readTimeoutMs) {
+        return builder
+            .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+            .build();
+    }
+
+    /**
+     * 大模型（总结、对话）调用超时：Spring AI 的阻塞调用使用 RestClient，流式调用使用 WebClient
+     * 流式调用的读取超时是两次收到数据之间的最长间隔
+     */
+    @Bean
+    public RestClientCustomizer llmRestClientCustomizer(
+            @Value("${ai.http.llm-connect-timeout-ms:5000}") long connectTimeoutMs,
+            @Value("${ai.http.llm-read-timeout-ms:120000}") long readTimeoutMs) {
+        ClientHttpRequestFactorySettings settings = ClientHttpRequestFactorySettings.DEFAULTS
+            .withConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .withReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return builder -> builder.requestFactory(ClientHttpRequestFactories.get(settings));
+    }
+
+    @Bean
+    public WebClientCustomizer llmWebClientCustomizer(
+            @Value("${ai.http.llm-connect-timeout-ms:5000}") int connectTimeoutMs,
+            @Value("${ai.http.llm-read-timeout-ms:120000}") long readTimeoutMs) {
+        HttpClient httpClient = HttpClient.create()
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+            .responseTimeout(Duration.ofMillis(readTimeoutMs));
+        return builder -> builder.clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
+
+    /**
+     * 本地模型服务多实例负载均衡参数，各提供者按自己的地址列表建立实例池
+     */
+    @Bean
+    public AsrEndpointPool.Settings asrEndpointSettings(
+            @Value("${ai.endpoints.strategy:least-outstanding}") String strategy,
+            @Value("${ai.endpoints.eject-after-failures:3}") int ejectAfterFailures,
+            @Value("${ai.endpoints.eject-ms:30000}") long ejectMs,
+            @Value("${ai.endpoints.slow-threshold-ms:0}") long slowThresholdMs,
+            @Value("${ai.endpoints.probe-interval-ms:5000}") long probeIntervalMs,
+            @Value("${ai.endpoints.probe-timeout-ms:2000}") long probeTimeoutMs,
+            @Value("${ai.endpoints.affinity-capacity:1024}") int affinityCapacity) {
+        return new AsrEndpointPool.Settings(strategy, ejectAfterFailures, ejectMs, slowThresholdMs,
+            probeIntervalMs, probeTimeoutMs, affinityCapacity);
+    }
+}
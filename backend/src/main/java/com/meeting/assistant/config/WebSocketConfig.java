@@ -1,6 +1,7 @@
 package com.meeting.assistant.config;
 
 import com.meeting.assistant.websocket.AudioStreamHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
@@ -26,15 +27,18 @@ public class WebSocketConfig implements WebSocketConfigurer {
 
     /**
      * 配置WebSocket消息缓冲区大小
-     * 音频数据可能较大，需要增加缓冲区限制
+     * 音频数据可能较大，需要增加缓冲区限制；分片接收时大消息按缓冲区大小分多次交给处理器，
+     * 缓冲区只需容纳一个分片，每个连接占用的内存随之减小
      */
     @Bean
-    public ServletServerContainerFactoryBean createWebSocketContainer() {
+    public ServletServerContainerFactoryBean createWebSocketContainer(
+            @Value("${meeting.websocket.partial-messages:true}") boolean partialMessages,
+            @Value("${meeting.websocket.binary-buffer-bytes:65536}") int binaryBufferBytes) {
         ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
         // 设置文本消息缓冲区大小为 1MB
         container.setMaxTextMessageBufferSize(1024 * 1024);
-        // 设置二进制消息缓冲区大小为 1MB
-        container.setMaxBinaryMessageBufferSize(1024 * 1024);
+        // 设置二进制消息缓冲区大小：分片接收时为单个分片大小，否则为 1MB
+        container.setMaxBinaryMessageBufferSize(partialMessages ? binaryBufferBytes : 1024 * 1024);
         // 设置会话空闲超时为 10 分钟
         container.setMaxSessionIdleTimeout(600000L);
         return container;
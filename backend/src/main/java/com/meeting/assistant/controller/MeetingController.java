@@ -1,16 +1,37 @@
 package com.meeting.assistant.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meeting.assistant.dto.MeetingListPage;
+import com.meeting.assistant.dto.RunningSummaryView;
+import com.meeting.assistant.dto.TranscriptPage;
 import com.meeting.assistant.entity.Meeting;
 import com.meeting.assistant.entity.Speaker;
 import com.meeting.assistant.entity.Transcript;
+import com.meeting.assistant.service.CompletionJob;
+import com.meeting.assistant.service.MeetingCompletionService;
 import com.meeting.assistant.service.MeetingService;
+import com.meeting.assistant.service.RollingSummaryService;
 import com.meeting.assistant.service.SpeakerService;
 import com.meeting.assistant.service.TranscriptionService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @RestController
 @RequestMapping("/api/meetings")
@@ -20,13 +41,39 @@ public class MeetingController {
     private final MeetingService meetingService;
     private final SpeakerService speakerService;
     private final TranscriptionService transcriptionService;
+    private final MeetingCompletionService completionService;
+    private final RollingSummaryService rollingSummaryService;
+    private final ObjectMapper objectMapper;
+    private final int defaultPageSize;
+    private final long summaryStreamTimeoutMs;
+    private final int summaryStreamQueueSize;
+    // 每个 SSE 订阅者一个发送线程
+    private final ExecutorService summaryStreamExecutor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("summary-sse-", 0).factory());
 
     public MeetingController(MeetingService meetingService,
                            SpeakerService speakerService,
-                           TranscriptionService transcriptionService) {
+                           TranscriptionService transcriptionService,
+                           MeetingCompletionService completionService,
+                           RollingSummaryService rollingSummaryService,
+                           ObjectMapper objectMapper,
+                           @Value("${meeting.transcripts.page-size:200}") int defaultPageSize,
+                           @Value("${meeting.completion.stream-timeout-ms:600000}") long summaryStreamTimeoutMs,
+                           @Value("${meeting.completion.stream-queue-size:256}") int summaryStreamQueueSize) {
         this.meetingService = meetingService;
         this.speakerService = speakerService;
         this.transcriptionService = transcriptionService;
+        this.completionService = completionService;
+        this.rollingSummaryService = rollingSummaryService;
+        this.objectMapper = objectMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.summaryStreamTimeoutMs = summaryStreamTimeoutMs;
+        this.summaryStreamQueueSize = summaryStreamQueueSize;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        summaryStreamExecutor.shutdownNow();
     }
 
     @PostMapping
@@ -36,10 +83,18 @@ public class MeetingController {
         return ResponseEntity.ok(meeting);
     }
 
+    /**
+     * 会议列表（不含总结），按开始时间倒序游标分页
+     * 下一页带上返回的 nextBeforeTime 和 nextBeforeId
+     */
     @GetMapping
-    public ResponseEntity<List<Meeting>> getAllMeetings() {
-        List<Meeting> meetings = meetingService.getAllMeetings();
-        return ResponseEntity.ok(meetings);
+    public ResponseEntity<MeetingListPage> getMeetings(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeTime,
+        @RequestParam(required = false) Long beforeId,
+        @RequestParam(defaultValue = "20") int limit
+    ) {
+        MeetingListPage page = meetingService.getMeetingPage(beforeTime, beforeId, limit);
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/{id}")
@@ -48,10 +103,71 @@ public class MeetingController {
         return ResponseEntity.ok(meeting);
     }
 
+    /**
+     * 完成会议：异步生成总结，返回 202 和任务，完成后通过 WebSocket 推送 summary_ready
+     * 仍在录音、已在其他节点上生成总结或已完成（未指定 retry=true）时返回 409
+     */
     @PostMapping("/{id}/complete")
-    public ResponseEntity<Meeting> completeMeeting(@PathVariable Long id) {
-        Meeting meeting = meetingService.completeMeeting(id);
-        return ResponseEntity.ok(meeting);
+    public ResponseEntity<CompletionJob> completeMeeting(@PathVariable Long id,
+                                                         @RequestParam(defaultValue = "false") boolean retry) {
+        return completionService.submit(id, retry)
+            .map(job -> ResponseEntity
+                .accepted()
+                .location(URI.create("/api/meetings/" + id + "/complete/" + job.getJobId()))
+                .body(job))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    /**
+     * 以 SSE 流式输出本节点上正在生成的总结：先发送已生成的部分，之后每段文本一个 delta 事件，结束时发送 done 事件
+     * 没有进行中的任务时直接发送 done 事件和已保存的总结
+     */
+    @GetMapping(value = "/{id}/summary/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSummary(@PathVariable Long id) {
+        SseEmitter emitter = new SseEmitter(summaryStreamTimeoutMs);
+        CompletionJob job = completionService.getLatestJob(id).orElse(null);
+        if (job == null) {
+            Meeting meeting = meetingService.getMeeting(id);
+            sendSummaryDone(emitter, meeting.getStatus().name(), meeting.getSummary(), null);
+            return emitter;
+        }
+
+        SummaryStreamSubscriber subscriber = new SummaryStreamSubscriber(emitter, summaryStreamQueueSize);
+        Runnable unsubscribe = () -> {
+            job.unsubscribe(subscriber);
+            subscriber.close();
+        };
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        subscriber.start(summaryStreamExecutor);
+        job.subscribe(subscriber);
+        return emitter;
+    }
+
+    private void sendSummaryDone(SseEmitter emitter, String status, String summary, String error) {
+        try {
+            emitter.send(SummaryStreamSubscriber.doneEvent(status, summary, error));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * 会议进行中的滚动总结（会议结束后为结束前最后一次滚动总结）
+     */
+    @GetMapping("/{id}/summary/partial")
+    public ResponseEntity<RunningSummaryView> getRunningSummary(@PathVariable Long id) {
+        return ResponseEntity.ok(rollingSummaryService.getRunningSummary(id));
+    }
+
+    @GetMapping("/{id}/complete/{jobId}")
+    public ResponseEntity<CompletionJob> getCompletionJob(@PathVariable Long id, @PathVariable String jobId) {
+        return completionService.getJob(jobId)
+            .filter(job -> job.getMeetingId().equals(id))
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
@@ -60,10 +176,54 @@ public class MeetingController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * 按 sequenceOrder 游标分页，下一页用返回的 nextAfter 作为 after
+     */
     @GetMapping("/{id}/transcripts")
-    public ResponseEntity<List<Transcript>> getTranscripts(@PathVariable Long id) {
-        List<Transcript> transcripts = transcriptionService.getTranscriptsByMeeting(id);
-        return ResponseEntity.ok(transcripts);
+    public ResponseEntity<TranscriptPage> getTranscripts(
+        @PathVariable Long id,
+        @RequestParam(defaultValue = "0") int after,
+        @RequestParam(required = false) Integer limit
+    ) {
+        TranscriptPage page = transcriptionService.getTranscriptPage(id, after, limit != null ? limit : defaultPageSize);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * 以 NDJSON（每行一条）流式输出全部转录，边读边写
+     */
+    @GetMapping(value = "/{id}/transcripts/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTranscripts(
+        @PathVariable Long id,
+        @RequestParam(defaultValue = "0") int after
+    ) {
+        StreamingResponseBody body = out -> transcriptionService.streamTranscripts(id, after, view -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(view));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
+    /**
+     * 修改一条转录的说话人，请求体 {"speakerId": 5}，speakerId 为 null 时清除
+     */
+    @PutMapping("/{id}/transcripts/{transcriptId}/speaker")
+    public ResponseEntity<Map<String, Object>> updateTranscriptSpeaker(
+        @PathVariable Long id,
+        @PathVariable Long transcriptId,
+        @RequestBody Map<String, Long> request
+    ) {
+        Transcript transcript = transcriptionService.updateSpeaker(id, transcriptId, request.get("speakerId"));
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", transcript.getId());
+        response.put("speakerId", request.get("speakerId"));
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping("/{id}/speakers")
@@ -0,0 +1,108 @@
+package com.meeting.assistant.controller;
+
+import com.meeting.assistant.service.CompletionJob;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 总结 SSE 订阅者
+ * 生成总结的线程只把事件放进该订阅者的有界队列，由单独的线程按顺序写给客户端，慢客户端不会拖住总结；
+ * 客户端读得太慢、队列满时结束这条流，重连后会先收到已生成的全部文本
+ */
+@Slf4j
+class SummaryStreamSubscriber implements CompletionJob.Listener {
+
+    private record Event(SseEmitter.SseEventBuilder data, boolean last) {
+    }
+
+    private static final Event STOP = new Event(null, true);
+
+    private final SseEmitter emitter;
+    private final int capacity;
+    // 不限长度，容量在 onDelta 中检查，保证结束标记总能放进去
+    private final BlockingQueue<Event> queue = new LinkedBlockingQueue<>();
+    private volatile boolean closed;
+    private volatile Throwable failure;
+
+    SummaryStreamSubscriber(SseEmitter emitter, int capacity) {
+        this.emitter = emitter;
+        this.capacity = Math.max(1, capacity);
+    }
+
+    static SseEmitter.SseEventBuilder doneEvent(String status, String summary, String error) {
+        Map<String, Object> done = new HashMap<>();
+        done.put("status", status);
+        done.put("summary", summary);
+        done.put("error", error);
+        return SseEmitter.event().name("done").data(done);
+    }
+
+    void start(Executor executor) {
+        executor.execute(this::drain);
+    }
+
+    @Override
+    public void onDelta(String delta) {
+        if (closed) {
+            return;
+        }
+        if (queue.size() >= capacity) {
+            log.warn("Summary stream client too slow ({} events queued), closing stream", capacity);
+            failure = new RuntimeException("客户端读取总结过慢，已结束推送");
+            close();
+            return;
+        }
+        queue.offer(new Event(SseEmitter.event().name("delta").data(Map.of("delta", delta)), false));
+    }
+
+    @Override
+    public void onFinished(CompletionJob job) {
+        if (closed) {
+            return;
+        }
+        boolean succeeded = job.getState() == CompletionJob.State.SUCCEEDED;
+        queue.offer(new Event(doneEvent(succeeded ? "COMPLETED" : "FAILED",
+            succeeded ? job.currentText() : null, job.getError()), true));
+    }
+
+    /**
+     * 停止推送（连接结束、超时或客户端过慢），丢弃还没发出的事件
+     */
+    void close() {
+        closed = true;
+        queue.clear();
+        queue.offer(STOP);
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                Event event = queue.take();
+                if (event == STOP) {
+                    if (failure != null) {
+                        emitter.completeWithError(failure);
+                    }
+                    return;
+                }
+                emitter.send(event.data());
+                if (event.last()) {
+                    emitter.complete();
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 客户端已断开或连接已结束
+            closed = true;
+            emitter.completeWithError(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
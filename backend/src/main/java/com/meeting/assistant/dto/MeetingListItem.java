@@ -0,0 +1,17 @@
+package com.meeting.assistant.dto;
+
+import com.meeting.assistant.entity.Meeting;
+
+import java.time.LocalDateTime;
+
+/**
+ * 会议列表项，不含总结等大字段，总结和转录只在详情接口返回
+ */
+public record MeetingListItem(
+    Long id,
+    String title,
+    LocalDateTime startTime,
+    LocalDateTime endTime,
+    Meeting.MeetingStatus status
+) {
+}
@@ -0,0 +1,16 @@
+package com.meeting.assistant.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 按 (startTime, id) 倒序游标分页的一页会议
+ * 下一页请求带上 nextBeforeTime 和 nextBeforeId，没有更多数据时两者为 null
+ */
+public record MeetingListPage(
+    List<MeetingListItem> items,
+    LocalDateTime nextBeforeTime,
+    Long nextBeforeId,
+    boolean hasMore
+) {
+}
@@ -0,0 +1,16 @@
+package com.meeting.assistant.dto;
+
+import com.meeting.assistant.entity.Meeting;
+
+/**
+ * 会议进行中的滚动总结
+ *
+ * @param throughSequence 总结已覆盖到的转录序号，尚未生成时为 null
+ */
+public record RunningSummaryView(
+    Long meetingId,
+    Meeting.MeetingStatus status,
+    String summary,
+    Integer throughSequence
+) {
+}
@@ -0,0 +1,15 @@
+package com.meeting.assistant.dto;
+
+import java.util.List;
+
+/**
+ * 按 sequenceOrder 游标分页的一页转录
+ *
+ * @param nextAfter 下一页请求的 after 参数（本页最后一条的序号），没有数据时为请求的 after
+ */
+public record TranscriptPage(
+    List<TranscriptView> items,
+    Integer nextAfter,
+    boolean hasMore
+) {
+}
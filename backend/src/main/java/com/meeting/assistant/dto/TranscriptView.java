@@ -0,0 +1,21 @@
+package com.meeting.assistant.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 转录记录的只读视图，直接由查询行构造，不经过实体和持久化上下文
+ */
+public record TranscriptView(
+    Long id,
+    Integer sequenceOrder,
+    String content,
+    LocalDateTime timestamp,
+    BigDecimal confidence,
+    Long speakerId,
+    SpeakerRef speaker
+) {
+
+    public record SpeakerRef(Long id, String name, String color) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.meeting.assistant.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 模型调用结果缓存（持久层），键为 (提供者, 提示词版本, 输入) 的 SHA-256
+ * 读写走 AiCacheRepository，这里只用于建表
+ */
+@Data
+@Entity
+@Table(name = "ai_cache")
+public class AiCacheEntry {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false, length = 20)
+    private String kind;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String value;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -8,7 +8,10 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "meetings")
+@Table(name = "meetings", indexes = {
+    // 会议列表按开始时间倒序游标分页
+    @Index(name = "idx_meetings_start_time", columnList = "start_time, id")
+})
 public class Meeting {
 
     @Id
@@ -31,6 +34,25 @@ public class Meeting {
     @Column(columnDefinition = "TEXT")
     private String summary;
 
+    // 会议进行中滚动更新的总结，以及它已覆盖到的转录序号；完成时只需处理之后的转录
+    @Column(name = "running_summary", columnDefinition = "TEXT")
+    private String runningSummary;
+
+    @Column(name = "summarized_through_seq")
+    private Integer summarizedThroughSeq;
+
+    // 最近一次收到音频的时间（节流写入），用于判断录音中的会议是否已中断
+    @Column(name = "last_audio_at")
+    private LocalDateTime lastAudioAt;
+
+    // 本节点上该会议的录音连接全部断开的时间；晚于最后一次心跳时说明已没有节点在录音
+    @Column(name = "recording_released_at")
+    private LocalDateTime recordingReleasedAt;
+
+    // 本次生成总结开始的时间，同时作为认领标记：写入总结时校验，超时后可被重新认领
+    @Column(name = "summary_started_at")
+    private LocalDateTime summaryStartedAt;
+
     @Column(name = "audio_file_url")
     private String audioFileUrl;
 
@@ -59,6 +81,7 @@ public class Meeting {
 
     public enum MeetingStatus {
         RECORDING,
+        SUMMARIZING,
         COMPLETED,
         FAILED
     }
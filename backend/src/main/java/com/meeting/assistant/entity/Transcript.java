@@ -8,7 +8,10 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "transcripts")
+@Table(name = "transcripts", indexes = {
+    // 按会议顺序读取、取会议最后一条转录
+    @Index(name = "idx_transcripts_sequence", columnList = "meeting_id, sequence_order")
+})
 public class Transcript {
 
     @Id
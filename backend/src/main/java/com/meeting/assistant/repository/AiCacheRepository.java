@@ -0,0 +1,36 @@
+package com.meeting.assistant.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 模型调用结果缓存的持久层（ai_cache 表）
+ */
+@Repository
+public class AiCacheRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AiCacheRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<String> find(String key) {
+        List<String> values = jdbcTemplate.queryForList(
+            "SELECT value FROM ai_cache WHERE cache_key = ?", String.class, key);
+        return values.stream().findFirst();
+    }
+
+    /**
+     * 写入结果，相同的键已存在时保留原值（内容相同）
+     */
+    public void save(String key, String kind, String value) {
+        jdbcTemplate.update(
+            "INSERT INTO ai_cache (cache_key, kind, value, created_at) VALUES (?, ?, ?, now()) " +
+                "ON CONFLICT (cache_key) DO NOTHING",
+            key, kind, value);
+    }
+}
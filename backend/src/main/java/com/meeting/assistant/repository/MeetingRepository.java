@@ -1,15 +1,139 @@
 package com.meeting.assistant.repository;
 
+import com.meeting.assistant.dto.MeetingListItem;
 import com.meeting.assistant.entity.Meeting;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface MeetingRepository extends JpaRepository<Meeting, Long> {
 
-    List<Meeting> findAllByOrderByStartTimeDesc();
+    String STALE_CONDITION =
+        "((m.status = :recording AND COALESCE(m.lastAudioAt, m.startTime) < :cutoff) " +
+            "OR (m.status = :summarizing AND m.summaryStartedAt < :leaseCutoff))";
+
+    /**
+     * 会议列表第一页（只查列表需要的列）
+     */
+    @Query("SELECT new com.meeting.assistant.dto.MeetingListItem(m.id, m.title, m.startTime, m.endTime, m.status) " +
+        "FROM Meeting m ORDER BY m.startTime DESC, m.id DESC")
+    List<MeetingListItem> findListItems(Limit limit);
+
+    /**
+     * 会议列表后续页：排在 (beforeTime, beforeId) 之后的会议
+     */
+    @Query("SELECT new com.meeting.assistant.dto.MeetingListItem(m.id, m.title, m.startTime, m.endTime, m.status) " +
+        "FROM Meeting m " +
+        "WHERE m.startTime < :beforeTime OR (m.startTime = :beforeTime AND m.id < :beforeId) " +
+        "ORDER BY m.startTime DESC, m.id DESC")
+    List<MeetingListItem> findListItemsBefore(@Param("beforeTime") LocalDateTime beforeTime,
+                                              @Param("beforeId") Long beforeId,
+                                              Limit limit);
 
     List<Meeting> findByStatus(Meeting.MeetingStatus status);
+
+    /**
+     * 写入滚动总结，只接受覆盖范围更靠后的结果
+     */
+    @Modifying
+    @Query("UPDATE Meeting m SET m.runningSummary = :summary, m.summarizedThroughSeq = :throughSeq " +
+        "WHERE m.id = :id AND (m.summarizedThroughSeq IS NULL OR m.summarizedThroughSeq < :throughSeq)")
+    int updateRunningSummary(@Param("id") Long id,
+                             @Param("summary") String summary,
+                             @Param("throughSeq") Integer throughSeq);
+
+    /**
+     * 记录音频心跳
+     */
+    @Modifying
+    @Query("UPDATE Meeting m SET m.lastAudioAt = :now WHERE m.id = :id AND m.status = :recording")
+    int updateLastAudioAt(@Param("id") Long id, @Param("now") LocalDateTime now,
+                          @Param("recording") Meeting.MeetingStatus recording);
+
+    /**
+     * 录音连接全部断开，记录释放时间（仍在录音中的会议）
+     */
+    @Modifying
+    @Query("UPDATE Meeting m SET m.recordingReleasedAt = :now WHERE m.id = :id AND m.status = :recording")
+    int releaseRecording(@Param("id") Long id, @Param("now") LocalDateTime now,
+                         @Param("recording") Meeting.MeetingStatus recording);
+
+    /**
+     * 需要恢复的会议：录音中但在 cutoff 之后没有收到音频（从未收到音频时按开始时间判断），
+     * 或者生成总结开始于 leaseCutoff 之前仍未结束（处理节点中途退出）
+     */
+    @Query("SELECT m.id FROM Meeting m WHERE " + STALE_CONDITION + " ORDER BY m.startTime")
+    List<Long> findStaleIds(@Param("cutoff") LocalDateTime cutoff,
+                            @Param("leaseCutoff") LocalDateTime leaseCutoff,
+                            @Param("recording") Meeting.MeetingStatus recording,
+                            @Param("summarizing") Meeting.MeetingStatus summarizing,
+                            Limit limit);
+
+    /**
+     * 认领一个需要恢复的会议并转为生成总结中；条件不满足（已被其他节点认领或又收到音频）时返回 0
+     * 结束时间取最后一次收到音频的时间
+     */
+    @Modifying
+    @Query("UPDATE Meeting m SET m.status = :summarizing, m.summaryStartedAt = :now, " +
+        "m.endTime = COALESCE(m.endTime, m.lastAudioAt, :now), m.updatedAt = :now " +
+        "WHERE m.id = :id AND " + STALE_CONDITION)
+    int claimStale(@Param("id") Long id,
+                   @Param("cutoff") LocalDateTime cutoff,
+                   @Param("leaseCutoff") LocalDateTime leaseCutoff,
+                   @Param("now") LocalDateTime now,
+                   @Param("recording") Meeting.MeetingStatus recording,
+                   @Param("summarizing") Meeting.MeetingStatus summarizing);
+
+    /**
+     * 手动完成会议：转为生成总结中
+     * 只认领生成失败的会议，以及已没有节点在录音的录音中会议（录音连接已全部断开，或心跳早于 idleCutoff）；
+     * 已完成的会议只在 retry 时重新生成。条件不满足时返回 0
+     */
+    @Modifying
+    @Query("UPDATE Meeting m SET m.status = :summarizing, m.summaryStartedAt = :now, " +
+        "m.endTime = COALESCE(m.endTime, m.lastAudioAt, :now), m.updatedAt = :now " +
+        "WHERE m.id = :id AND (m.status = :failed " +
+        "OR (m.status = :recording AND (COALESCE(m.lastAudioAt, m.startTime) < :idleCutoff " +
+        "OR m.recordingReleasedAt >= COALESCE(m.lastAudioAt, m.startTime))) " +
+        "OR (m.status = :completed AND :retry = true))")
+    int claimForCompletion(@Param("id") Long id,
+                           @Param("now") LocalDateTime now,
+                           @Param("idleCutoff") LocalDateTime idleCutoff,
+                           @Param("retry") boolean retry,
+                           @Param("recording") Meeting.MeetingStatus recording,
+                           @Param("summarizing") Meeting.MeetingStatus summarizing,
+                           @Param("completed") Meeting.MeetingStatus completed,
+                           @Param("failed") Meeting.MeetingStatus failed);
+
+    /**
+     * 写入总结并完成会议，仅当会议仍在生成总结时生效（期间被删除或重新认领时返回 0）
+     */
+    @Modifying
+    @Query("UPDATE Meeting m SET m.summary = :summary, m.status = :completed, m.updatedAt = :now " +
+        "WHERE m.id = :id AND m.status = :summarizing AND m.summaryStartedAt = :startedAt")
+    int saveSummary(@Param("id") Long id,
+                    @Param("summary") String summary,
+                    @Param("startedAt") LocalDateTime startedAt,
+                    @Param("now") LocalDateTime now,
+                    @Param("completed") Meeting.MeetingStatus completed,
+                    @Param("summarizing") Meeting.MeetingStatus summarizing);
+
+    /**
+     * 生成总结失败，条件同 saveSummary
+     */
+    @Modifying
+    @Query("UPDATE Meeting m SET m.status = :failed, m.updatedAt = :now " +
+        "WHERE m.id = :id AND m.status = :summarizing AND m.summaryStartedAt = :startedAt")
+    int markSummaryFailed(@Param("id") Long id,
+                          @Param("startedAt") LocalDateTime startedAt,
+                          @Param("now") LocalDateTime now,
+                          @Param("failed") Meeting.MeetingStatus failed,
+                          @Param("summarizing") Meeting.MeetingStatus summarizing);
 }
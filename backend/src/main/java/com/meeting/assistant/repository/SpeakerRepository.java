@@ -10,4 +10,6 @@ import java.util.List;
 public interface SpeakerRepository extends JpaRepository<Speaker, Long> {
 
     List<Speaker> findByMeetingId(Long meetingId);
+
+    long countByMeetingId(Long meetingId);
 }
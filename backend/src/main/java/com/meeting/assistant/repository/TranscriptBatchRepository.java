@@ -0,0 +1,56 @@
+package com.meeting.assistant.repository;
+
+import com.meeting.assistant.entity.Transcript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * 转录记录的 JDBC 批量写入
+ * IDENTITY 主键会让 Hibernate 逐条 INSERT 取回 id，这里预先从主键序列批量取号，再用 JDBC 批量写入
+ */
+@Repository
+public class TranscriptBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TranscriptBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 从 transcripts.id 的序列一次取 count 个 id
+     */
+    public List<Long> allocateIds(int count) {
+        return jdbcTemplate.queryForList(
+            "SELECT nextval(pg_get_serial_sequence('transcripts', 'id')) FROM generate_series(1, ?)",
+            Long.class, count);
+    }
+
+    public void batchInsert(List<Transcript> transcripts) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO transcripts (id, meeting_id, speaker_id, content, timestamp, sequence_order, confidence, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            transcripts, transcripts.size(), (ps, t) -> {
+                ps.setLong(1, t.getId());
+                ps.setLong(2, t.getMeeting().getId());
+                ps.setObject(3, t.getSpeaker() != null ? t.getSpeaker().getId() : null);
+                ps.setString(4, t.getContent());
+                ps.setTimestamp(5, Timestamp.valueOf(t.getTimestamp()));
+                ps.setInt(6, t.getSequenceOrder());
+                ps.setBigDecimal(7, t.getConfidence());
+                ps.setTimestamp(8, Timestamp.valueOf(t.getCreatedAt()));
+            });
+    }
+
+    public void batchUpdateContent(List<Transcript> transcripts) {
+        jdbcTemplate.batchUpdate(
+            "UPDATE transcripts SET content = ? WHERE id = ?",
+            transcripts, transcripts.size(), (ps, t) -> {
+                ps.setString(1, t.getContent());
+                ps.setLong(2, t.getId());
+            });
+    }
+}
@@ -5,13 +5,22 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TranscriptRepository extends JpaRepository<Transcript, Long> {
 
     List<Transcript> findByMeetingIdOrderBySequenceOrderAsc(Long meetingId);
 
-    List<Transcript> findByMeetingIdOrderBySequenceOrderDesc(Long meetingId);
+    /**
+     * 滚动总结之后新增的转录
+     */
+    List<Transcript> findByMeetingIdAndSequenceOrderGreaterThanOrderBySequenceOrderAsc(Long meetingId, Integer sequenceOrder);
 
-    Integer countByMeetingId(Long meetingId);
+    long countByMeetingIdAndSequenceOrderGreaterThan(Long meetingId, Integer sequenceOrder);
+
+    /**
+     * 会议的最后一条转录（LIMIT 1，走 (meeting_id, sequence_order) 索引）
+     */
+    Optional<Transcript> findFirstByMeetingIdOrderBySequenceOrderDesc(Long meetingId);
 }
@@ -0,0 +1,52 @@
+package com.meeting.assistant.repository;
+
+import com.meeting.assistant.dto.TranscriptView;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * 转录记录的只读查询
+ * 按 (meeting_id, sequence_order) 索引做游标分页
+ */
+@Repository
+public class TranscriptViewRepository {
+
+    private static final String SELECT =
+        "SELECT t.id, t.sequence_order, t.content, t.timestamp, t.confidence, " +
+            "s.id AS speaker_id, s.name AS speaker_name, s.color AS speaker_color " +
+            "FROM transcripts t LEFT JOIN speakers s ON s.id = t.speaker_id " +
+            "WHERE t.meeting_id = ? AND t.sequence_order > ? " +
+            "ORDER BY t.sequence_order";
+
+    private static final RowMapper<TranscriptView> ROW_MAPPER = (rs, rowNum) -> {
+        Long speakerId = rs.getObject("speaker_id", Long.class);
+        Timestamp timestamp = rs.getTimestamp("timestamp");
+        return new TranscriptView(
+            rs.getLong("id"),
+            rs.getInt("sequence_order"),
+            rs.getString("content"),
+            timestamp != null ? timestamp.toLocalDateTime() : null,
+            rs.getBigDecimal("confidence"),
+            speakerId,
+            speakerId != null
+                ? new TranscriptView.SpeakerRef(speakerId, rs.getString("speaker_name"), rs.getString("speaker_color"))
+                : null);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TranscriptViewRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 序号大于 after 的最多 limit 条
+     */
+    public List<TranscriptView> findPage(Long meetingId, int after, int limit) {
+        return jdbcTemplate.query(SELECT + " LIMIT ?", ROW_MAPPER, meetingId, after, limit);
+    }
+}
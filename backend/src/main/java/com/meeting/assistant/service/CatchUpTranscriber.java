@@ -0,0 +1,211 @@
+package com.meeting.assistant.service;
+
+import com.meeting.assistant.ai.AIService;
+import com.meeting.assistant.ai.CircuitOpenException;
+import com.meeting.assistant.ai.Deadline;
+import com.meeting.assistant.entity.Transcript;
+import com.meeting.assistant.websocket.MeetingEventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingDeque;
+
+/**
+ * 迟到音频段的补转录
+ * 超过实时截止时间的音频段不再占用实时转录通道：late-policy=catch-up 时复制后放入有界的补转录队列，
+ * 由单独的后台线程按较宽的截止时间转录，结果按音频的时间戳和说话人保存并以 late=true 推送；
+ * 队列满时丢弃最旧的音频段。late-policy=drop 时直接丢弃
+ * 转录服务熔断中时音频段放回队首，等熔断器放行探测调用（至少退避 retry-backoff-ms，逐次加倍）后再试，不计为丢弃
+ */
+@Slf4j
+@Component
+public class CatchUpTranscriber {
+
+    private final AIService aiService;
+    private final TranscriptionService transcriptionService;
+    private final DiarizationService diarizationService;
+    private final MeetingEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final Duration deadline;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+    private final BlockingDeque<LateSegment> queue;
+    private final Thread worker;
+
+    private final Counter deferredCounter;
+    private final Counter droppedCounter;
+    private final Counter recoveredCounter;
+    private final Counter retriedCounter;
+
+    private volatile boolean running = true;
+
+    private record LateSegment(Long meetingId, byte[] pcm, LocalDateTime capturedAt, CompletableFuture<Long> speaker) {
+    }
+
+    public CatchUpTranscriber(AIService aiService,
+                              TranscriptionService transcriptionService,
+                              DiarizationService diarizationService,
+                              MeetingEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${meeting.transcription.late-policy:catch-up}") String latePolicy,
+                              @Value("${meeting.transcription.catch-up.capacity:32}") int capacity,
+                              @Value("${meeting.transcription.catch-up.deadline-ms:60000}") long deadlineMs,
+                              @Value("${meeting.transcription.catch-up.retry-backoff-ms:1000}") long retryBackoffMs,
+                              @Value("${meeting.transcription.catch-up.max-retry-backoff-ms:30000}") long maxRetryBackoffMs) {
+        this.aiService = aiService;
+        this.transcriptionService = transcriptionService;
+        this.diarizationService = diarizationService;
+        this.eventPublisher = eventPublisher;
+        this.enabled = "catch-up".equalsIgnoreCase(latePolicy.trim());
+        this.deadline = Duration.ofMillis(deadlineMs);
+        this.retryBackoffMs = Math.max(1, retryBackoffMs);
+        this.maxRetryBackoffMs = Math.max(this.retryBackoffMs, maxRetryBackoffMs);
+        this.queue = new LinkedBlockingDeque<>(Math.max(1, capacity));
+
+        Gauge.builder("meeting.transcription.catch-up.depth", queue, BlockingDeque::size)
+            .description("Late audio segments waiting for catch-up transcription")
+            .register(meterRegistry);
+        this.deferredCounter = lateCounter(meterRegistry, "deferred");
+        this.droppedCounter = lateCounter(meterRegistry, "dropped");
+        this.recoveredCounter = lateCounter(meterRegistry, "recovered");
+        this.retriedCounter = lateCounter(meterRegistry, "retried");
+
+        this.worker = enabled
+            ? Thread.ofPlatform().daemon().name("transcription-catch-up").start(this::runLoop)
+            : null;
+        log.info("Late transcription segments: {}", enabled ? "catch-up queue of " + capacity : "dropped");
+    }
+
+    private static Counter lateCounter(MeterRegistry meterRegistry, String action) {
+        return Counter.builder("meeting.transcription.late")
+            .description("Audio segments that missed their real-time deadline")
+            .tag("action", action)
+            .register(meterRegistry);
+    }
+
+    /**
+     * 处理一个超过截止时间的音频段；会复制数据，调用返回后调用方即可释放缓冲区
+     */
+    public void late(Long meetingId, ByteBuffer pcm, LocalDateTime capturedAt) {
+        late(meetingId, pcm, capturedAt, null);
+    }
+
+    /**
+     * @param speaker 实时通道中已开始的说话人分离，为 null 时在这里开始
+     */
+    public void late(Long meetingId, ByteBuffer pcm, LocalDateTime capturedAt, CompletableFuture<Long> speaker) {
+        if (!enabled || !running) {
+            droppedCounter.increment();
+            log.warn("Dropping late audio segment for meeting {} ({} bytes)", meetingId, pcm.remaining());
+            return;
+        }
+        byte[] copy = new byte[pcm.remaining()];
+        pcm.duplicate().get(copy);
+        LateSegment segment = new LateSegment(meetingId, copy, capturedAt,
+            speaker != null ? speaker : diarizationService.assignAsync(meetingId, pcm));
+        while (!queue.offerLast(segment)) {
+            if (queue.pollFirst() != null) {
+                droppedCounter.increment();
+                log.warn("Catch-up queue full, dropping oldest late segment");
+            }
+        }
+        deferredCounter.increment();
+        log.info("Deferred late audio segment for meeting {} to catch-up queue", meetingId);
+    }
+
+    private void runLoop() {
+        long backoffMs = retryBackoffMs;
+        while (running) {
+            LateSegment segment;
+            try {
+                segment = queue.takeFirst();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                transcribe(segment);
+                backoffMs = retryBackoffMs;
+            } catch (Exception e) {
+                CircuitOpenException open = circuitOpen(e);
+                if (open == null) {
+                    droppedCounter.increment();
+                    log.warn("Catch-up transcription failed for meeting {}: {}", segment.meetingId(), e.getMessage());
+                    continue;
+                }
+                requeue(segment);
+                long waitMs = Math.min(maxRetryBackoffMs, Math.max(backoffMs, open.getRetryAfterMs()));
+                log.info("Transcription circuit open, retrying catch-up queue in {} ms", waitMs);
+                backoffMs = Math.min(maxRetryBackoffMs, backoffMs * 2);
+                try {
+                    Thread.sleep(waitMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 熔断中的音频段放回队首，保持时间顺序；期间队列已被新的迟到音频段占满时它是最旧的，丢弃
+     */
+    private void requeue(LateSegment segment) {
+        if (queue.offerFirst(segment)) {
+            retriedCounter.increment();
+        } else {
+            droppedCounter.increment();
+            log.warn("Catch-up queue full, dropping oldest late segment for meeting {}", segment.meetingId());
+        }
+    }
+
+    private static CircuitOpenException circuitOpen(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof CircuitOpenException open) {
+                return open;
+            }
+        }
+        return null;
+    }
+
+    private void transcribe(LateSegment segment) {
+        String text = Deadline.after(deadline).call(() -> aiService.transcribe(segment.pcm()));
+        recoveredCounter.increment();
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        // 分离失败时结果为 null，不会抛出
+        Long speakerId = segment.speaker().join();
+        Transcript transcript = transcriptionService.saveLateTranscript(segment.meetingId(), text.trim(),
+            segment.capturedAt(), speakerId);
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", "transcript");
+        payload.put("id", transcript.getId());
+        payload.put("content", transcript.getContent());
+        payload.put("timestamp", transcript.getTimestamp().toString());
+        payload.put("speakerId", transcript.getSpeaker() != null ? transcript.getSpeaker().getId() : null);
+        payload.put("late", true);
+        eventPublisher.publish(segment.meetingId(), payload);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.meeting.assistant.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 会议完成（生成总结）的异步任务状态
+ * 生成中的总结文本随模型输出累积，订阅者先收到已生成的部分，再收到后续片段
+ * 回调在任务锁之外执行，查询状态、取消订阅不会等订阅者；deliveryLock 只保证回调顺序
+ */
+@Slf4j
+@Getter
+public class CompletionJob {
+
+    public enum State {
+        PENDING,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    /**
+     * 总结输出订阅者，回调在生成总结的线程上执行，不能阻塞（写客户端等慢操作交给订阅者自己的线程）
+     */
+    public interface Listener {
+
+        void onDelta(String delta);
+
+        void onFinished(CompletionJob job);
+    }
+
+    private final String jobId = UUID.randomUUID().toString();
+    private final Long meetingId;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private volatile State state = State.PENDING;
+    private volatile String error;
+    private volatile LocalDateTime finishedAt;
+
+    @Getter(AccessLevel.NONE)
+    private final StringBuilder text = new StringBuilder();
+    @Getter(AccessLevel.NONE)
+    private final List<Listener> listeners = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private final ReentrantLock deliveryLock = new ReentrantLock();
+
+    CompletionJob(Long meetingId) {
+        this.meetingId = meetingId;
+    }
+
+    public boolean isFinished() {
+        return state == State.SUCCEEDED || state == State.FAILED;
+    }
+
+    /**
+     * 订阅总结输出，任务已结束时立即回调 onFinished
+     */
+    public void subscribe(Listener listener) {
+        deliveryLock.lock();
+        try {
+            String current;
+            boolean finished;
+            synchronized (this) {
+                current = text.toString();
+                finished = isFinished();
+                if (!finished) {
+                    listeners.add(listener);
+                }
+            }
+            if (!current.isEmpty()) {
+                listener.onDelta(current);
+            }
+            if (finished) {
+                listener.onFinished(this);
+            }
+        } finally {
+            deliveryLock.unlock();
+        }
+    }
+
+    public synchronized void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 目前已生成的总结文本
+     */
+    public synchronized String currentText() {
+        return text.toString();
+    }
+
+    void appendDelta(String delta) {
+        deliveryLock.lock();
+        try {
+            List<Listener> current;
+            synchronized (this) {
+                text.append(delta);
+                current = List.copyOf(listeners);
+            }
+            for (Listener listener : current) {
+                try {
+                    listener.onDelta(delta);
+                } catch (Exception e) {
+                    log.debug("Summary listener failed for job {}, unsubscribing", jobId, e);
+                    unsubscribe(listener);
+                }
+            }
+        } finally {
+            deliveryLock.unlock();
+        }
+    }
+
+    void running() {
+        state = State.RUNNING;
+    }
+
+    void succeeded() {
+        finish(State.SUCCEEDED, null);
+    }
+
+    void failed(String error) {
+        finish(State.FAILED, error);
+    }
+
+    private void finish(State finalState, String error) {
+        deliveryLock.lock();
+        try {
+            List<Listener> current;
+            synchronized (this) {
+                this.error = error;
+                finishedAt = LocalDateTime.now();
+                state = finalState;
+                current = List.copyOf(listeners);
+                listeners.clear();
+            }
+            for (Listener listener : current) {
+                try {
+                    listener.onFinished(this);
+                } catch (Exception e) {
+                    log.debug("Summary listener failed for job {}", jobId, e);
+                }
+            }
+        } finally {
+            deliveryLock.unlock();
+        }
+    }
+}
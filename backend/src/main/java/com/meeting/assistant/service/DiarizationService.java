@@ -0,0 +1,353 @@
+package com.meeting.assistant.service;
+
+import com.meeting.assistant.ai.ConcurrencyLimiter;
+import com.meeting.assistant.ai.SpeakerEmbeddingClient;
+import com.meeting.assistant.entity.Speaker;
+import com.meeting.assistant.repository.MeetingRepository;
+import com.meeting.assistant.repository.SpeakerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 在线说话人分离
+ * 每个语音段与转录并行提取声纹向量，和该会议已有的说话人中心按余弦相似度比较：
+ * 超过阈值归入最相近的说话人并更新中心，否则新建一个 Speaker（"说话人N"，之后可在前端改名）：
+ * 锁内只预留编号并登记新中心，写入数据库在锁外进行，期间归入该中心的语音段等待 id；
+ * 中心只保存在内存中，每个会议最多 max-speakers 个，最多保留 max-meetings 个会议（按最近使用淘汰）。
+ * 转录返回后最多再等 wait-ms，向量未就绪时该条转录不标记说话人，保证分离不拖慢转录
+ */
+@Slf4j
+@Service
+public class DiarizationService {
+
+    private static final CompletableFuture<Long> NONE = CompletableFuture.completedFuture(null);
+
+    private static final String[] COLORS = {
+        "#4F86F7", "#F7844F", "#4FBF73", "#C04FF7", "#F7C74F", "#4FCFD7", "#F74F8B", "#8B8B8B"
+    };
+
+    private final SpeakerEmbeddingClient embeddingClient;
+    private final SpeakerRepository speakerRepository;
+    private final MeetingRepository meetingRepository;
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final int maxSpeakers;
+    private final int minSegmentBytes;
+    private final int maxEmbedBytes;
+    private final long waitMs;
+    private final int centroidMaxWeight;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final ExecutorService executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("diarization-", 0).factory());
+
+    // 已删除的说话人 -> 所属会议；删除之前已完成的分离结果在 await 中改为未识别
+    private final Map<Long, Long> forgottenSpeakers = new ConcurrentHashMap<>();
+
+    // 会议 -> 说话人中心，按访问顺序淘汰
+    private final Map<Long, MeetingClusters> meetings;
+
+    private final Timer latencyTimer;
+    private final Counter matchedCounter;
+    private final Counter createdCounter;
+    private final Counter nearestCounter;
+    private final Counter skippedCounter;
+    private final Counter lateCounter;
+    private final Counter failedCounter;
+
+    // 一个会议的说话人中心；created 为已有说话人数，用于给新说话人编号
+    private static class MeetingClusters {
+        private final List<Cluster> clusters = new ArrayList<>();
+        private int created;
+
+        MeetingClusters(int existingSpeakers) {
+            this.created = existingSpeakers;
+        }
+    }
+
+    // 新建说话人写入数据库之前 speakerId 尚未完成
+    private static class Cluster {
+        private final CompletableFuture<Long> speakerId;
+        private final float[] centroid;
+        private int weight = 1;
+
+        Cluster(CompletableFuture<Long> speakerId, float[] centroid) {
+            this.speakerId = speakerId;
+            this.centroid = centroid;
+        }
+
+        boolean isSpeaker(Long id) {
+            return id.equals(speakerId.getNow(null));
+        }
+    }
+
+    public DiarizationService(SpeakerEmbeddingClient embeddingClient,
+                              SpeakerRepository speakerRepository,
+                              MeetingRepository meetingRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${diarization.enabled:false}") boolean enabled,
+                              @Value("${diarization.similarity-threshold:0.6}") double similarityThreshold,
+                              @Value("${diarization.max-speakers:8}") int maxSpeakers,
+                              @Value("${diarization.min-segment-ms:800}") int minSegmentMs,
+                              @Value("${diarization.max-embed-ms:6000}") int maxEmbedMs,
+                              @Value("${diarization.wait-ms:300}") long waitMs,
+                              @Value("${diarization.centroid-max-weight:50}") int centroidMaxWeight,
+                              @Value("${diarization.max-meetings:256}") int maxMeetings,
+                              @Value("${diarization.service.max-concurrency:8}") int maxConcurrency) {
+        this.embeddingClient = embeddingClient;
+        this.speakerRepository = speakerRepository;
+        this.meetingRepository = meetingRepository;
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.maxSpeakers = Math.max(1, maxSpeakers);
+        // 16kHz, 16bit, mono：每毫秒 32 字节
+        this.minSegmentBytes = minSegmentMs * 32;
+        this.maxEmbedBytes = Math.max(minSegmentBytes, maxEmbedMs * 32);
+        this.waitMs = waitMs;
+        this.centroidMaxWeight = Math.max(1, centroidMaxWeight);
+        this.concurrencyLimiter = new ConcurrencyLimiter("Speaker embedding", maxConcurrency, waitMs);
+        this.meetings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, MeetingClusters> eldest) {
+                return size() > maxMeetings;
+            }
+        };
+
+        this.latencyTimer = meterRegistry.timer("diarization.latency");
+        this.matchedCounter = segmentCounter(meterRegistry, "matched");
+        this.createdCounter = segmentCounter(meterRegistry, "created");
+        this.nearestCounter = segmentCounter(meterRegistry, "nearest");
+        this.skippedCounter = segmentCounter(meterRegistry, "skipped");
+        this.lateCounter = segmentCounter(meterRegistry, "late");
+        this.failedCounter = segmentCounter(meterRegistry, "failed");
+        Gauge.builder("diarization.meetings", meetings, m -> {
+                synchronized (m) {
+                    return m.size();
+                }
+            })
+            .register(meterRegistry);
+
+        if (enabled) {
+            log.info("Speaker diarization enabled: threshold {}, max {} speakers per meeting, wait {} ms",
+                similarityThreshold, maxSpeakers, waitMs);
+        }
+    }
+
+    private static Counter segmentCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("diarization.segments")
+            .description("Speech segments processed by speaker diarization")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开始识别一个语音段的说话人，结果为说话人 id（未启用、语音段过短或失败时为 null）
+     * 会复制音频（最多 max-embed-ms，取中间部分），调用返回后调用方即可释放缓冲区
+     */
+    public CompletableFuture<Long> assignAsync(Long meetingId, ByteBuffer pcm) {
+        if (!enabled) {
+            return NONE;
+        }
+        int size = pcm.remaining();
+        if (size < minSegmentBytes) {
+            skippedCounter.increment();
+            return NONE;
+        }
+        int length = Math.min(size, maxEmbedBytes) & ~1;
+        byte[] sample = new byte[length];
+        pcm.duplicate().position(pcm.position() + (((size - length) / 2) & ~1)).get(sample);
+
+        long start = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> assign(meetingId, sample), executor)
+            .whenComplete((speakerId, error) -> latencyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+            .exceptionally(error -> {
+                failedCounter.increment();
+                log.warn("Speaker diarization failed for meeting {}: {}", meetingId, error.getMessage());
+                return null;
+            });
+    }
+
+    /**
+     * 转录完成后取说话人：最多等待 wait-ms，仍未就绪时返回 null（识别继续进行，只是这条转录不标记）
+     */
+    public Long await(CompletableFuture<Long> speaker) {
+        if (speaker.isDone()) {
+            return live(speaker.getNow(null));
+        }
+        try {
+            return live(speaker.get(waitMs, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            lateCounter.increment();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private Long live(Long speakerId) {
+        return speakerId != null && forgottenSpeakers.containsKey(speakerId) ? null : speakerId;
+    }
+
+    private Long assign(Long meetingId, byte[] sample) {
+        float[] embedding = normalize(concurrencyLimiter.call(() -> embeddingClient.embed(sample)));
+        MeetingClusters meeting = clustersFor(meetingId);
+        Cluster created = null;
+        int index = 0;
+        double bestScore = -1;
+        Cluster cluster;
+        synchronized (meeting) {
+            Cluster best = null;
+            for (Cluster candidate : meeting.clusters) {
+                if (candidate.centroid.length != embedding.length) {
+                    continue;
+                }
+                double score = dot(candidate.centroid, embedding);
+                if (score > bestScore) {
+                    best = candidate;
+                    bestScore = score;
+                }
+            }
+
+            if (best != null && bestScore >= similarityThreshold) {
+                update(best, embedding);
+                matchedCounter.increment();
+                cluster = best;
+            } else if (meeting.clusters.size() < maxSpeakers) {
+                // 先登记中心，写入期间同一说话人的语音段归入它并等待 id
+                index = ++meeting.created;
+                created = new Cluster(new CompletableFuture<>(), embedding);
+                meeting.clusters.add(created);
+                cluster = created;
+            } else {
+                // 已达上限：归入最相近的说话人，不更新中心
+                nearestCounter.increment();
+                cluster = best;
+            }
+        }
+        if (created != null) {
+            // 数据库写入不在锁内：虚拟线程持有监视器等待 I/O 会占住载体线程，同一会议的其他语音段也会被挡住
+            try {
+                Speaker speaker = createSpeaker(meetingId, index);
+                created.speakerId.complete(speaker.getId());
+            } catch (RuntimeException e) {
+                synchronized (meeting) {
+                    meeting.clusters.remove(created);
+                }
+                created.speakerId.completeExceptionally(e);
+                throw e;
+            }
+            createdCounter.increment();
+            log.info("New speaker {} detected in meeting {} (best similarity {})",
+                created.speakerId.join(), meetingId, String.format("%.2f", bestScore));
+        }
+        return cluster != null ? cluster.speakerId.join() : null;
+    }
+
+    private MeetingClusters clustersFor(Long meetingId) {
+        synchronized (meetings) {
+            MeetingClusters existing = meetings.get(meetingId);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        // 新建或重启后续接已有说话人的编号；查询不在锁内
+        int existingSpeakers = (int) speakerRepository.countByMeetingId(meetingId);
+        synchronized (meetings) {
+            return meetings.computeIfAbsent(meetingId, id -> new MeetingClusters(existingSpeakers));
+        }
+    }
+
+    private Speaker createSpeaker(Long meetingId, int index) {
+        Speaker speaker = new Speaker();
+        speaker.setMeeting(meetingRepository.getReferenceById(meetingId));
+        speaker.setName("说话人" + index);
+        speaker.setColor(COLORS[(index - 1) % COLORS.length]);
+        return speakerRepository.save(speaker);
+    }
+
+    /**
+     * 中心按加权平均更新，权重有上限，说话人音色随时间变化时中心仍能跟上
+     */
+    private void update(Cluster cluster, float[] embedding) {
+        float[] centroid = cluster.centroid;
+        for (int i = 0; i < centroid.length; i++) {
+            centroid[i] = centroid[i] * cluster.weight + embedding[i];
+        }
+        normalize(centroid);
+        cluster.weight = Math.min(centroidMaxWeight, cluster.weight + 1);
+    }
+
+    /**
+     * 说话人被删除后不再分配给它
+     */
+    public void forgetSpeaker(Long meetingId, Long speakerId) {
+        forgottenSpeakers.put(speakerId, meetingId);
+        MeetingClusters meeting;
+        synchronized (meetings) {
+            meeting = meetings.get(meetingId);
+        }
+        if (meeting != null) {
+            synchronized (meeting) {
+                meeting.clusters.removeIf(cluster -> cluster.isSpeaker(speakerId));
+            }
+        }
+    }
+
+    /**
+     * 丢弃会议的说话人中心（会议被删除时）
+     */
+    public void discard(Long meetingId) {
+        synchronized (meetings) {
+            meetings.remove(meetingId);
+        }
+        forgottenSpeakers.values().removeIf(meetingId::equals);
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = Math.sqrt(dot(vector, vector));
+        if (norm > 0) {
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = (float) (vector[i] / norm);
+            }
+        }
+        return vector;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,266 @@
+package com.meeting.assistant.service;
+
+import com.meeting.assistant.ai.Deadline;
+import com.meeting.assistant.ai.MapReduceSummarizer;
+import com.meeting.assistant.entity.Meeting;
+import com.meeting.assistant.entity.Speaker;
+import com.meeting.assistant.entity.Transcript;
+import com.meeting.assistant.repository.MeetingRepository;
+import com.meeting.assistant.repository.SpeakerRepository;
+import com.meeting.assistant.repository.TranscriptRepository;
+import com.meeting.assistant.websocket.MeetingEventPublisher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 会议完成（生成总结）的异步任务
+ * 会议先用条件更新转为 SUMMARIZING，再在有限并发的线程池中生成总结；
+ * 读取转录和写入总结各用一个短事务，调用大模型期间不占用数据库连接
+ */
+@Slf4j
+@Service
+public class MeetingCompletionService {
+
+    private static final long FINISHED_JOB_RETENTION_MS = 60 * 60 * 1000;
+
+    private final MeetingRepository meetingRepository;
+    private final TranscriptRepository transcriptRepository;
+    private final SpeakerRepository speakerRepository;
+    private final TranscriptionService transcriptionService;
+    private final MapReduceSummarizer summarizer;
+    private final MeetingEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int concurrency;
+    private final long deadlineMs;
+    private final long drainTimeoutMs;
+    private final long recordingIdleMs;
+    private final ExecutorService executor;
+
+    // 已提交（排队或执行中）的任务数
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, CompletionJob> jobs = new ConcurrentHashMap<>();
+    // 会议 -> 最近一次任务
+    private final Map<Long, CompletionJob> meetingJobs = new ConcurrentHashMap<>();
+
+    public MeetingCompletionService(MeetingRepository meetingRepository,
+                                    TranscriptRepository transcriptRepository,
+                                    SpeakerRepository speakerRepository,
+                                    TranscriptionService transcriptionService,
+                                    MapReduceSummarizer summarizer,
+                                    MeetingEventPublisher eventPublisher,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${meeting.completion.concurrency:4}") int concurrency,
+                                    @Value("${meeting.completion.deadline-ms:900000}") long deadlineMs,
+                                    @Value("${meeting.completion.drain-timeout-ms:30000}") long drainTimeoutMs,
+                                    @Value("${meeting.completion.recording-idle-ms:60000}") long recordingIdleMs) {
+        this.meetingRepository = meetingRepository;
+        this.transcriptRepository = transcriptRepository;
+        this.speakerRepository = speakerRepository;
+        this.transcriptionService = transcriptionService;
+        this.summarizer = summarizer;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.concurrency = concurrency;
+        this.deadlineMs = deadlineMs;
+        this.drainTimeoutMs = drainTimeoutMs;
+        this.recordingIdleMs = recordingIdleMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "meeting-completion-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 手动完成会议
+     * 仍有节点在录音、已完成（retry 为 false）或已在生成总结时不认领：
+     * 生成中的任务在本节点上时返回该任务，否则返回空
+     */
+    public Optional<CompletionJob> submit(Long meetingId, boolean retry) {
+        if (!meetingRepository.existsById(meetingId)) {
+            throw new RuntimeException("Meeting not found: " + meetingId);
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime idleCutoff = startedAt.minus(Duration.ofMillis(recordingIdleMs));
+        Integer claimed = transactionTemplate.execute(status -> meetingRepository.claimForCompletion(
+            meetingId, startedAt, idleCutoff, retry,
+            Meeting.MeetingStatus.RECORDING, Meeting.MeetingStatus.SUMMARIZING,
+            Meeting.MeetingStatus.COMPLETED, Meeting.MeetingStatus.FAILED));
+        if (claimed == null || claimed == 0) {
+            CompletionJob running = meetingJobs.get(meetingId);
+            return running != null && !running.isFinished() ? Optional.of(running) : Optional.empty();
+        }
+        return Optional.of(start(meetingId, startedAt));
+    }
+
+    /**
+     * 恢复任务认领的会议（已转为 SUMMARIZING）
+     */
+    public CompletionJob resume(Long meetingId, LocalDateTime startedAt) {
+        return start(meetingId, startedAt);
+    }
+
+    public Optional<CompletionJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * 会议在本节点上最近一次的任务
+     */
+    public Optional<CompletionJob> getLatestJob(Long meetingId) {
+        return Optional.ofNullable(meetingJobs.get(meetingId));
+    }
+
+    /**
+     * 线程池中还能立即开始的任务数
+     */
+    public int availableSlots() {
+        return Math.max(0, concurrency - inFlight.get());
+    }
+
+    private CompletionJob start(Long meetingId, LocalDateTime startedAt) {
+        evictFinishedJobs();
+        CompletionJob job = new CompletionJob(meetingId);
+        jobs.put(job.getJobId(), job);
+        meetingJobs.put(meetingId, job);
+        inFlight.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                run(job, startedAt);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        log.info("Submitted completion job {} for meeting {}", job.getJobId(), meetingId);
+        return job;
+    }
+
+    private void run(CompletionJob job, LocalDateTime startedAt) {
+        Long meetingId = job.getMeetingId();
+        job.running();
+        try {
+            // 客户端断开后立即完成会议：先等各会话积压的音频段转录完、未完成的语句写入
+            if (!transcriptionService.awaitSessionDrains(meetingId, drainTimeoutMs)) {
+                log.warn("Sessions of meeting {} still draining after {} ms, summarizing what is saved",
+                    meetingId, drainTimeoutMs);
+            }
+            // 先写入尚在内存中的转录
+            transcriptionService.flush(meetingId);
+            SummaryInput input = readOnlyTransactionTemplate.execute(status -> loadSummaryInput(meetingId));
+
+            // 调用大模型，不在事务中；长会议分段总结，最终总结边生成边推送；整个总结共用一个截止时间
+            // 推送事件进入会议的发送队列，生成总结的线程不等客户端
+            String summary = input.lines().isEmpty() ? null : Deadline.after(Duration.ofMillis(deadlineMs)).call(
+                () -> summarizer.summarize(input.lines(), input.speakers(), delta -> {
+                    job.appendDelta(delta);
+                    eventPublisher.publishAsync(meetingId, Map.of(
+                        "type", "summary_delta",
+                        "meetingId", meetingId,
+                        "jobId", job.getJobId(),
+                        "delta", delta
+                    ));
+                }));
+
+            Integer saved = transactionTemplate.execute(status -> meetingRepository.saveSummary(
+                meetingId, summary, startedAt, LocalDateTime.now(),
+                Meeting.MeetingStatus.COMPLETED, Meeting.MeetingStatus.SUMMARIZING));
+            if (saved == null || saved == 0) {
+                // 期间会议被删除或被重新认领
+                job.failed("会议状态已变化，总结未保存");
+                log.warn("Meeting {} changed while summarizing, discarding summary", meetingId);
+                return;
+            }
+            job.succeeded();
+            log.info("Completed meeting: {}", meetingId);
+
+            Map<String, Object> event = new HashMap<>();
+            event.put("type", "summary_ready");
+            event.put("meetingId", meetingId);
+            event.put("jobId", job.getJobId());
+            event.put("summary", summary);
+            eventPublisher.publishAsync(meetingId, event);
+        } catch (Exception e) {
+            log.error("Failed to complete meeting {}", meetingId, e);
+            job.failed(e.getMessage());
+            try {
+                transactionTemplate.executeWithoutResult(status -> meetingRepository.markSummaryFailed(
+                    meetingId, startedAt, LocalDateTime.now(),
+                    Meeting.MeetingStatus.FAILED, Meeting.MeetingStatus.SUMMARIZING));
+            } catch (Exception ex) {
+                log.error("Failed to mark meeting {} as failed", meetingId, ex);
+            }
+            eventPublisher.publishAsync(meetingId, Map.of(
+                "type", "summary_failed",
+                "meetingId", meetingId,
+                "jobId", job.getJobId()
+            ));
+        }
+    }
+
+    /**
+     * 有滚动总结时只读取它之后的转录，滚动总结放在最前面
+     */
+    private SummaryInput loadSummaryInput(Long meetingId) {
+        Meeting meeting = meetingRepository.findById(meetingId)
+            .orElseThrow(() -> new RuntimeException("Meeting not found: " + meetingId));
+        String runningSummary = meeting.getRunningSummary();
+        Integer through = meeting.getSummarizedThroughSeq();
+
+        List<Transcript> transcripts = runningSummary != null && through != null
+            ? transcriptRepository.findByMeetingIdAndSequenceOrderGreaterThanOrderBySequenceOrderAsc(meetingId, through)
+            : transcriptRepository.findByMeetingIdOrderBySequenceOrderAsc(meetingId);
+        List<Speaker> speakers = speakerRepository.findByMeetingId(meetingId);
+
+        List<String> lines = new ArrayList<>(transcripts.size() + 2);
+        if (runningSummary != null && through != null) {
+            lines.add("【此前会议内容的总结】\n" + runningSummary);
+            lines.add("【之后的转录】");
+        }
+        transcripts.stream()
+            .map(t -> {
+                String speakerName = t.getSpeaker() != null ? t.getSpeaker().getName() : "未知";
+                return String.format("[%s] %s", speakerName, t.getContent());
+            })
+            .forEach(lines::add);
+        return new SummaryInput(lines, speakers);
+    }
+
+    private record SummaryInput(List<String> lines, List<Speaker> speakers) {
+    }
+
+    private void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(FINISHED_JOB_RETENTION_MS * 1_000_000);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+        meetingJobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.meeting.assistant.service;
+
+import com.meeting.assistant.entity.Meeting;
+import com.meeting.assistant.repository.MeetingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 会议音频心跳
+ * 收到音频时更新 meetings.last_audio_at，每个会议最多每 heartbeat-interval-ms 写一次；
+ * 恢复任务据此判断会议是否仍在其他节点上录音；本节点上的录音连接全部断开时写入释放时间，之后即可手动完成
+ */
+@Slf4j
+@Service
+public class MeetingHeartbeatService {
+
+    private final MeetingRepository meetingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long intervalMs;
+
+    // 会议 -> 上次写入心跳的时间
+    private final Map<Long, Long> lastBeats = new ConcurrentHashMap<>();
+
+    public MeetingHeartbeatService(MeetingRepository meetingRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${meeting.recovery.heartbeat-interval-ms:30000}") long intervalMs) {
+        this.meetingRepository = meetingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.intervalMs = intervalMs;
+    }
+
+    public void beat(Long meetingId) {
+        long now = System.currentTimeMillis();
+        Long last = lastBeats.get(meetingId);
+        if (last != null && now - last < intervalMs) {
+            return;
+        }
+        // 同一会议并发到达时只有一个线程写入
+        boolean won = last == null
+            ? lastBeats.putIfAbsent(meetingId, now) == null
+            : lastBeats.replace(meetingId, last, now);
+        if (!won) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                meetingRepository.updateLastAudioAt(meetingId, LocalDateTime.now(), Meeting.MeetingStatus.RECORDING));
+        } catch (Exception e) {
+            log.warn("Failed to record audio heartbeat for meeting {}: {}", meetingId, e.getMessage());
+        }
+    }
+
+    public void forget(Long meetingId) {
+        lastBeats.remove(meetingId);
+    }
+
+    /**
+     * 本节点上该会议的录音连接已全部断开
+     */
+    public void release(Long meetingId) {
+        lastBeats.remove(meetingId);
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                meetingRepository.releaseRecording(meetingId, LocalDateTime.now(), Meeting.MeetingStatus.RECORDING));
+        } catch (Exception e) {
+            log.warn("Failed to release recording for meeting {}: {}", meetingId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.meeting.assistant.service;
+
+import com.meeting.assistant.entity.Meeting;
+import com.meeting.assistant.repository.MeetingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 中断会议恢复
+ * 定期查找录音中但长时间没有音频心跳的会议（以及生成总结超时未结束的会议），
+ * 用条件更新认领后交给 MeetingCompletionService 异步完成；
+ * 条件更新保证多个节点不会重复完成同一会议，心跳保证不会误完成仍在其他节点录音的会议
+ */
+@Slf4j
+@Component
+public class MeetingRecoveryJob {
+
+    private final MeetingRepository meetingRepository;
+    private final MeetingCompletionService completionService;
+    private final TransactionTemplate transactionTemplate;
+    private final long staleAfterMs;
+    private final long claimLeaseMs;
+
+    public MeetingRecoveryJob(MeetingRepository meetingRepository,
+                              MeetingCompletionService completionService,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${meeting.recovery.stale-after-ms:300000}") long staleAfterMs,
+                              @Value("${meeting.recovery.claim-lease-ms:1800000}") long claimLeaseMs) {
+        this.meetingRepository = meetingRepository;
+        this.completionService = completionService;
+        this.transactionTemplate = transactionTemplate;
+        this.staleAfterMs = staleAfterMs;
+        this.claimLeaseMs = claimLeaseMs;
+    }
+
+    @Scheduled(initialDelayString = "${meeting.recovery.scan-interval-ms:60000}",
+        fixedDelayString = "${meeting.recovery.scan-interval-ms:60000}")
+    public void recoverStaleMeetings() {
+        // 只认领有空闲线程处理的数量，其余留给下一轮或其他节点
+        int free = completionService.availableSlots();
+        if (free <= 0) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusNanos(staleAfterMs * 1_000_000);
+        LocalDateTime leaseCutoff = now.minusNanos(claimLeaseMs * 1_000_000);
+        List<Long> candidates = meetingRepository.findStaleIds(cutoff, leaseCutoff,
+            Meeting.MeetingStatus.RECORDING, Meeting.MeetingStatus.SUMMARIZING, Limit.of(free));
+
+        for (Long meetingId : candidates) {
+            Integer claimed = transactionTemplate.execute(status -> meetingRepository.claimStale(
+                meetingId, cutoff, leaseCutoff, now,
+                Meeting.MeetingStatus.RECORDING, Meeting.MeetingStatus.SUMMARIZING));
+            if (claimed == null || claimed == 0) {
+                continue;
+            }
+            log.warn("Meeting {} has had no audio since before {}, auto-completing", meetingId, cutoff);
+            completionService.resume(meetingId, now);
+        }
+    }
+}
@@ -1,37 +1,35 @@
 package com.meeting.assistant.service;
 
-import com.meeting.assistant.ai.AIService;
+import com.meeting.assistant.dto.MeetingListItem;
+import com.meeting.assistant.dto.MeetingListPage;
 import com.meeting.assistant.entity.Meeting;
-import com.meeting.assistant.entity.Speaker;
-import com.meeting.assistant.entity.Transcript;
 import com.meeting.assistant.repository.MeetingRepository;
-import com.meeting.assistant.repository.SpeakerRepository;
-import com.meeting.assistant.repository.TranscriptRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class MeetingService {
 
     private final MeetingRepository meetingRepository;
-    private final SpeakerRepository speakerRepository;
-    private final TranscriptRepository transcriptRepository;
-    private final AIService aiService;
+    private final TranscriptionService transcriptionService;
+    private final DiarizationService diarizationService;
+    private final int maxPageSize;
 
     public MeetingService(MeetingRepository meetingRepository,
-                         SpeakerRepository speakerRepository,
-                         TranscriptRepository transcriptRepository,
-                         AIService aiService) {
+                         TranscriptionService transcriptionService,
+                         DiarizationService diarizationService,
+                         @Value("${meeting.list.max-page-size:100}") int maxPageSize) {
         this.meetingRepository = meetingRepository;
-        this.speakerRepository = speakerRepository;
-        this.transcriptRepository = transcriptRepository;
-        this.aiService = aiService;
+        this.transcriptionService = transcriptionService;
+        this.diarizationService = diarizationService;
+        this.maxPageSize = maxPageSize;
     }
 
     @Transactional
@@ -46,62 +44,34 @@ public class MeetingService {
         return saved;
     }
 
-    @Transactional
-    public Meeting completeMeeting(Long meetingId) {
-        Meeting meeting = meetingRepository.findById(meetingId)
-            .orElseThrow(() -> new RuntimeException("Meeting not found: " + meetingId));
-
-        meeting.setEndTime(LocalDateTime.now());
-        meeting.setStatus(Meeting.MeetingStatus.COMPLETED);
-
-        // 生成AI总结
-        List<Transcript> transcripts = transcriptRepository.findByMeetingIdOrderBySequenceOrderAsc(meetingId);
-        List<Speaker> speakers = speakerRepository.findByMeetingId(meetingId);
-
-        if (!transcripts.isEmpty()) {
-            String fullTranscript = transcripts.stream()
-                .map(t -> {
-                    String speakerName = t.getSpeaker() != null ? t.getSpeaker().getName() : "未知";
-                    return String.format("[%s] %s", speakerName, t.getContent());
-                })
-                .collect(Collectors.joining("\n"));
-
-            String summary = aiService.summarize(fullTranscript, speakers);
-            meeting.setSummary(summary);
-        }
-
-        Meeting saved = meetingRepository.save(meeting);
-        log.info("Completed meeting: {}", meetingId);
-        return saved;
-    }
-
     public Meeting getMeeting(Long id) {
         return meetingRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Meeting not found: " + id));
     }
 
-    public List<Meeting> getAllMeetings() {
-        List<Meeting> meetings = meetingRepository.findAllByOrderByStartTimeDesc();
-
-        // 自动完成所有意外中断的会议（RECORDING 状态）
-        meetings.stream()
-            .filter(meeting -> meeting.getStatus() == Meeting.MeetingStatus.RECORDING)
-            .forEach(meeting -> {
-                log.warn("Found interrupted meeting {}: {}, auto-completing...",
-                    meeting.getId(), meeting.getTitle());
-                try {
-                    completeMeeting(meeting.getId());
-                } catch (Exception e) {
-                    log.error("Failed to auto-complete meeting {}", meeting.getId(), e);
-                }
-            });
-
-        // 重新获取会议列表（包含已完成的会议）
-        return meetingRepository.findAllByOrderByStartTimeDesc();
+    /**
+     * 会议列表，按开始时间倒序游标分页
+     * beforeTime/beforeId 为空时返回第一页
+     */
+    @Transactional(readOnly = true)
+    public MeetingListPage getMeetingPage(LocalDateTime beforeTime, Long beforeId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        // 多取一条判断是否还有下一页
+        List<MeetingListItem> rows = beforeTime == null || beforeId == null
+            ? meetingRepository.findListItems(Limit.of(pageSize + 1))
+            : meetingRepository.findListItemsBefore(beforeTime, beforeId, Limit.of(pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new MeetingListPage(rows, null, null, false);
+        }
+        List<MeetingListItem> items = rows.subList(0, pageSize);
+        MeetingListItem last = items.get(pageSize - 1);
+        return new MeetingListPage(items, last.startTime(), last.id(), true);
     }
 
     @Transactional
     public void deleteMeeting(Long id) {
+        transcriptionService.discard(id);
+        diarizationService.discard(id);
         meetingRepository.deleteById(id);
         log.info("Deleted meeting: {}", id);
     }
@@ -0,0 +1,222 @@
+package com.meeting.assistant.service;
+
+import com.meeting.assistant.ai.AIService;
+import com.meeting.assistant.dto.RunningSummaryView;
+import com.meeting.assistant.dto.TranscriptView;
+import com.meeting.assistant.entity.Meeting;
+import com.meeting.assistant.repository.MeetingRepository;
+import com.meeting.assistant.repository.TranscriptRepository;
+import com.meeting.assistant.repository.TranscriptViewRepository;
+import com.meeting.assistant.websocket.MeetingEventPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 会议进行中的滚动总结
+ * 本节点上有连接的录音中会议，每新增 N 条转录或每隔 M 分钟，把新增转录合并进已保存的滚动总结，
+ * 并推送 summary_partial；完成会议时只需处理滚动总结之后的转录
+ * 只纳入写入器不再作为尾部持有的转录：尾部那条之后还可能被合并进新内容，纳入后这部分内容会从最终总结中漏掉
+ */
+@Slf4j
+@Service
+public class RollingSummaryService {
+
+    private final MeetingRepository meetingRepository;
+    private final TranscriptRepository transcriptRepository;
+    private final TranscriptViewRepository viewRepository;
+    private final TranscriptionService transcriptionService;
+    private final AIService aiService;
+    private final MeetingEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int everyTranscripts;
+    private final long intervalMs;
+    private final int maxDeltaLines;
+    private final ExecutorService executor;
+    private final Timer foldTimer;
+
+    private final Map<Long, TrackedMeeting> tracked = new ConcurrentHashMap<>();
+
+    private static class TrackedMeeting {
+        private final AtomicInteger sessions = new AtomicInteger();
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile long lastRunAt = System.currentTimeMillis();
+    }
+
+    public RollingSummaryService(MeetingRepository meetingRepository,
+                                 TranscriptRepository transcriptRepository,
+                                 TranscriptViewRepository viewRepository,
+                                 TranscriptionService transcriptionService,
+                                 AIService aiService,
+                                 MeetingEventPublisher eventPublisher,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${meeting.rolling-summary.enabled:true}") boolean enabled,
+                                 @Value("${meeting.rolling-summary.every-transcripts:20}") int everyTranscripts,
+                                 @Value("${meeting.rolling-summary.interval-ms:300000}") long intervalMs,
+                                 @Value("${meeting.rolling-summary.max-delta-lines:400}") int maxDeltaLines,
+                                 @Value("${meeting.rolling-summary.concurrency:2}") int concurrency) {
+        this.meetingRepository = meetingRepository;
+        this.transcriptRepository = transcriptRepository;
+        this.viewRepository = viewRepository;
+        this.transcriptionService = transcriptionService;
+        this.aiService = aiService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.everyTranscripts = everyTranscripts;
+        this.intervalMs = intervalMs;
+        this.maxDeltaLines = maxDeltaLines;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "rolling-summary-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.foldTimer = meterRegistry.timer("meeting.rolling-summary.fold");
+    }
+
+    /**
+     * 会议在本节点上有新连接
+     */
+    public void track(Long meetingId) {
+        if (enabled) {
+            tracked.computeIfAbsent(meetingId, k -> new TrackedMeeting()).sessions.incrementAndGet();
+        }
+    }
+
+    public void untrack(Long meetingId) {
+        tracked.computeIfPresent(meetingId, (k, meeting) ->
+            meeting.sessions.decrementAndGet() <= 0 ? null : meeting);
+    }
+
+    public RunningSummaryView getRunningSummary(Long meetingId) {
+        Meeting meeting = meetingRepository.findById(meetingId)
+            .orElseThrow(() -> new RuntimeException("Meeting not found: " + meetingId));
+        return new RunningSummaryView(meetingId, meeting.getStatus(),
+            meeting.getRunningSummary(), meeting.getSummarizedThroughSeq());
+    }
+
+    @Scheduled(fixedDelayString = "${meeting.rolling-summary.scan-interval-ms:30000}")
+    public void scan() {
+        tracked.forEach((meetingId, meeting) -> {
+            if (meeting.running.get()) {
+                return;
+            }
+            try {
+                Meeting current = meetingRepository.findById(meetingId).orElse(null);
+                if (current == null || current.getStatus() != Meeting.MeetingStatus.RECORDING) {
+                    return;
+                }
+                int through = current.getSummarizedThroughSeq() != null ? current.getSummarizedThroughSeq() : 0;
+                long pending = transcriptRepository.countByMeetingIdAndSequenceOrderGreaterThan(meetingId, through);
+                boolean due = pending >= everyTranscripts
+                    || (pending > 0 && System.currentTimeMillis() - meeting.lastRunAt >= intervalMs);
+                if (due && meeting.running.compareAndSet(false, true)) {
+                    String previous = current.getRunningSummary();
+                    executor.execute(() -> {
+                        try {
+                            foldTimer.record(() -> fold(meetingId, previous, through));
+                        } finally {
+                            meeting.lastRunAt = System.currentTimeMillis();
+                            meeting.running.set(false);
+                        }
+                    });
+                }
+            } catch (Exception e) {
+                log.error("Rolling summary check failed for meeting {}", meetingId, e);
+            }
+        });
+    }
+
+    /**
+     * 把 through 之后的转录合并进滚动总结
+     */
+    private void fold(Long meetingId, String previous, int through) {
+        try {
+            // 先写入合并后尚未落库的内容，再读取；尾部那条及之后的转录留到下一轮
+            transcriptionService.flush(meetingId);
+            Integer openTail = transcriptionService.openTailSequence(meetingId);
+            List<TranscriptView> rows = viewRepository.findPage(meetingId, through, maxDeltaLines);
+            if (openTail != null) {
+                rows = rows.stream().takeWhile(t -> t.sequenceOrder() < openTail).toList();
+            }
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            String delta = rows.stream()
+                .map(t -> String.format("[%s] %s", t.speaker() != null ? t.speaker().name() : "未知", t.content()))
+                .collect(Collectors.joining("\n"));
+            String summary = aiService.chat(buildFoldPrompt(previous, delta));
+            int newThrough = rows.get(rows.size() - 1).sequenceOrder();
+
+            Integer updated = transactionTemplate.execute(status ->
+                meetingRepository.updateRunningSummary(meetingId, summary, newThrough));
+            if (updated == null || updated == 0) {
+                return;
+            }
+            log.info("Rolling summary for meeting {} now covers transcripts through {}", meetingId, newThrough);
+            eventPublisher.publish(meetingId, Map.of(
+                "type", "summary_partial",
+                "meetingId", meetingId,
+                "summary", summary,
+                "throughSequence", newThrough
+            ));
+        } catch (Exception e) {
+            log.error("Rolling summary failed for meeting {}", meetingId, e);
+        }
+    }
+
+    private String buildFoldPrompt(String previous, String delta) {
+        return String.format("""
+            你在为一场正在进行的会议维护滚动总结，请把新增的转录合并进已有总结，使用简体中文：
+
+            已有总结：
+            %s
+
+            新增转录：
+            %s
+
+            请输出更新后的完整总结（使用Markdown格式），保留已有总结中的决策和待办，不要编造：
+
+            ## 目前进展
+            （用2-4句话概括到目前为止的会议内容）
+
+            ## 关键讨论点
+            - 讨论点1
+
+            ## 决策事项
+            - 决策1
+
+            ## 待办任务 (Action Items)
+            - [ ] 任务1 - 负责人：XXX
+            """, previous != null ? previous : "（暂无）", delta);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -16,11 +16,17 @@ public class SpeakerService {
 
     private final SpeakerRepository speakerRepository;
     private final MeetingRepository meetingRepository;
+    private final TranscriptionService transcriptionService;
+    private final DiarizationService diarizationService;
 
     public SpeakerService(SpeakerRepository speakerRepository,
-                         MeetingRepository meetingRepository) {
+                         MeetingRepository meetingRepository,
+                         TranscriptionService transcriptionService,
+                         DiarizationService diarizationService) {
         this.speakerRepository = speakerRepository;
         this.meetingRepository = meetingRepository;
+        this.transcriptionService = transcriptionService;
+        this.diarizationService = diarizationService;
     }
 
     @Transactional
@@ -57,8 +63,18 @@ public class SpeakerService {
         return speakerRepository.save(speaker);
     }
 
+    /**
+     * 删除说话人：停止自动分配给它，内存中和之后保存的转录不再引用它（删除后才返回的分离结果也一样），
+     * 再写入内存中的转录，已写入的由外键置空
+     */
     @Transactional
     public void deleteSpeaker(Long speakerId) {
+        speakerRepository.findById(speakerId).ifPresent(speaker -> {
+            Long meetingId = speaker.getMeeting().getId();
+            diarizationService.forgetSpeaker(meetingId, speakerId);
+            transcriptionService.forgetSpeaker(meetingId, speakerId);
+            transcriptionService.flush(meetingId);
+        });
         speakerRepository.deleteById(speakerId);
         log.info("Deleted speaker: {}", speakerId);
     }
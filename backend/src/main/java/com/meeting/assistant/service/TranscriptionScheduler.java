@@ -0,0 +1,385 @@
+package com.meeting.assistant.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 转录调度器
+ * 有界线程池 + 每个会话一条串行通道：同一会话的音频段按提交顺序依次转录、合并，
+ * 不同会话之间并行执行。通道积压时按配置的策略施加背压或丢弃
+ * meeting.transcription.executor=virtual 时每个任务运行在独立的虚拟线程上，
+ * 并发上限由各 AI 服务提供者的信号量控制
+ */
+@Slf4j
+@Component
+public class TranscriptionScheduler {
+
+    // 已关闭的通道记录保留时长，期间迟到的任务直接丢弃，不重新创建通道
+    private static final long CLOSED_LANE_RETENTION_MS = 60_000;
+
+    /**
+     * 通道已满时的处理策略
+     */
+    public enum OverflowPolicy {
+        BLOCK,        // 阻塞提交方（WebSocket 读线程），直到通道有空位或超时
+        DROP_OLDEST,  // 丢弃通道中最旧的任务
+        DROP_NEWEST   // 丢弃新提交的任务
+    }
+
+    private final ExecutorService executor;
+    private final int laneCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMs;
+
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    // 通道标识 -> 关闭时间
+    private final Map<String, Long> closedLanes = new ConcurrentHashMap<>();
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+    private final AtomicInteger activeTasks = new AtomicInteger();
+
+    private final Timer waitTimer;
+    private final Timer executionTimer;
+    private final Counter droppedCounter;
+
+    public TranscriptionScheduler(@Value("${meeting.transcription.executor:platform}") String executorMode,
+                                  @Value("${meeting.transcription.workers:16}") int workers,
+                                  @Value("${meeting.transcription.lane-capacity:4}") int laneCapacity,
+                                  @Value("${meeting.transcription.overflow-policy:drop-oldest}") String overflowPolicy,
+                                  @Value("${meeting.transcription.block-timeout-ms:2000}") long blockTimeoutMs,
+                                  MeterRegistry meterRegistry) {
+        this.laneCapacity = laneCapacity;
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase().replace('-', '_'));
+        this.blockTimeoutMs = blockTimeoutMs;
+
+        boolean virtual = "virtual".equalsIgnoreCase(executorMode.trim());
+        if (virtual) {
+            // 虚拟线程：阻塞的 HTTP 调用不再占用平台线程
+            this.executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("transcription-vt-", 0).factory());
+        } else {
+            // 每个通道同一时刻最多占用一个队列位置，背压由通道容量和溢出策略负责，线程池队列不设上限；
+            // 任务总是排队，不会在提交线程（可能持有其他通道的锁）上直接执行
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                workers, workers,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                namedThreadFactory("transcription-")
+            );
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+        }
+
+        Gauge.builder("meeting.transcription.queue.depth", queuedTasks, AtomicInteger::get)
+            .description("Audio segments waiting in session lanes")
+            .register(meterRegistry);
+        Gauge.builder("meeting.transcription.lanes.active", lanes, Map::size)
+            .description("Sessions with a transcription lane")
+            .register(meterRegistry);
+        Gauge.builder("meeting.transcription.executor.active", activeTasks, AtomicInteger::get)
+            .description("Transcription tasks currently running")
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder("meeting.transcription.queue.wait")
+            .description("Time an audio segment waits in its lane before transcription starts")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.executionTimer = Timer.builder("meeting.transcription.task.duration")
+            .description("Time spent transcribing and merging one audio segment")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.droppedCounter = Counter.builder("meeting.transcription.dropped")
+            .description("Audio segments shed because their lane was full")
+            .tag("policy", this.overflowPolicy.name().toLowerCase())
+            .register(meterRegistry);
+
+        log.info("Transcription scheduler: {} executor{}, lane capacity {}, overflow policy {}",
+            virtual ? "virtual-thread" : "platform", virtual ? "" : " with " + workers + " workers",
+            laneCapacity, this.overflowPolicy);
+    }
+
+    /**
+     * 提交任务到指定通道
+     * @param laneKey 通道标识（会话ID），同一通道内任务串行、按提交顺序执行
+     * @param task 任务
+     * @param onDrop 任务被丢弃时的回调（释放资源等），不会与 task 同时执行
+     * @return 是否被接受
+     */
+    public boolean submit(String laneKey, Runnable task, Runnable onDrop) {
+        return submitAsync(laneKey, () -> {
+            task.run();
+            return CompletableFuture.completedFuture(null);
+        }, onDrop);
+    }
+
+    /**
+     * 提交异步任务到指定通道
+     * 任务返回的 CompletionStage 完成后通道才开始下一个任务，等待期间不占用工作线程
+     */
+    public boolean submitAsync(String laneKey, Supplier<? extends CompletionStage<?>> task, Runnable onDrop) {
+        LaneTask laneTask = new LaneTask(task, onDrop, System.nanoTime());
+        Lane lane = openLane(laneKey);
+        if (lane == null) {
+            // 通道已关闭（如会话结束后迟到的流式结果）
+            log.debug("Transcription lane {} is closed, dropping task", laneKey);
+            drop(laneTask);
+            return false;
+        }
+        return lane.offer(laneTask, false);
+    }
+
+    /**
+     * 关闭通道：finalTask 在已排队的任务全部执行后运行，之后通道被移除
+     * 通道已关闭时（重复关闭）finalTask 排在之前的收尾任务之后，通道已移除时直接执行；finalTask 总会执行一次
+     * @return finalTask 执行完成时完成
+     */
+    public CompletableFuture<Void> close(String laneKey, Runnable finalTask) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Runnable completing = () -> {
+            try {
+                finalTask.run();
+            } finally {
+                done.complete(null);
+            }
+        };
+        Lane lane = openLane(laneKey);
+        long now = System.currentTimeMillis();
+        closedLanes.put(laneKey, now);
+        closedLanes.values().removeIf(closedAt -> now - closedAt > CLOSED_LANE_RETENTION_MS);
+        if (lane == null) {
+            executor.execute(completing);
+            return done;
+        }
+        Supplier<CompletionStage<?>> task = () -> {
+            completing.run();
+            return CompletableFuture.completedFuture(null);
+        };
+        lane.offer(new LaneTask(task, completing, System.nanoTime()), true);
+        return done;
+    }
+
+    /**
+     * 取得通道，不存在时创建；最近关闭过的通道已移除时返回 null
+     */
+    private Lane openLane(String laneKey) {
+        return lanes.compute(laneKey, (key, existing) -> {
+            if (existing != null) {
+                return existing;
+            }
+            return closedLanes.containsKey(key) ? null : new Lane(key);
+        });
+    }
+
+    /**
+     * 转录工作线程池，异步任务的后续处理（合并、保存、推送）应切回这里执行
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * 每个会话通道最多积压的任务数
+     */
+    public int getLaneCapacity() {
+        return laneCapacity;
+    }
+
+    public int getQueuedTasks() {
+        return queuedTasks.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drop(LaneTask task) {
+        droppedCounter.increment();
+        try {
+            task.onDrop().run();
+        } catch (Exception e) {
+            log.error("Error releasing dropped transcription task", e);
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record LaneTask(Supplier<? extends CompletionStage<?>> task, Runnable onDrop, long enqueuedAt) {
+    }
+
+    /**
+     * 会话串行通道：同一时刻最多一个任务在执行，执行完一个后重新提交到线程池，
+     * 让不同会话公平地分享工作线程
+     */
+    private final class Lane {
+        private final String key;
+        private final Deque<LaneTask> queue = new ArrayDeque<>();
+        private boolean scheduled;
+        private boolean closed;
+
+        Lane(String key) {
+            this.key = key;
+        }
+
+        boolean offer(LaneTask task, boolean closing) {
+            synchronized (this) {
+                // 关闭后只接受收尾任务
+                if (closed && !closing) {
+                    drop(task);
+                    return false;
+                }
+                if (!closing && !makeRoom(task)) {
+                    return false;
+                }
+                queue.addLast(task);
+                queuedTasks.incrementAndGet();
+                if (closing) {
+                    closed = true;
+                }
+                if (scheduled) {
+                    return true;
+                }
+                scheduled = true;
+            }
+            dispatch();
+            return true;
+        }
+
+        // 调用方持有锁
+        private boolean makeRoom(LaneTask task) {
+            long deadline = System.currentTimeMillis() + blockTimeoutMs;
+            while (queue.size() >= laneCapacity) {
+                switch (overflowPolicy) {
+                    case DROP_NEWEST -> {
+                        log.warn("Transcription lane {} is full, dropping newest segment", key);
+                        drop(task);
+                        return false;
+                    }
+                    case DROP_OLDEST -> {
+                        log.warn("Transcription lane {} is full, dropping oldest segment", key);
+                        queuedTasks.decrementAndGet();
+                        drop(queue.pollFirst());
+                    }
+                    case BLOCK -> {
+                        long remaining = deadline - System.currentTimeMillis();
+                        if (remaining <= 0) {
+                            log.warn("Transcription lane {} still full after {} ms, dropping segment", key, blockTimeoutMs);
+                            drop(task);
+                            return false;
+                        }
+                        try {
+                            wait(remaining);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            drop(task);
+                            return false;
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        private void runNext() {
+            LaneTask next;
+            synchronized (this) {
+                next = queue.pollFirst();
+                if (next == null) {
+                    scheduled = false;
+                    return;
+                }
+                notifyAll();
+            }
+            queuedTasks.decrementAndGet();
+            waitTimer.record(System.nanoTime() - next.enqueuedAt(), TimeUnit.NANOSECONDS);
+
+            long start = System.nanoTime();
+            activeTasks.incrementAndGet();
+            CompletionStage<?> stage;
+            try {
+                stage = next.task().get();
+            } catch (Exception e) {
+                stage = CompletableFuture.failedFuture(e);
+            }
+            stage.whenComplete((result, error) -> {
+                activeTasks.decrementAndGet();
+                executionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (error != null) {
+                    log.error("Transcription task failed in lane {}", key, error);
+                }
+                afterTask();
+            });
+        }
+
+        private void afterTask() {
+            synchronized (this) {
+                if (queue.isEmpty()) {
+                    scheduled = false;
+                    if (closed) {
+                        lanes.remove(key, this);
+                    }
+                    return;
+                }
+            }
+            dispatch();
+        }
+
+        /**
+         * 把通道的下一个任务交给线程池；线程池已关闭时丢弃通道中剩余的任务（收尾任务通过 onDrop 仍会执行）
+         */
+        private void dispatch() {
+            try {
+                executor.execute(this::runNext);
+            } catch (RejectedExecutionException e) {
+                List<LaneTask> rejected;
+                synchronized (this) {
+                    rejected = new ArrayList<>(queue);
+                    queuedTasks.addAndGet(-queue.size());
+                    queue.clear();
+                    scheduled = false;
+                    notifyAll();
+                }
+                log.warn("Transcription executor rejected lane {}, dropping {} queued tasks", key, rejected.size());
+                rejected.forEach(TranscriptionScheduler.this::drop);
+            }
+        }
+    }
+}
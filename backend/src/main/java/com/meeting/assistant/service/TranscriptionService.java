@@ -1,86 +1,624 @@
 package com.meeting.assistant.service;
 
+import com.meeting.assistant.dto.TranscriptPage;
+import com.meeting.assistant.dto.TranscriptView;
 import com.meeting.assistant.entity.Meeting;
+import com.meeting.assistant.entity.Speaker;
 import com.meeting.assistant.entity.Transcript;
 import com.meeting.assistant.repository.MeetingRepository;
+import com.meeting.assistant.repository.SpeakerRepository;
+import com.meeting.assistant.repository.TranscriptBatchRepository;
 import com.meeting.assistant.repository.TranscriptRepository;
+import com.meeting.assistant.repository.TranscriptViewRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
+/**
+ * 转录记录写入（write-behind）
+ * 每个会议的尾部状态（最后一条转录、下一个序号）保存在内存中，合并判断不再查询数据库；
+ * 新增和合并后的记录先返回给调用方（id 预先从序列取号，立即稳定），再按间隔或数量阈值批量写入 PostgreSQL
+ */
 @Slf4j
 @Service
 public class TranscriptionService {
 
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final long TAIL_IDLE_EVICT_MS = 30 * 60 * 1000;
+
     private final TranscriptRepository transcriptRepository;
     private final MeetingRepository meetingRepository;
+    private final SpeakerRepository speakerRepository;
+    private final TranscriptBatchRepository batchRepository;
+    private final TranscriptViewRepository viewRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxPageSize;
+    private final int streamPageSize;
+    private final ScheduledExecutorService flusher;
+    private final Timer saveTimer;
+    private final int maxWriteAttempts;
+    private final Counter deadLetterCounter;
+
+    // 每个会议的尾部状态
+    private final Map<Long, MeetingTail> tails = new ConcurrentHashMap<>();
+
+    // 有待写入记录的会议
+    private final Set<Long> dirtyMeetings = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    // 会议 -> 已断开、仍在收尾的会话（剩余音频段转录完、未完成的语句写入后完成）
+    private final Map<Long, Set<CompletableFuture<?>>> sessionDrains = new ConcurrentHashMap<>();
+
+    // 会议 -> 已删除的说话人，之后保存的转录不再引用它们（分离结果可能在删除之后才返回）
+    private final Map<Long, Set<Long>> deletedSpeakers = new ConcurrentHashMap<>();
+
+    // 预先取号的 id
+    private final ArrayDeque<Long> idBlock = new ArrayDeque<>();
+
+    // 同一时间只有一个批次在写入
+    private final Object flushLock = new Object();
+
+    // 会议尾部状态：最后一条转录、序号分配器、尚未写入的记录（按 id，新增或内容更新）
+    private static class MeetingTail {
+        private final Meeting meetingRef;
+        private final LinkedHashMap<Long, PendingRow> pending = new LinkedHashMap<>();
+        private final AtomicInteger lastSequence;
+        private Transcript last;
+        private long lastAccess = System.currentTimeMillis();
+
+        MeetingTail(Meeting meetingRef, Transcript last, int lastSequence) {
+            this.meetingRef = meetingRef;
+            this.last = last;
+            this.lastSequence = new AtomicInteger(lastSequence);
+        }
+
+        int allocateSequence() {
+            return lastSequence.incrementAndGet();
+        }
+    }
+
+    // attempts：非暂时性错误导致写入失败的次数
+    private record PendingRow(Transcript transcript, boolean insert, int attempts) {
+    }
 
     public TranscriptionService(TranscriptRepository transcriptRepository,
-                              MeetingRepository meetingRepository) {
+                              MeetingRepository meetingRepository,
+                              SpeakerRepository speakerRepository,
+                              TranscriptBatchRepository batchRepository,
+                              TranscriptViewRepository viewRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${meeting.persistence.batch-size:50}") int batchSize,
+                              @Value("${meeting.persistence.max-attempts:3}") int maxWriteAttempts,
+                              @Value("${meeting.persistence.flush-interval-ms:500}") long flushIntervalMs,
+                              @Value("${meeting.transcripts.max-page-size:500}") int maxPageSize,
+                              @Value("${meeting.transcripts.stream-page-size:500}") int streamPageSize,
+                              MeterRegistry meterRegistry) {
         this.transcriptRepository = transcriptRepository;
         this.meetingRepository = meetingRepository;
+        this.speakerRepository = speakerRepository;
+        this.batchRepository = batchRepository;
+        this.viewRepository = viewRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxPageSize = maxPageSize;
+        this.streamPageSize = Math.max(1, streamPageSize);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "transcript-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.saveTimer = meterRegistry.timer("meeting.transcript.save");
+        this.maxWriteAttempts = Math.max(1, maxWriteAttempts);
+        this.deadLetterCounter = Counter.builder("meeting.transcript.dropped")
+            .description("Transcripts dropped after repeated non-transient write failures")
+            .register(meterRegistry);
+        Gauge.builder("meeting.transcript.pending", pendingCount, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("meeting.transcript.tails", tails, Map::size).register(meterRegistry);
+        flusher.scheduleWithFixedDelay(this::scheduledFlush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Transcript write-behind: batch size {}, flush interval {} ms", batchSize, flushIntervalMs);
     }
 
-    @Transactional
     public Transcript saveTranscript(Long meetingId, String content, LocalDateTime timestamp) {
-        Meeting meeting = meetingRepository.findById(meetingId)
-            .orElseThrow(() -> new RuntimeException("Meeting not found: " + meetingId));
-
-        // 智能合并：检查是否应该与最近一条转录合并
-        List<Transcript> recentTranscripts = transcriptRepository
-            .findByMeetingIdOrderBySequenceOrderDesc(meetingId);
+        return saveTranscript(meetingId, content, timestamp, null);
+    }
 
-        if (!recentTranscripts.isEmpty()) {
-            Transcript lastTranscript = recentTranscripts.get(0);
+    /**
+     * @param speakerId 说话人分离的结果，未识别时为 null
+     */
+    public Transcript saveTranscript(Long meetingId, String content, LocalDateTime timestamp, Long speakerId) {
+        return saveTimer.record(() -> doSaveTranscript(meetingId, content, timestamp, speakerId, true));
+    }
 
-            // 计算时间间隔（秒）
-            long secondsBetween = java.time.Duration.between(
-                lastTranscript.getTimestamp(),
-                timestamp
-            ).getSeconds();
+    /**
+     * 保存补转录的迟到音频段：按音频的时间戳单独成一条，不与其他转录合并，也不作为后续合并的对象
+     */
+    public Transcript saveLateTranscript(Long meetingId, String content, LocalDateTime timestamp, Long speakerId) {
+        return saveTimer.record(() -> doSaveTranscript(meetingId, content, timestamp, speakerId, false));
+    }
 
-            // 如果间隔小于2秒，则合并（说话人识别在后续步骤处理）
-            // 目前简化处理：只要时间间隔短就合并
-            if (secondsBetween < 2) {
-                // 合并到上一条记录
-                String mergedContent = lastTranscript.getContent() + " " + content;
-                lastTranscript.setContent(mergedContent);
-                Transcript updated = transcriptRepository.save(lastTranscript);
-                log.info("Merged transcript into {} for meeting {} (interval: {}s)",
-                    updated.getId(), meetingId, secondsBetween);
-                return updated;
+    private Transcript doSaveTranscript(Long meetingId, String content, LocalDateTime timestamp, Long speakerId,
+                                        boolean live) {
+        Transcript result = null;
+        while (result == null) {
+            MeetingTail tail = tails.computeIfAbsent(meetingId, this::loadTail);
+            synchronized (tail) {
+                // 尾部状态刚被清理，重新加载
+                if (tails.get(meetingId) != tail) {
+                    continue;
+                }
+                result = appendToTail(meetingId, tail, content, timestamp, speakerId, live);
             }
         }
 
+        // 达到批量阈值时提前写入
+        if (pendingCount.get() >= batchSize) {
+            flusher.execute(this::scheduledFlush);
+        }
+        return result;
+    }
+
+    /**
+     * @param live 实时转录；迟到的音频段为 false，不合并，也不改变最后一条
+     */
+    private Transcript appendToTail(Long meetingId, MeetingTail tail, String content, LocalDateTime timestamp,
+                                    Long speakerId, boolean live) {
+        tail.lastAccess = System.currentTimeMillis();
+        Set<Long> deleted = deletedSpeakers.get(meetingId);
+        if (speakerId != null && deleted != null && deleted.contains(speakerId)) {
+            speakerId = null;
+        }
+
+        // 智能合并：检查是否应该与最近一条转录合并
+        Transcript lastTranscript = tail.last;
+        long secondsBetween = live && lastTranscript != null
+            ? java.time.Duration.between(lastTranscript.getTimestamp(), timestamp).getSeconds()
+            : Long.MAX_VALUE;
+
+        // 在最后一条之后 2 秒内且说话人相同（或都未识别）时合并；时间戳更早的不合并
+        if (secondsBetween >= 0 && secondsBetween < 2 && Objects.equals(speakerIdOf(lastTranscript), speakerId)) {
+            // 合并到上一条记录
+            lastTranscript.setContent(lastTranscript.getContent() + " " + content);
+            markPending(meetingId, tail, lastTranscript, false);
+            log.info("Merged transcript into {} for meeting {} (interval: {}s)",
+                lastTranscript.getId(), meetingId, secondsBetween);
+            return lastTranscript;
+        }
+
         // 创建新的转录记录
         Transcript transcript = new Transcript();
-        transcript.setMeeting(meeting);
+        transcript.setId(nextId());
+        transcript.setMeeting(tail.meetingRef);
+        transcript.setSpeaker(speakerRef(speakerId));
         transcript.setContent(content);
         transcript.setTimestamp(timestamp);
+        transcript.setSequenceOrder(tail.allocateSequence());
+        transcript.setCreatedAt(LocalDateTime.now());
 
-        // 设置序列号
-        Integer currentCount = transcriptRepository.countByMeetingId(meetingId);
-        transcript.setSequenceOrder(currentCount != null ? currentCount + 1 : 1);
+        if (live) {
+            tail.last = transcript;
+        }
+        markPending(meetingId, tail, transcript, true);
+        log.info("Saved transcript {} for meeting {}", transcript.getId(), meetingId);
+        return transcript;
+    }
+
+    /**
+     * 立即写入该会议所有尚未写入的记录，读取或总结前调用
+     */
+    public void flush(Long meetingId) {
+        flushMeetings(List.of(meetingId));
+    }
 
-        Transcript saved = transcriptRepository.save(transcript);
-        log.info("Saved transcript {} for meeting {}", saved.getId(), meetingId);
-        return saved;
+    public void flushAll() {
+        flushMeetings(new ArrayList<>(dirtyMeetings));
+    }
+
+    /**
+     * 会议在内存中的最后一条转录的序号：之后的实时转录还可能合并进这一条，没有时返回 null
+     */
+    public Integer openTailSequence(Long meetingId) {
+        MeetingTail tail = tails.get(meetingId);
+        if (tail == null) {
+            return null;
+        }
+        synchronized (tail) {
+            return tail.last != null ? tail.last.getSequenceOrder() : null;
+        }
     }
 
-    @Transactional
-    public Transcript updateSpeaker(Long transcriptId, Long speakerId) {
-        Transcript transcript = transcriptRepository.findById(transcriptId)
-            .orElseThrow(() -> new RuntimeException("Transcript not found: " + transcriptId));
+    /**
+     * 登记一个已断开会话的收尾，完成后自动移除
+     */
+    public void trackSessionDrain(Long meetingId, CompletableFuture<?> drained) {
+        sessionDrains.compute(meetingId, (id, drains) -> {
+            Set<CompletableFuture<?>> set = drains != null ? drains : ConcurrentHashMap.newKeySet();
+            set.add(drained);
+            return set;
+        });
+        drained.whenComplete((result, error) -> sessionDrains.computeIfPresent(meetingId, (id, drains) -> {
+            drains.remove(drained);
+            return drains.isEmpty() ? null : drains;
+        }));
+    }
+
+    /**
+     * 等待会议已断开会话的收尾完成，最多等待 timeoutMs；返回是否全部完成
+     */
+    public boolean awaitSessionDrains(Long meetingId, long timeoutMs) {
+        Set<CompletableFuture<?>> drains = sessionDrains.get(meetingId);
+        if (drains == null || drains.isEmpty()) {
+            return true;
+        }
+        try {
+            CompletableFuture.allOf(drains.toArray(CompletableFuture[]::new)).get(timeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        }
+    }
+
+    /**
+     * 丢弃会议的内存状态和尚未写入的记录（会议被删除时）
+     */
+    public void discard(Long meetingId) {
+        MeetingTail tail = tails.remove(meetingId);
+        if (tail != null) {
+            synchronized (tail) {
+                pendingCount.addAndGet(-tail.pending.size());
+                tail.pending.clear();
+            }
+        }
+        dirtyMeetings.remove(meetingId);
+        deletedSpeakers.remove(meetingId);
+    }
+
+    /**
+     * 说话人即将被删除：内存中引用它的记录改为未识别，之后保存的转录也不再引用它
+     * 在删除说话人之前调用，随后 flush
+     */
+    public void forgetSpeaker(Long meetingId, Long speakerId) {
+        deletedSpeakers.computeIfAbsent(meetingId, id -> ConcurrentHashMap.newKeySet()).add(speakerId);
+        MeetingTail tail = tails.get(meetingId);
+        if (tail == null) {
+            return;
+        }
+        synchronized (tail) {
+            for (PendingRow row : tail.pending.values()) {
+                if (speakerId.equals(speakerIdOf(row.transcript()))) {
+                    row.transcript().setSpeaker(null);
+                }
+            }
+            if (tail.last != null && speakerId.equals(speakerIdOf(tail.last))) {
+                tail.last.setSpeaker(null);
+            }
+        }
+    }
+
+    /**
+     * 手动修改一条转录的说话人（speakerId 为 null 时清除）
+     * 先写入尚在内存中的记录；内存中的最后一条同步修改，之后合并进来的内容沿用新的说话人
+     */
+    public Transcript updateSpeaker(Long meetingId, Long transcriptId, Long speakerId) {
+        flush(meetingId);
+        Transcript transcript = transactionTemplate.execute(status -> {
+            Transcript row = transcriptRepository.findById(transcriptId)
+                .filter(t -> t.getMeeting().getId().equals(meetingId))
+                .orElseThrow(() -> new RuntimeException("Transcript not found: " + transcriptId));
+            if (speakerId != null) {
+                Speaker speaker = speakerRepository.findById(speakerId)
+                    .orElseThrow(() -> new RuntimeException("Speaker not found: " + speakerId));
+                if (!speaker.getMeeting().getId().equals(meetingId)) {
+                    throw new RuntimeException("说话人不属于该会议: " + speakerId);
+                }
+                row.setSpeaker(speaker);
+            } else {
+                row.setSpeaker(null);
+            }
+            return transcriptRepository.save(row);
+        });
+
+        MeetingTail tail = tails.get(meetingId);
+        if (tail != null) {
+            synchronized (tail) {
+                if (tail.last != null && tail.last.getId().equals(transcriptId)) {
+                    tail.last.setSpeaker(speakerRef(speakerId));
+                }
+            }
+        }
+        log.info("Updated speaker for transcript {} to {}", transcriptId, speakerId);
+        return transcript;
+    }
+
+    /**
+     * 游标分页：返回序号大于 after 的最多 limit 条
+     * 多取一条判断是否还有下一页
+     */
+    public TranscriptPage getTranscriptPage(Long meetingId, int after, int limit) {
+        flush(meetingId);
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        List<TranscriptView> rows = viewRepository.findPage(meetingId, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<TranscriptView> items = hasMore ? rows.subList(0, pageSize) : rows;
+        int nextAfter = items.isEmpty() ? after : items.get(items.size() - 1).sequenceOrder();
+        return new TranscriptPage(items, nextAfter, hasMore);
+    }
+
+    /**
+     * 逐条回调序号大于 after 的全部转录
+     * 按游标分页读取，每页是一次独立的短查询，回调（写给客户端）期间不占用数据库连接
+     */
+    public void streamTranscripts(Long meetingId, int after, Consumer<TranscriptView> consumer) {
+        flush(meetingId);
+        int cursor = after;
+        while (true) {
+            List<TranscriptView> page = viewRepository.findPage(meetingId, cursor, streamPageSize);
+            page.forEach(consumer);
+            if (page.size() < streamPageSize) {
+                return;
+            }
+            cursor = page.get(page.size() - 1).sequenceOrder();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAll();
+    }
+
+    /**
+     * 首次写入某个会议时加载尾部状态
+     */
+    private MeetingTail loadTail(Long meetingId) {
+        if (!meetingRepository.existsById(meetingId)) {
+            throw new RuntimeException("Meeting not found: " + meetingId);
+        }
+        Meeting meetingRef = new Meeting();
+        meetingRef.setId(meetingId);
+
+        // 只取最后一条；序号接在最大序号之后（按条数计算在记录被删除后会重复）
+        Transcript last = transcriptRepository.findFirstByMeetingIdOrderBySequenceOrderDesc(meetingId)
+            .map(t -> copyOf(t, meetingRef))
+            .orElse(null);
+        return new MeetingTail(meetingRef, last, last != null ? last.getSequenceOrder() : 0);
+    }
+
+    private void markPending(Long meetingId, MeetingTail tail, Transcript transcript, boolean insert) {
+        PendingRow previous = tail.pending.get(transcript.getId());
+        if (previous == null) {
+            pendingCount.incrementAndGet();
+        }
+        // 尚未写入的新记录再次合并时仍然是新增
+        tail.pending.put(transcript.getId(),
+            new PendingRow(transcript, insert || (previous != null && previous.insert()),
+                previous != null ? previous.attempts() : 0));
+        dirtyMeetings.add(meetingId);
+    }
+
+    private Long nextId() {
+        synchronized (idBlock) {
+            if (idBlock.isEmpty()) {
+                idBlock.addAll(batchRepository.allocateIds(ID_BLOCK_SIZE));
+            }
+            return idBlock.poll();
+        }
+    }
+
+    private void scheduledFlush() {
+        try {
+            flushAll();
+            evictIdleTails();
+        } catch (Exception e) {
+            log.error("Failed to flush transcripts, will retry", e);
+        }
+    }
+
+    /**
+     * 每个会议单独一个事务写入，一个会议写入失败不影响其他会议；全部处理后抛出第一个失败
+     */
+    private void flushMeetings(Collection<Long> meetingIds) {
+        RuntimeException failure = null;
+        for (Long meetingId : meetingIds) {
+            try {
+                flushMeeting(meetingId);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void flushMeeting(Long meetingId) {
+        synchronized (flushLock) {
+            dirtyMeetings.remove(meetingId);
+            MeetingTail tail = tails.get(meetingId);
+            if (tail == null) {
+                return;
+            }
+            List<PendingRow> rows;
+            List<Transcript> snapshots = new ArrayList<>();
+            synchronized (tail) {
+                if (tail.pending.isEmpty()) {
+                    return;
+                }
+                rows = new ArrayList<>(tail.pending.values());
+                for (PendingRow row : rows) {
+                    // 拷贝当前内容，写入期间的合并留到下一批
+                    snapshots.add(copyOf(row.transcript(), tail.meetingRef));
+                }
+                pendingCount.addAndGet(-rows.size());
+                tail.pending.clear();
+            }
+
+            List<Transcript> inserts = new ArrayList<>();
+            List<Transcript> updates = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                (rows.get(i).insert() ? inserts : updates).add(snapshots.get(i));
+            }
+            try {
+                write(inserts, updates);
+                log.debug("Flushed transcripts for meeting {}: {} inserted, {} updated",
+                    meetingId, inserts.size(), updates.size());
+            } catch (TransientDataAccessException | RecoverableDataAccessException e) {
+                // 数据库暂时不可用：整体放回，稍后重试
+                requeue(meetingId, rows);
+                throw e;
+            } catch (DataAccessException e) {
+                log.warn("Batch write failed for meeting {}, retrying row by row: {}", meetingId, e.getMessage());
+                flushRowByRow(meetingId, rows, snapshots);
+            } catch (RuntimeException e) {
+                requeue(meetingId, rows);
+                throw e;
+            }
+        }
+    }
+
+    private void write(List<Transcript> inserts, List<Transcript> updates) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!inserts.isEmpty()) {
+                batchRepository.batchInsert(inserts);
+            }
+            if (!updates.isEmpty()) {
+                batchRepository.batchUpdateContent(updates);
+            }
+        });
+    }
+
+    /**
+     * 批量写入出现非暂时性错误（如外键约束）时逐条写入，找出有问题的记录；
+     * 会议已不存在时直接丢弃其内存状态，单条记录失败达到 max-attempts 次后丢弃并计数
+     */
+    private void flushRowByRow(Long meetingId, List<PendingRow> rows, List<Transcript> snapshots) {
+        if (!meetingRepository.existsById(meetingId)) {
+            log.warn("Meeting {} no longer exists, dropping {} unsaved transcripts", meetingId, rows.size());
+            deadLetterCounter.increment(rows.size());
+            discard(meetingId);
+            return;
+        }
+        List<PendingRow> retry = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            PendingRow row = rows.get(i);
+            Transcript snapshot = snapshots.get(i);
+            try {
+                write(row.insert() ? List.of(snapshot) : List.of(), row.insert() ? List.of() : List.of(snapshot));
+            } catch (TransientDataAccessException | RecoverableDataAccessException e) {
+                retry.add(row);
+            } catch (DataAccessException e) {
+                if (row.attempts() + 1 >= maxWriteAttempts) {
+                    deadLetterCounter.increment();
+                    log.error("Dropping transcript {} of meeting {} after {} failed writes: {}",
+                        snapshot.getId(), meetingId, row.attempts() + 1, e.getMessage());
+                } else {
+                    retry.add(new PendingRow(row.transcript(), row.insert(), row.attempts() + 1));
+                }
+            }
+        }
+        if (!retry.isEmpty()) {
+            requeue(meetingId, retry);
+        }
+    }
+
+    /**
+     * 写入失败的记录放回待写入队列，期间又有更新的记录以较新的内容为准
+     */
+    private void requeue(Long meetingId, List<PendingRow> rows) {
+        MeetingTail tail = tails.get(meetingId);
+        if (tail == null) {
+            // 会议已被删除
+            return;
+        }
+        synchronized (tail) {
+            for (PendingRow row : rows) {
+                PendingRow newer = tail.pending.get(row.transcript().getId());
+                if (newer == null) {
+                    pendingCount.incrementAndGet();
+                    tail.pending.put(row.transcript().getId(), row);
+                } else {
+                    tail.pending.put(row.transcript().getId(), new PendingRow(newer.transcript(),
+                        newer.insert() || row.insert(), Math.max(newer.attempts(), row.attempts())));
+                }
+            }
+        }
+        dirtyMeetings.add(meetingId);
+    }
+
+    private void evictIdleTails() {
+        long now = System.currentTimeMillis();
+        tails.forEach((meetingId, tail) -> {
+            synchronized (tail) {
+                if (tail.pending.isEmpty() && now - tail.lastAccess > TAIL_IDLE_EVICT_MS) {
+                    tails.remove(meetingId, tail);
+                }
+            }
+        });
+    }
+
+    private static Speaker speakerRef(Long speakerId) {
+        if (speakerId == null) {
+            return null;
+        }
+        Speaker speaker = new Speaker();
+        speaker.setId(speakerId);
+        return speaker;
+    }
 
-        // Speaker会在SpeakerService中处理
-        log.info("Updated speaker for transcript {}", transcriptId);
-        return transcriptRepository.save(transcript);
+    private static Long speakerIdOf(Transcript transcript) {
+        return transcript.getSpeaker() != null ? transcript.getSpeaker().getId() : null;
     }
 
-    public List<Transcript> getTranscriptsByMeeting(Long meetingId) {
-        return transcriptRepository.findByMeetingIdOrderBySequenceOrderAsc(meetingId);
+    private static Transcript copyOf(Transcript source, Meeting meetingRef) {
+        Transcript copy = new Transcript();
+        copy.setId(source.getId());
+        copy.setMeeting(meetingRef);
+        copy.setSpeaker(source.getSpeaker());
+        copy.setContent(source.getContent());
+        copy.setTimestamp(source.getTimestamp());
+        copy.setSequenceOrder(source.getSequenceOrder());
+        copy.setConfidence(source.getConfidence());
+        copy.setCreatedAt(source.getCreatedAt());
+        return copy;
     }
 }
@@ -2,6 +2,10 @@ package com.meeting.assistant.util;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * 音频处理工具类
@@ -50,6 +54,19 @@ public class AudioUtils {
         }
     }
 
+    /**
+     * 将缓冲区中 position 到 limit 之间的数据写入输出流，不修改原缓冲区的 position
+     * 不关闭输出流
+     */
+    public static void writeTo(ByteBuffer data, OutputStream out) throws IOException {
+        ByteBuffer view = data.duplicate();
+        WritableByteChannel channel = Channels.newChannel(out);
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+        out.flush();
+    }
+
     /**
      * 将 int 转换为小端字节数组（4 字节）
      */
@@ -0,0 +1,115 @@
+package com.meeting.assistant.websocket;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 音频二进制帧头（协议 v1，大端序）
+ * <pre>
+ *  0  magic        'M' 'A'
+ *  2  version      u8  = 1
+ *  3  codec        u8  0 = PCM 16-bit LE，1 = Opus（见 {@link com.meeting.assistant.audio.AudioCodec}）
+ *  4  flags        u8  保留
+ *  5  channels     u8
+ *  6  headerLength u16 负载起始位置，新版本可在 24 字节之后追加字段
+ *  8  sequence     u32 会话内递增
+ * 12  sampleRate   u32
+ * 16  captureTime  i64 采集时间（毫秒时间戳）
+ * 24  payload
+ * </pre>
+ * 只解析帧头，负载由调用方直接从消息缓冲区（或后续分片）读取，不做拷贝
+ */
+public final class AudioFrame {
+
+    public static final int VERSION = 1;
+    public static final int HEADER_LENGTH = 24;
+
+    private static final byte MAGIC_0 = 'M';
+    private static final byte MAGIC_1 = 'A';
+
+    private final int codec;
+    private final int flags;
+    private final int channels;
+    private final int headerLength;
+    private final long sequence;
+    private final int sampleRate;
+    private final long captureTimestamp;
+
+    private AudioFrame(int codec, int flags, int channels, int headerLength, long sequence, int sampleRate,
+                       long captureTimestamp) {
+        this.codec = codec;
+        this.flags = flags;
+        this.channels = channels;
+        this.headerLength = headerLength;
+        this.sequence = sequence;
+        this.sampleRate = sampleRate;
+        this.captureTimestamp = captureTimestamp;
+    }
+
+    /**
+     * position 处是否是 v1 帧头；否则按旧协议当作裸 PCM 处理
+     */
+    public static boolean isFrameHeader(ByteBuffer buffer) {
+        int p = buffer.position();
+        return buffer.remaining() >= HEADER_LENGTH &&
+            buffer.get(p) == MAGIC_0 &&
+            buffer.get(p + 1) == MAGIC_1 &&
+            buffer.get(p + 2) == VERSION &&
+            headerLength(buffer, p) >= HEADER_LENGTH;
+    }
+
+    /**
+     * 解析 position 处的帧头，不改变 position
+     */
+    public static AudioFrame parseHeader(ByteBuffer buffer) {
+        if (!isFrameHeader(buffer)) {
+            throw new RuntimeException("无效的音频帧头");
+        }
+        int p = buffer.position();
+        ByteBuffer header = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        return new AudioFrame(
+            header.get(p + 3) & 0xFF,
+            header.get(p + 4) & 0xFF,
+            header.get(p + 5) & 0xFF,
+            headerLength(buffer, p),
+            header.getInt(p + 8) & 0xFFFFFFFFL,
+            header.getInt(p + 12),
+            header.getLong(p + 16)
+        );
+    }
+
+    private static int headerLength(ByteBuffer buffer, int p) {
+        return ((buffer.get(p + 6) & 0xFF) << 8) | (buffer.get(p + 7) & 0xFF);
+    }
+
+    public int getCodec() {
+        return codec;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * 帧头总长度，负载从该位置开始
+     */
+    public int getHeaderLength() {
+        return headerLength;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public long getCaptureTimestamp() {
+        return captureTimestamp;
+    }
+}
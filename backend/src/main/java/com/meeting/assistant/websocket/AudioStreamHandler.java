@@ -2,21 +2,47 @@ package com.meeting.assistant.websocket;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.meeting.assistant.ai.AIService;
+import com.meeting.assistant.ai.CircuitOpenException;
+import com.meeting.assistant.ai.Deadline;
+import com.meeting.assistant.ai.DeadlineExceededException;
+import com.meeting.assistant.ai.ParaformerStreamingClient;
+import com.meeting.assistant.ai.ReactiveAIService;
+import com.meeting.assistant.ai.StreamingAsrListener;
+import com.meeting.assistant.ai.StreamingAsrSession;
+import com.meeting.assistant.audio.AudioCodec;
+import com.meeting.assistant.audio.AudioDecoder;
+import com.meeting.assistant.audio.AudioDecoderFactory;
+import com.meeting.assistant.audio.PcmBufferPool;
+import com.meeting.assistant.audio.PcmRingBuffer;
+import com.meeting.assistant.audio.PcmSegment;
+import com.meeting.assistant.audio.SpeechSegmenter;
+import com.meeting.assistant.audio.SpeechSegmenterFactory;
 import com.meeting.assistant.entity.Meeting;
 import com.meeting.assistant.entity.Transcript;
+import com.meeting.assistant.service.CatchUpTranscriber;
+import com.meeting.assistant.service.DiarizationService;
+import com.meeting.assistant.service.MeetingHeartbeatService;
 import com.meeting.assistant.service.MeetingService;
+import com.meeting.assistant.service.RollingSummaryService;
+import com.meeting.assistant.service.TranscriptionScheduler;
 import com.meeting.assistant.service.TranscriptionService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import reactor.core.publisher.Mono;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
@@ -24,65 +50,176 @@ import java.util.concurrent.ConcurrentHashMap;
 public class AudioStreamHandler extends BinaryWebSocketHandler {
 
     private final AIService aiService;
+    private final ReactiveAIService reactiveAIService;
     private final TranscriptionService transcriptionService;
     private final MeetingService meetingService;
+    private final MeetingHeartbeatService heartbeatService;
+    private final MeetingEventPublisher eventPublisher;
+    private final RollingSummaryService rollingSummaryService;
     private final ObjectMapper objectMapper;
+    private final PcmBufferPool bufferPool;
+    private final TranscriptionScheduler transcriptionScheduler;
+    private final SpeechSegmenterFactory segmenterFactory;
+    private final AudioDecoderFactory decoderFactory;
+    private final boolean reactiveTranscription;
+    private final ParaformerStreamingClient streamingClient;
+    private final CatchUpTranscriber catchUpTranscriber;
+    private final DiarizationService diarizationService;
+    private final double deadlineFactor;
+    private final long deadlineMinMs;
+    private final boolean streamingEnabled;
+    private final int streamingFrameBytes;
+    private final boolean partialResults;
+    private final boolean partialMessages;
     private final Map<String, Long> sessionMeetingMap = new ConcurrentHashMap<>();
 
+    // 推送：转录通道和流式识别回调可能并发发送，统一经过并发安全的装饰器
+    private final Map<String, WebSocketSession> sessionSenders = new ConcurrentHashMap<>();
+
+    // 流式识别：每个session一条到 Paraformer 流式服务的连接
+    private final Map<String, StreamingAsrSession> sessionStreams = new ConcurrentHashMap<>();
+
+    // 音频帧序号：每个session最近收到的序号，用于发现丢帧和乱序
+    private final Map<String, Long> sessionFrameSequences = new ConcurrentHashMap<>();
+
+    // 分片接收：每个session正在接收的二进制消息和未完成的文本消息
+    private final Map<String, InboundMessage> sessionInbound = new ConcurrentHashMap<>();
+    private final Map<String, StringBuilder> sessionTextFragments = new ConcurrentHashMap<>();
+
+    // 协商的上行编码：每个session一个，收到其他编码的音频时断开连接
+    private final Map<String, AudioCodec> sessionCodecs = new ConcurrentHashMap<>();
+
+    // 压缩音频解码器：每个session一个，跨帧复用
+    private final Map<String, AudioDecoder> sessionDecoders = new ConcurrentHashMap<>();
+
     // 音频缓冲：每个session一个缓冲区
     private final Map<String, AudioBuffer> sessionAudioBuffers = new ConcurrentHashMap<>();
 
     // 转录结果合并：每个session一个文本缓冲区
     private final Map<String, TranscriptBuffer> sessionTranscriptBuffers = new ConcurrentHashMap<>();
 
+    // 音频格式：16kHz, 16bit, mono
+    private static final int SAMPLE_RATE = 16000;
+
     // 缓冲配置（优化为更长的缓冲，确保完整句子）
     private static final int BUFFER_SIZE_BYTES = 80000; // 约5秒的音频（16kHz, 16bit, mono）
     private static final long BUFFER_TIMEOUT_MS = 4000; // 4秒超时（让 Android 发送 2.5 秒后有缓冲）
 
+    // 流式识别的最终结果走独立的串行通道，不被音频发送阻塞
+    private static final String STREAM_RESULT_LANE_SUFFIX = "#asr";
+
     // 转录文本合并配置
     private static final long TRANSCRIPT_MERGE_TIMEOUT_MS = 5000; // 5秒内的转录结果会合并（允许发言人停顿思考）
 
-    // 音频缓冲类
+    // 二进制消息的接收状态：等待帧头、PCM 负载、压缩负载、忽略
+    private enum InboundMode { HEADER, PCM, COMPRESSED, SKIP }
+
+    // 每个session正在接收的二进制消息（分片接收时跨多次回调）
+    private static class InboundMessage {
+        private final ByteBuffer header = ByteBuffer.allocate(AudioFrame.HEADER_LENGTH);
+        private ByteBuffer compressed = ByteBuffer.allocate(4096);
+        private InboundMode mode = InboundMode.HEADER;
+        private AudioFrame frame;
+        private AudioCodec codec;
+        private int skip;
+
+        void appendCompressed(ByteBuffer chunk) {
+            if (compressed.remaining() < chunk.remaining()) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(compressed.capacity() * 2,
+                    compressed.position() + chunk.remaining()));
+                compressed.flip();
+                grown.put(compressed);
+                compressed = grown;
+            }
+            compressed.put(chunk);
+        }
+
+        void reset() {
+            header.clear();
+            compressed.clear();
+            mode = InboundMode.HEADER;
+            frame = null;
+            codec = null;
+            skip = 0;
+        }
+    }
+
+    // 音频缓冲类：包装从缓冲池借出的环形缓冲区，flush 时交出只读切片
+    // 启用 VAD 时静音不进入缓冲区，在语音结束处切分，而不是按固定大小和超时
     private static class AudioBuffer {
-        private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(AudioBuffer.class);
-        private final java.io.ByteArrayOutputStream buffer = new java.io.ByteArrayOutputStream();
+        private final PcmRingBuffer ring;
+        private final int flushBytes;
+        private final SpeechSegmenter segmenter;
         private long lastFlushTime = System.currentTimeMillis();
+        private boolean speechEnded;
 
-        public synchronized void append(byte[] data) {
-            try {
-                buffer.write(data);
-            } catch (Exception e) {
-                log.error("Error appending to buffer", e);
+        AudioBuffer(PcmRingBuffer ring, int flushBytes, SpeechSegmenter segmenter) {
+            this.ring = ring;
+            this.flushBytes = segmenter != null ? Math.min(flushBytes, ring.capacity()) : flushBytes;
+            this.segmenter = segmenter;
+        }
+
+        public synchronized boolean append(ByteBuffer data) {
+            if (segmenter == null) {
+                return ring.append(data);
             }
+            long dropped = ring.droppedBytes();
+            segmenter.accept(data, ring);
+            speechEnded |= segmenter.takeSpeechEnded();
+            return ring.droppedBytes() == dropped;
         }
 
-        public synchronized byte[] getAndClear() {
-            byte[] data = buffer.toByteArray();
-            buffer.reset();
+        /**
+         * 自上次 flush 以来是否到达语音结束边界，调用后清除
+         */
+        public synchronized boolean takeSpeechEnded() {
+            boolean ended = speechEnded;
+            speechEnded = false;
+            return ended;
+        }
+
+        public synchronized PcmSegment flush() {
             lastFlushTime = System.currentTimeMillis();
-            return data;
+            return ring.flush();
         }
 
         public synchronized boolean shouldFlush() {
-            return buffer.size() >= BUFFER_SIZE_BYTES ||
+            if (segmenter != null) {
+                return speechEnded || ring.pendingBytes() >= flushBytes;
+            }
+            return ring.pendingBytes() >= flushBytes ||
                    (System.currentTimeMillis() - lastFlushTime) > BUFFER_TIMEOUT_MS;
         }
 
-        public synchronized int size() {
-            return buffer.size();
+        public int size() {
+            return ring.pendingBytes();
+        }
+
+        public SpeechSegmenter getSegmenter() {
+            return segmenter;
+        }
+
+        public void release() {
+            ring.close();
         }
     }
 
-    // 转录文本合并缓冲类
+    // 转录文本合并缓冲类：每次刷新对应一个语句段，段号用于把 partial 与最终 transcript 对应起来
+    // 说话人取该语句段中第一个识别出的说话人
     private static class TranscriptBuffer {
         private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(TranscriptBuffer.class);
         private final StringBuilder textBuffer = new StringBuilder();
         private long lastUpdateTime = System.currentTimeMillis();
+        private long segmentId = 1;
+        private Long speakerId;
 
-        public synchronized void append(String text) {
+        public synchronized void append(String text, Long speakerId) {
             if (text != null && !text.trim().isEmpty()) {
                 textBuffer.append(text);
                 lastUpdateTime = System.currentTimeMillis();
+                if (this.speakerId == null) {
+                    this.speakerId = speakerId;
+                }
             }
         }
 
@@ -90,9 +227,31 @@ public class AudioStreamHandler extends BinaryWebSocketHandler {
             String text = textBuffer.toString().trim();
             textBuffer.setLength(0);
             lastUpdateTime = System.currentTimeMillis();
+            segmentId++;
+            speakerId = null;
             return text;
         }
 
+        public synchronized Long getSpeakerId() {
+            return speakerId;
+        }
+
+        /**
+         * 缓冲区中已有其他说话人的内容
+         */
+        public synchronized boolean speakerChanged(Long speakerId) {
+            return speakerId != null && this.speakerId != null && !speakerId.equals(this.speakerId)
+                && !textBuffer.toString().trim().isEmpty();
+        }
+
+        public synchronized String peek() {
+            return textBuffer.toString().trim();
+        }
+
+        public synchronized long getSegmentId() {
+            return segmentId;
+        }
+
         public synchronized boolean shouldFlush() {
             String currentText = textBuffer.toString().trim();
             if (currentText.isEmpty()) {
@@ -123,13 +282,73 @@ public class AudioStreamHandler extends BinaryWebSocketHandler {
     }
 
     public AudioStreamHandler(AIService aiService,
+                            ReactiveAIService reactiveAIService,
                             TranscriptionService transcriptionService,
                             MeetingService meetingService,
-                            ObjectMapper objectMapper) {
+                            MeetingHeartbeatService heartbeatService,
+                            MeetingEventPublisher eventPublisher,
+                            RollingSummaryService rollingSummaryService,
+                            ObjectMapper objectMapper,
+                            PcmBufferPool bufferPool,
+                            TranscriptionScheduler transcriptionScheduler,
+                            SpeechSegmenterFactory segmenterFactory,
+                            AudioDecoderFactory decoderFactory,
+                            ParaformerStreamingClient streamingClient,
+                            CatchUpTranscriber catchUpTranscriber,
+                            DiarizationService diarizationService,
+                            @Value("${meeting.transcription.mode:blocking}") String transcriptionMode,
+                            @Value("${meeting.transcription.deadline-factor:2.0}") double deadlineFactor,
+                            @Value("${meeting.transcription.deadline-min-ms:3000}") long deadlineMinMs,
+                            @Value("${paraformer.streaming.enabled:false}") boolean streamingEnabled,
+                            @Value("${paraformer.streaming.frame-ms:600}") int streamingFrameMs,
+                            @Value("${meeting.transcription.partial-results:true}") boolean partialResults,
+                            @Value("${meeting.websocket.partial-messages:true}") boolean partialMessages) {
         this.aiService = aiService;
+        this.reactiveAIService = reactiveAIService;
         this.transcriptionService = transcriptionService;
         this.meetingService = meetingService;
+        this.heartbeatService = heartbeatService;
+        this.eventPublisher = eventPublisher;
+        this.rollingSummaryService = rollingSummaryService;
         this.objectMapper = objectMapper;
+        this.bufferPool = bufferPool;
+        this.transcriptionScheduler = transcriptionScheduler;
+        this.segmenterFactory = segmenterFactory;
+        this.decoderFactory = decoderFactory;
+        this.reactiveTranscription = "reactive".equalsIgnoreCase(transcriptionMode.trim());
+        this.streamingClient = streamingClient;
+        this.catchUpTranscriber = catchUpTranscriber;
+        this.diarizationService = diarizationService;
+        this.deadlineFactor = deadlineFactor;
+        this.deadlineMinMs = deadlineMinMs;
+        this.streamingEnabled = streamingEnabled;
+        // 16kHz, 16bit, mono：每毫秒 32 字节
+        this.streamingFrameBytes = streamingFrameMs * 32;
+        this.partialResults = partialResults;
+        this.partialMessages = partialMessages;
+        if (!streamingEnabled) {
+            checkRingCapacity();
+        }
+        if (streamingEnabled) {
+            log.info("Using Paraformer realtime streaming, frame size: {} ms", streamingFrameMs);
+        } else if (reactiveTranscription) {
+            log.info("Using non-blocking transcription: {}", reactiveAIService.getModelName());
+        }
+    }
+
+    /**
+     * 音频段是环形缓冲区的切片，转录完才释放：缓冲区要同时容纳通道中排队的音频段、正在转录的一段
+     * 和正在接收的一段，否则积压时持续说话的音频会被丢弃。配置不匹配时启动失败
+     */
+    private void checkRingCapacity() {
+        int segmentBytes = segmenterFactory.isEnabled() ? segmenterFactory.getMaxSegmentBytes() : BUFFER_SIZE_BYTES;
+        long required = (long) (transcriptionScheduler.getLaneCapacity() + 2) * segmentBytes;
+        if (required > bufferPool.getBufferCapacity()) {
+            throw new RuntimeException(String.format(
+                "meeting.audio.ring-buffer-bytes (%d) 至少需要 (lane-capacity + 2) × 最大音频段 = %d 字节，"
+                    + "请增大 ring-buffer-bytes 或减小 meeting.vad.max-segment-ms / meeting.transcription.lane-capacity",
+                bufferPool.getBufferCapacity(), required));
+        }
     }
 
     @Override
@@ -149,33 +368,238 @@ public class AudioStreamHandler extends BinaryWebSocketHandler {
         }
 
         sessionMeetingMap.put(session.getId(), meetingId);
+        heartbeatService.beat(meetingId);
+        WebSocketSession sender = new ConcurrentWebSocketSessionDecorator(session, 5000, 512 * 1024);
+        sessionSenders.put(session.getId(), sender);
+        eventPublisher.register(meetingId, sender);
+        rollingSummaryService.track(meetingId);
         log.info("Session {} associated with meeting {}", session.getId(), meetingId);
 
+        // 打开流式识别连接，失败时该会话退回按音频段转录
+        if (streamingEnabled) {
+            try {
+                sessionStreams.put(session.getId(), streamingClient.open(meetingId, streamingListener(session, meetingId)));
+            } catch (Exception e) {
+                log.warn("Streaming ASR unavailable for session {}, falling back to segment transcription: {}",
+                    session.getId(), e.getMessage());
+            }
+        }
+
+        // 协商上行编码：客户端通过 codecs 参数按偏好列出，未声明时使用 PCM
+        AudioCodec codec = decoderFactory.negotiate(getQueryParam(session, "codecs"));
+        sessionCodecs.put(session.getId(), codec);
+        log.info("Session {} negotiated uplink codec: {}", session.getId(), codec.getCodecName());
+
         // 发送确认消息
         Map<String, Object> response = Map.of(
             "type", "connected",
             "meetingId", meetingId,
+            "audioProtocol", AudioFrame.VERSION,
+            "codec", codec.getCodecName(),
+            "codecs", decoderFactory.getEnabledCodecs().stream().map(AudioCodec::getCodecName).toList(),
             "message", "WebSocket连接成功"
         );
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
+        sendJson(session, response);
+    }
+
+    @Override
+    public boolean supportsPartialMessages() {
+        return partialMessages;
     }
 
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) {
-        // 接收base64编码的音频数据
+        // 兼容旧客户端：接收base64编码的音频数据，分片时拼接完整后再解码
         String base64Audio = message.getPayload();
+        if (!message.isLast()) {
+            sessionTextFragments.computeIfAbsent(session.getId(), k -> new StringBuilder()).append(base64Audio);
+            return;
+        }
+        StringBuilder fragments = sessionTextFragments.remove(session.getId());
+        if (fragments != null) {
+            base64Audio = fragments.append(base64Audio).toString();
+        }
+        // base64 文本消息只能携带 PCM
+        if (negotiatedCodec(session) != AudioCodec.PCM16) {
+            rejectCodec(session, AudioCodec.PCM16.getCodecName());
+            return;
+        }
         byte[] audioData = java.util.Base64.getDecoder().decode(base64Audio);
 
-        processAudioData(session, audioData);
+        processAudioData(session, ByteBuffer.wrap(audioData));
     }
 
+    /**
+     * 接收二进制音频消息
+     * 开启分片接收时，一条消息可能分多次到达：帧头从第一个分片解析，PCM 负载的每个分片直接追加到会话缓冲区，
+     * 压缩负载拼接完整后解码。容器给出的缓冲区（可能是池化的直接内存）只在本次调用内读取，不保留引用
+     */
     @Override
     protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
-        byte[] audioData = message.getPayload().array();
-        processAudioData(session, audioData);
+        ByteBuffer chunk = message.getPayload();
+        InboundMessage inbound = sessionInbound.computeIfAbsent(session.getId(), k -> new InboundMessage());
+
+        if (inbound.mode == InboundMode.HEADER && !readHeader(session, inbound, chunk, message.isLast())) {
+            return;
+        }
+
+        // 跳过帧头中当前版本不认识的扩展字段
+        if (inbound.skip > 0) {
+            int n = Math.min(inbound.skip, chunk.remaining());
+            chunk.position(chunk.position() + n);
+            inbound.skip -= n;
+        }
+
+        switch (inbound.mode) {
+            case PCM -> {
+                if (chunk.hasRemaining()) {
+                    processAudioData(session, chunk);
+                }
+            }
+            case COMPRESSED -> {
+                inbound.appendCompressed(chunk);
+                if (message.isLast()) {
+                    decodeCompressed(session, inbound);
+                }
+            }
+            default -> {
+                // 被拒绝的帧：忽略剩余分片
+            }
+        }
+
+        if (message.isLast()) {
+            inbound.reset();
+        }
+    }
+
+    /**
+     * 读取消息开头的帧头，帧头跨分片时先暂存
+     * @return 帧头已处理完，可以继续读取负载
+     */
+    private boolean readHeader(WebSocketSession session, InboundMessage inbound, ByteBuffer chunk, boolean last) {
+        ByteBuffer view;
+        if (inbound.header.position() == 0 && (chunk.remaining() >= AudioFrame.HEADER_LENGTH || last)) {
+            // 帧头完整地在当前分片中，直接读取
+            view = chunk;
+        } else {
+            int n = Math.min(inbound.header.remaining(), chunk.remaining());
+            inbound.header.put(inbound.header.position(), chunk, chunk.position(), n);
+            inbound.header.position(inbound.header.position() + n);
+            chunk.position(chunk.position() + n);
+            if (inbound.header.hasRemaining() && !last) {
+                return false;
+            }
+            view = inbound.header.flip();
+        }
+
+        if (!AudioFrame.isFrameHeader(view)) {
+            // 兼容旧客户端：不带帧头的裸 PCM，暂存的字节也是音频
+            if (negotiatedCodec(session) != AudioCodec.PCM16) {
+                rejectCodec(session, AudioCodec.PCM16.getCodecName());
+                inbound.mode = InboundMode.SKIP;
+                inbound.header.clear();
+                return true;
+            }
+            inbound.mode = InboundMode.PCM;
+            if (view == inbound.header) {
+                processAudioData(session, inbound.header);
+            }
+            inbound.header.clear();
+            return true;
+        }
+
+        AudioFrame frame = AudioFrame.parseHeader(view);
+        view.position(view.position() + AudioFrame.HEADER_LENGTH);
+        inbound.header.clear();
+        inbound.skip = frame.getHeaderLength() - AudioFrame.HEADER_LENGTH;
+        inbound.frame = frame;
+        inbound.codec = AudioCodec.fromId(frame.getCodec());
+        inbound.mode = acceptFrame(session, frame, inbound.codec);
+        return true;
+    }
+
+    /**
+     * 校验帧格式和序号，决定负载的处理方式
+     */
+    private InboundMode acceptFrame(WebSocketSession session, AudioFrame frame, AudioCodec codec) {
+        if (codec == null || !decoderFactory.isEnabled(codec) || frame.getSampleRate() != SAMPLE_RATE
+                || frame.getChannels() != 1) {
+            log.warn("Unsupported audio format from session {}: codec {}, {} Hz, {} channels",
+                session.getId(), frame.getCodec(), frame.getSampleRate(), frame.getChannels());
+            sendJson(session, Map.of("type", "error", "message", "不支持的音频格式"));
+            return InboundMode.SKIP;
+        }
+        if (codec != negotiatedCodec(session)) {
+            rejectCodec(session, codec.getCodecName());
+            return InboundMode.SKIP;
+        }
+        if (!acceptSequence(session, frame.getSequence())) {
+            return InboundMode.SKIP;
+        }
+        log.debug("Audio frame {} from session {}, codec {}, captured at {}",
+            frame.getSequence(), session.getId(), codec.getCodecName(), frame.getCaptureTimestamp());
+        return codec == AudioCodec.PCM16 ? InboundMode.PCM : InboundMode.COMPRESSED;
+    }
+
+    private AudioCodec negotiatedCodec(WebSocketSession session) {
+        return sessionCodecs.getOrDefault(session.getId(), AudioCodec.PCM16);
+    }
+
+    /**
+     * 音频编码与连接时协商的不一致：通知客户端并断开连接，客户端需要按协商结果重新连接
+     */
+    private void rejectCodec(WebSocketSession session, String codecName) {
+        if (!session.isOpen()) {
+            return;
+        }
+        AudioCodec negotiated = negotiatedCodec(session);
+        log.warn("Session {} sent {} audio but negotiated {}, closing connection",
+            session.getId(), codecName, negotiated.getCodecName());
+        sendJson(session, Map.of("type", "error", "message",
+            "音频编码与协商结果不一致（协商为 " + negotiated.getCodecName() + "），连接已断开"));
+        try {
+            session.close(CloseStatus.NOT_ACCEPTABLE.withReason("codec mismatch"));
+        } catch (Exception e) {
+            log.warn("Failed to close session {} after codec mismatch", session.getId(), e);
+        }
+    }
+
+    /**
+     * 压缩音频在会话的解码器中还原为 PCM
+     */
+    private void decodeCompressed(WebSocketSession session, InboundMessage inbound) {
+        AudioCodec codec = inbound.codec;
+        AudioDecoder decoder = sessionDecoders.computeIfAbsent(session.getId(), k -> decoderFactory.create(codec));
+        ByteBuffer pcm;
+        try {
+            pcm = decoder.decode(inbound.compressed.flip());
+        } catch (Exception e) {
+            log.warn("Failed to decode {} frame {} from session {}: {}",
+                codec.getCodecName(), inbound.frame.getSequence(), session.getId(), e.getMessage());
+            return;
+        }
+        processAudioData(session, pcm);
     }
 
-    private void processAudioData(WebSocketSession session, byte[] audioData) {
+    /**
+     * 检查帧序号：重复或乱序的帧丢弃，序号跳跃时记录丢帧
+     */
+    private boolean acceptSequence(WebSocketSession session, long sequence) {
+        Long previous = sessionFrameSequences.get(session.getId());
+        if (previous != null && sequence <= previous) {
+            log.warn("Dropping out-of-order audio frame {} from session {} (last {})",
+                sequence, session.getId(), previous);
+            return false;
+        }
+        if (previous != null && sequence > previous + 1) {
+            log.warn("Session {} lost {} audio frames before frame {}",
+                session.getId(), sequence - previous - 1, sequence);
+        }
+        sessionFrameSequences.put(session.getId(), sequence);
+        return true;
+    }
+
+    private void processAudioData(WebSocketSession session, ByteBuffer audioData) {
         Long meetingId = sessionMeetingMap.get(session.getId());
 
         if (meetingId == null) {
@@ -183,82 +607,291 @@ public class AudioStreamHandler extends BinaryWebSocketHandler {
             return;
         }
 
+        // 静音也算心跳（在 VAD 之前），会议仍在录音
+        heartbeatService.beat(meetingId);
+
         // 获取或创建该session的缓冲区
         AudioBuffer audioBuffer = sessionAudioBuffers.computeIfAbsent(
             session.getId(),
-            k -> new AudioBuffer()
+            k -> createAudioBuffer(k)
         );
 
-        // 将数据添加到缓冲区
-        audioBuffer.append(audioData);
+        // 将数据添加到缓冲区（转录积压导致缓冲区占满时丢弃）
+        int length = audioData.remaining();
+        if (!audioBuffer.append(audioData)) {
+            log.warn("Audio buffer full for session {}, dropping {} bytes", session.getId(), length);
+        }
 
         log.debug("Received audio data from session {}, size: {} bytes, buffer total: {} bytes",
-            session.getId(), audioData.length, audioBuffer.size());
+            session.getId(), length, audioBuffer.size());
 
         // 检查是否应该刷新缓冲区
         if (audioBuffer.shouldFlush()) {
-            byte[] bufferedAudio = audioBuffer.getAndClear();
-            log.info("Flushing audio buffer for session {}, size: {} bytes", session.getId(), bufferedAudio.length);
+            boolean speechEnded = audioBuffer.takeSpeechEnded();
+            PcmSegment segment = audioBuffer.flush();
+            if (segment == null) {
+                return;
+            }
+            StreamingAsrSession stream = sessionStreams.get(session.getId());
+            if (stream != null) {
+                log.debug("Streaming audio frame for session {}, size: {} bytes", session.getId(), segment.size());
+                submitStreamingFrame(session, stream, segment, speechEnded);
+            } else {
+                log.info("Flushing audio buffer for session {}, size: {} bytes", session.getId(), segment.size());
+                submitTranscription(session, meetingId, segment);
+            }
+        }
+    }
 
-            // 异步处理音频转录
-            CompletableFuture.runAsync(() -> {
-                try {
-                    // 调用AI转录
-                    String text = aiService.transcribe(bufferedAudio);
+    private AudioBuffer createAudioBuffer(String sessionId) {
+        boolean streaming = sessionStreams.containsKey(sessionId);
+        if (!segmenterFactory.isEnabled()) {
+            return new AudioBuffer(bufferPool.acquire(), streaming ? streamingFrameBytes : BUFFER_SIZE_BYTES, null);
+        }
+        // 流式识别仍按帧推送，只是跳过静音；按段转录时一个语音段最长 max-segment-ms
+        return new AudioBuffer(bufferPool.acquire(),
+            streaming ? streamingFrameBytes : segmenterFactory.getMaxSegmentBytes(),
+            segmenterFactory.create());
+    }
 
-                    if (text == null || text.trim().isEmpty()) {
-                        log.debug("Empty transcription result, skipping");
-                        return;
-                    }
+    /**
+     * 把音频帧推送到该会话的流式识别连接，发送完成后释放切片
+     * 经过会话通道保证帧按顺序发送；语音结束时通知服务端立即输出该句的最终结果
+     */
+    private void submitStreamingFrame(WebSocketSession session, StreamingAsrSession stream,
+                                      PcmSegment segment, boolean speechEnded) {
+        transcriptionScheduler.submit(session.getId(), () -> {
+            try {
+                stream.sendAudio(segment.data());
+                if (speechEnded) {
+                    stream.flush();
+                }
+            } catch (Exception e) {
+                sendTranscriptionError(session, e);
+            } finally {
+                segment.release();
+            }
+        }, segment::release);
+    }
 
-                    // 获取或创建转录文本缓冲区
+    /**
+     * 流式识别回调：中间结果和最终结果都进入该会话的结果通道，按顺序合并、保存和推送，
+     * 合并缓冲只在该通道上读写
+     */
+    private StreamingAsrListener streamingListener(WebSocketSession session, Long meetingId) {
+        String resultLane = session.getId() + STREAM_RESULT_LANE_SUFFIX;
+        return new StreamingAsrListener() {
+            @Override
+            public void onPartial(int segment, String text) {
+                log.debug("Partial hypothesis for session {} (segment {}): {}", session.getId(), segment, text);
+                // 与最终结果在同一通道读取合并缓冲，段号和已合并文本取自同一时刻
+                transcriptionScheduler.submit(resultLane, () -> {
                     TranscriptBuffer transcriptBuffer = sessionTranscriptBuffers.computeIfAbsent(
                         session.getId(),
                         k -> new TranscriptBuffer()
                     );
+                    sendPartial(session, transcriptBuffer.getSegmentId(), transcriptBuffer.peek() + text);
+                }, () -> log.debug("Dropped partial hypothesis for session {}", session.getId()));
+            }
 
-                    // 将转录结果添加到文本缓冲区
-                    transcriptBuffer.append(text);
-                    log.info("Appended text to buffer for session {}: {}", session.getId(), text);
-
-                    // 检查是否应该刷新文本缓冲区
-                    if (transcriptBuffer.shouldFlush()) {
-                        String mergedText = transcriptBuffer.getAndClear();
-                        log.info("Flushing transcript buffer for session {}: {}", session.getId(), mergedText);
-
-                        // 保存合并后的转录结果
-                        Transcript transcript = transcriptionService.saveTranscript(
-                            meetingId,
-                            mergedText,
-                            LocalDateTime.now()
-                        );
-
-                        // 构建响应
-                        Map<String, Object> response = new java.util.HashMap<>();
-                        response.put("type", "transcript");
-                        response.put("id", transcript.getId());
-                        response.put("content", mergedText);
-                        response.put("timestamp", transcript.getTimestamp().toString());
-                        response.put("speakerId", transcript.getSpeaker() != null ? transcript.getSpeaker().getId() : null);
-
-                        // 推送给客户端
-                        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
-                        log.info("Merged transcript sent to session {}: {}", session.getId(), mergedText);
+            @Override
+            public void onFinal(int segment, String text) {
+                transcriptionScheduler.submit(resultLane, () -> {
+                    try {
+                        handleTranscription(session, meetingId, text);
+                    } catch (Exception e) {
+                        sendTranscriptionError(session, e);
                     }
+                }, () -> log.warn("Dropped final hypothesis for session {}: {}", session.getId(), text));
+            }
 
-                } catch (Exception e) {
-                    log.error("Error processing audio", e);
-                    try {
-                        Map<String, Object> errorResponse = Map.of(
-                            "type", "error",
-                            "message", "转录失败: " + e.getMessage()
-                        );
-                        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(errorResponse)));
-                    } catch (Exception ex) {
-                        log.error("Error sending error message", ex);
+            @Override
+            public void onError(Throwable error) {
+                sendTranscriptionError(session, error);
+            }
+        };
+    }
+
+    /**
+     * 提交到该会话的转录通道，按顺序转录与合并；被丢弃时释放切片
+     * reactive 模式下等待模型服务响应时不占用线程，响应后切回转录线程池合并、保存
+     * 每个音频段的截止时间按其时长计算（实时预算），开始转录前或转录中超过截止时间、
+     * 或服务熔断中的音频段交给补转录处理，不在实时通道里继续排队
+     * 说话人分离与转录并行，转录返回后取说话人，一起保存和推送
+     */
+    private void submitTranscription(WebSocketSession session, Long meetingId, PcmSegment segment) {
+        LocalDateTime capturedAt = LocalDateTime.now();
+        Deadline deadline = transcriptionDeadline(segment);
+        if (reactiveTranscription) {
+            transcriptionScheduler.submitAsync(session.getId(), () -> {
+                    if (deadline.isExpired()) {
+                        catchUpTranscriber.late(meetingId, segment.data(), capturedAt);
+                        segment.release();
+                        return CompletableFuture.completedFuture(null);
                     }
+                    CompletableFuture<Long> speaker = diarizationService.assignAsync(meetingId, segment.data());
+                    return deadline.call(() -> reactiveAIService.transcribeAsync(segment.data())
+                            .timeout(Duration.ofMillis(deadline.remainingMillis()),
+                                Mono.error(new DeadlineExceededException("转录已超过截止时间")))
+                            .toFuture())
+                        .thenAcceptAsync(text -> {
+                            try {
+                                handleTranscription(session, meetingId, text, diarizationService.await(speaker));
+                            } catch (Exception e) {
+                                throw new CompletionException(e);
+                            }
+                        }, transcriptionScheduler.getExecutor())
+                        .handle((ignored, error) -> {
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                            if (cause instanceof DeadlineExceededException || cause instanceof CircuitOpenException) {
+                                catchUpTranscriber.late(meetingId, segment.data(), capturedAt, speaker);
+                            } else if (cause != null) {
+                                sendTranscriptionError(session, cause);
+                            }
+                            segment.release();
+                            return null;
+                        });
+                },
+                segment::release);
+        } else {
+            transcriptionScheduler.submit(session.getId(), () -> {
+                CompletableFuture<Long> speaker = null;
+                try {
+                    if (deadline.isExpired()) {
+                        catchUpTranscriber.late(meetingId, segment.data(), capturedAt);
+                        return;
+                    }
+                    speaker = diarizationService.assignAsync(meetingId, segment.data());
+                    // 调用AI转录（直接读取缓冲区切片），调用链按截止时间放弃等待
+                    String text = deadline.call(() -> aiService.transcribe(segment.data()));
+                    handleTranscription(session, meetingId, text, diarizationService.await(speaker));
+                } catch (DeadlineExceededException | CircuitOpenException e) {
+                    catchUpTranscriber.late(meetingId, segment.data(), capturedAt, speaker);
+                } catch (Exception e) {
+                    sendTranscriptionError(session, e);
+                } finally {
+                    segment.release();
                 }
-            });
+            }, segment::release);
+        }
+    }
+
+    /**
+     * 音频段的实时预算：时长 × deadline-factor，不低于 deadline-min-ms
+     */
+    private Deadline transcriptionDeadline(PcmSegment segment) {
+        // 16kHz, 16bit, mono：每毫秒 32 字节
+        long durationMs = segment.size() / 32;
+        return Deadline.after(Duration.ofMillis(Math.max(deadlineMinMs, (long) (durationMs * deadlineFactor))));
+    }
+
+    /**
+     * 合并转录结果，句子完整时保存并推送给客户端（流式识别的结果不做说话人分离）
+     */
+    private void handleTranscription(WebSocketSession session, Long meetingId, String text) throws Exception {
+        handleTranscription(session, meetingId, text, null);
+    }
+
+    /**
+     * @param speakerId 该音频段的说话人，未识别时为 null；说话人变化时先保存上一位说话人的内容
+     */
+    private void handleTranscription(WebSocketSession session, Long meetingId, String text, Long speakerId)
+            throws Exception {
+        if (text == null || text.trim().isEmpty()) {
+            log.debug("Empty transcription result, skipping");
+            return;
+        }
+
+        // 获取或创建转录文本缓冲区
+        TranscriptBuffer transcriptBuffer = sessionTranscriptBuffers.computeIfAbsent(
+            session.getId(),
+            k -> new TranscriptBuffer()
+        );
+
+        // 换了说话人：缓冲区中的内容即使句子未完整也单独保存
+        if (transcriptBuffer.speakerChanged(speakerId)) {
+            flushTranscriptBuffer(session, meetingId, transcriptBuffer);
+        }
+
+        // 将转录结果添加到文本缓冲区
+        transcriptBuffer.append(text, speakerId);
+        log.info("Appended text to buffer for session {}: {}", session.getId(), text);
+
+        // 检查是否应该刷新文本缓冲区
+        if (transcriptBuffer.shouldFlush()) {
+            flushTranscriptBuffer(session, meetingId, transcriptBuffer);
+        } else {
+            // 句子未完整：先推送临时结果，最终 transcript 以相同 segmentId 替换
+            sendPartial(session, transcriptBuffer.getSegmentId(), transcriptBuffer.peek());
+        }
+    }
+
+    private void flushTranscriptBuffer(WebSocketSession session, Long meetingId, TranscriptBuffer transcriptBuffer) {
+        long segmentId = transcriptBuffer.getSegmentId();
+        Long speakerId = transcriptBuffer.getSpeakerId();
+        String mergedText = transcriptBuffer.getAndClear();
+        log.info("Flushing transcript buffer for session {}: {}", session.getId(), mergedText);
+
+        // 保存合并后的转录结果
+        Transcript transcript = transcriptionService.saveTranscript(
+            meetingId,
+            mergedText,
+            LocalDateTime.now(),
+            speakerId
+        );
+
+        // 构建响应
+        Map<String, Object> response = new java.util.HashMap<>();
+        response.put("type", "transcript");
+        response.put("segmentId", segmentId);
+        response.put("id", transcript.getId());
+        response.put("content", mergedText);
+        response.put("timestamp", transcript.getTimestamp().toString());
+        response.put("speakerId", transcript.getSpeaker() != null ? transcript.getSpeaker().getId() : null);
+
+        // 推送给客户端
+        sendJson(session, response);
+        log.info("Merged transcript sent to session {}: {}", session.getId(), mergedText);
+    }
+
+    /**
+     * 推送临时转录结果，不保存到数据库
+     */
+    private void sendPartial(WebSocketSession session, long segmentId, String content) {
+        if (!partialResults || content.isEmpty()) {
+            return;
+        }
+        Map<String, Object> response = Map.of(
+            "type", "partial",
+            "segmentId", segmentId,
+            "content", content
+        );
+        sendJson(session, response);
+    }
+
+    private void sendTranscriptionError(WebSocketSession session, Throwable e) {
+        log.error("Error processing audio", e);
+        Map<String, Object> errorResponse = Map.of(
+            "type", "error",
+            "message", "转录失败: " + e.getMessage()
+        );
+        sendJson(session, errorResponse);
+    }
+
+    /**
+     * 推送 JSON 消息给客户端，连接已关闭或发送失败时只记录日志
+     */
+    private void sendJson(WebSocketSession session, Map<String, Object> payload) {
+        WebSocketSession sender = sessionSenders.getOrDefault(session.getId(), session);
+        if (!sender.isOpen()) {
+            log.debug("Session {} is closed, dropping {} message", session.getId(), payload.get("type"));
+            return;
+        }
+        try {
+            sender.sendMessage(new TextMessage(objectMapper.writeValueAsString(payload)));
+        } catch (Exception e) {
+            log.error("Error sending {} message to session {}", payload.get("type"), session.getId(), e);
         }
     }
 
@@ -266,25 +899,85 @@ public class AudioStreamHandler extends BinaryWebSocketHandler {
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
         log.info("WebSocket connection closed: {}, status: {}", session.getId(), status);
 
-        // 发送剩余的转录文本
-        TranscriptBuffer transcriptBuffer = sessionTranscriptBuffers.get(session.getId());
+        String sessionId = session.getId();
+        Long meetingId = sessionMeetingMap.remove(sessionId);
+        sessionFrameSequences.remove(sessionId);
+        sessionDecoders.remove(sessionId);
+        sessionCodecs.remove(sessionId);
+        sessionInbound.remove(sessionId);
+        sessionTextFragments.remove(sessionId);
+        if (meetingId != null) {
+            if (sessionMeetingMap.containsValue(meetingId)) {
+                heartbeatService.forget(meetingId);
+            } else {
+                heartbeatService.release(meetingId);
+            }
+            rollingSummaryService.untrack(meetingId);
+        }
+
+        // 音频缓冲区在所有切片释放后归还缓冲池
+        AudioBuffer audioBuffer = sessionAudioBuffers.remove(sessionId);
+        if (audioBuffer != null) {
+            SpeechSegmenter segmenter = audioBuffer.getSegmenter();
+            if (segmenter != null && segmenter.getTotalFrames() > 0) {
+                log.info("Session {} VAD: {} of {} frames were speech ({}% silence skipped)",
+                    sessionId, segmenter.getSpeechFrames(), segmenter.getTotalFrames(),
+                    100 - segmenter.getSpeechFrames() * 100 / segmenter.getTotalFrames());
+            }
+            // 会话结束时正在进行的语音（VAD 尚未判定结束）作为最后一段送入通道，排在收尾任务之前
+            PcmSegment remaining = audioBuffer.flush();
+            if (remaining != null) {
+                StreamingAsrSession activeStream = sessionStreams.get(sessionId);
+                if (meetingId == null) {
+                    remaining.release();
+                } else if (activeStream != null) {
+                    submitStreamingFrame(session, activeStream, remaining, true);
+                } else {
+                    log.info("Flushing final audio segment for session {}, size: {} bytes", sessionId, remaining.size());
+                    submitTranscription(session, meetingId, remaining);
+                }
+            }
+            audioBuffer.release();
+        }
+
+        WebSocketSession sender = sessionSenders.remove(sessionId);
+        if (meetingId != null && sender != null) {
+            eventPublisher.unregister(meetingId, sender);
+        }
+        StreamingAsrSession stream = sessionStreams.remove(sessionId);
+
+        // 等该会话已排队的音频段处理完，再发送剩余的转录文本并清理
+        CompletableFuture<Void> drained = transcriptionScheduler.close(sessionId, () -> {
+            if (stream == null) {
+                flushRemainingTranscript(sessionId, meetingId);
+                return;
+            }
+            // 流式识别：等服务端返回剩余的最终结果（进入结果通道），再在结果通道中收尾
+            stream.finish();
+        }).thenCompose(ignored -> stream == null
+            ? CompletableFuture.completedFuture(null)
+            : transcriptionScheduler.close(sessionId + STREAM_RESULT_LANE_SUFFIX,
+                () -> flushRemainingTranscript(sessionId, meetingId)));
+        if (meetingId != null) {
+            // 完成会议时等收尾结束再读取转录
+            transcriptionService.trackSessionDrain(meetingId, drained);
+        }
+    }
+
+    private void flushRemainingTranscript(String sessionId, Long meetingId) {
+        TranscriptBuffer transcriptBuffer = sessionTranscriptBuffers.remove(sessionId);
         if (transcriptBuffer != null && !transcriptBuffer.isEmpty()) {
             try {
+                Long speakerId = transcriptBuffer.getSpeakerId();
                 String remainingText = transcriptBuffer.getAndClear();
-                Long meetingId = sessionMeetingMap.get(session.getId());
                 if (meetingId != null && !remainingText.isEmpty()) {
                     log.info("Flushing remaining transcript on disconnect: {}", remainingText);
-                    transcriptionService.saveTranscript(meetingId, remainingText, LocalDateTime.now());
+                    transcriptionService.saveTranscript(meetingId, remainingText, LocalDateTime.now(), speakerId);
                 }
             } catch (Exception e) {
                 log.error("Error flushing remaining transcript", e);
             }
         }
-
-        // 清理缓冲区
-        sessionAudioBuffers.remove(session.getId());
-        sessionTranscriptBuffers.remove(session.getId());
-        sessionMeetingMap.remove(session.getId());
     }
 
     @Override
@@ -0,0 +1,146 @@
+package com.meeting.assistant.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按会议推送事件给该会议的 WebSocket 连接（如总结完成）
+ * 连接建立时由 AudioStreamHandler 登记线程安全的发送端，关闭时移除
+ * publishAsync 把事件放进会议的发送队列，由单独的线程按顺序写出，调用方不等客户端
+ */
+@Slf4j
+@Component
+public class MeetingEventPublisher {
+
+    // 会议的异步发送队列：有事件时由一个发送线程清空，清空后移除
+    private static class Outbox {
+        private final ConcurrentLinkedQueue<Map<String, Object>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int asyncQueueSize;
+    private final Map<Long, Set<WebSocketSession>> meetingSessions = new ConcurrentHashMap<>();
+    private final Map<Long, Outbox> outboxes = new ConcurrentHashMap<>();
+    private final ExecutorService sendExecutor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("meeting-events-", 0).factory());
+
+    public MeetingEventPublisher(ObjectMapper objectMapper,
+                                 @Value("${meeting.events.async-queue-size:1024}") int asyncQueueSize) {
+        this.objectMapper = objectMapper;
+        this.asyncQueueSize = Math.max(1, asyncQueueSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+    }
+
+    void register(Long meetingId, WebSocketSession sender) {
+        meetingSessions.computeIfAbsent(meetingId, k -> ConcurrentHashMap.newKeySet()).add(sender);
+    }
+
+    void unregister(Long meetingId, WebSocketSession sender) {
+        meetingSessions.computeIfPresent(meetingId, (k, sessions) -> {
+            sessions.remove(sender);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    /**
+     * 异步推送：同一会议的事件按调用顺序发出；积压超过 async-queue-size 时丢弃新事件
+     */
+    public void publishAsync(Long meetingId, Map<String, Object> payload) {
+        // [0]：新建了队列，需要启动发送线程；[1]：队列已满
+        boolean[] flags = new boolean[2];
+        Outbox outbox = outboxes.compute(meetingId, (k, current) -> {
+            if (current == null) {
+                current = new Outbox();
+                flags[0] = true;
+            }
+            if (current.size.get() >= asyncQueueSize) {
+                flags[1] = true;
+                return current;
+            }
+            current.size.incrementAndGet();
+            current.queue.offer(payload);
+            return current;
+        });
+        if (flags[1]) {
+            log.warn("Event queue of meeting {} is full ({} events), dropping {} event",
+                meetingId, asyncQueueSize, payload.get("type"));
+        }
+        if (flags[0]) {
+            try {
+                sendExecutor.execute(() -> drain(meetingId, outbox));
+            } catch (RejectedExecutionException e) {
+                // 应用关闭中
+                outboxes.remove(meetingId, outbox);
+            }
+        }
+    }
+
+    private void drain(Long meetingId, Outbox outbox) {
+        while (true) {
+            Map<String, Object> payload;
+            while ((payload = outbox.queue.poll()) != null) {
+                outbox.size.decrementAndGet();
+                publish(meetingId, payload);
+            }
+            // 队列为空时在 compute 中移除，与 publishAsync 的入队互斥，不会漏发
+            boolean[] done = {false};
+            outboxes.compute(meetingId, (k, current) -> {
+                if (current == outbox && outbox.queue.isEmpty()) {
+                    done[0] = true;
+                    return null;
+                }
+                return current;
+            });
+            if (done[0]) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 推送给会议的所有连接，没有连接时直接返回
+     */
+    public void publish(Long meetingId, Map<String, Object> payload) {
+        Set<WebSocketSession> sessions = meetingSessions.get(meetingId);
+        if (sessions == null || sessions.isEmpty()) {
+            log.debug("No open sessions for meeting {}, dropping {} event", meetingId, payload.get("type"));
+            return;
+        }
+        TextMessage message;
+        try {
+            message = new TextMessage(objectMapper.writeValueAsString(payload));
+        } catch (Exception e) {
+            log.error("Error serializing {} event for meeting {}", payload.get("type"), meetingId, e);
+            return;
+        }
+        for (WebSocketSession session : sessions) {
+            if (!session.isOpen()) {
+                continue;
+            }
+            try {
+                session.sendMessage(message);
+            } catch (Exception e) {
+                log.error("Error sending {} event to session {}", payload.get("type"), session.getId(), e);
+            }
+        }
+    }
+}
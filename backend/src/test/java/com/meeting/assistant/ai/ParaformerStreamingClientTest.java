@@ -0,0 +1,163 @@
+package com.meeting.assistant.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 流式识别客户端对接 paraformer_streaming_service.py --stub：
+ * 正常识别，以及服务在会议中途重启后自动重连、继续输出最终结果
+ * 没有 python3（或缺少 numpy、websockets）时跳过
+ */
+class ParaformerStreamingClientTest {
+
+    private static final Path STUB_SCRIPT = Path.of("paraformer_streaming_service.py");
+    // 与服务端分块步长一致的 600ms 音频
+    private static final int FRAME_SAMPLES = 9600;
+    private static final long RESULT_TIMEOUT_MS = 5000;
+
+    private final BlockingQueue<String> finals = new LinkedBlockingQueue<>();
+    private final StreamingAsrListener listener = new StreamingAsrListener() {
+        @Override
+        public void onPartial(int segment, String text) {
+        }
+
+        @Override
+        public void onFinal(int segment, String text) {
+            finals.add(text);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+        }
+    };
+
+    private int port;
+    private Process stub;
+    private ParaformerStreamingClient client;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        assumeTrue(Files.exists(STUB_SCRIPT), "stub script not found");
+        assumeTrue(pythonAvailable(), "python3 with numpy and websockets not available");
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        stub = launchStub();
+        client = new ParaformerStreamingClient(new ObjectMapper(), "ws://127.0.0.1:" + port + "/stream",
+            new AsrEndpointPool.Settings("least-outstanding", 3, 30000, 0, 0, 2000, 16),
+            WebClient.create(), new SimpleMeterRegistry(), 2000, 2000, 50, 200, 10000);
+    }
+
+    @AfterEach
+    void stopStub() throws Exception {
+        if (client != null) {
+            client.shutdown();
+        }
+        if (stub != null) {
+            stub.destroyForcibly().waitFor(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void streamsFramesAndReceivesFinal() throws Exception {
+        StreamingAsrSession session = client.open(1L, listener);
+
+        session.sendAudio(tone());
+        session.flush();
+
+        assertThat(finals.poll(RESULT_TIMEOUT_MS, TimeUnit.MILLISECONDS)).isEqualTo("测试。");
+        session.finish();
+    }
+
+    @Test
+    void reconnectsAfterServiceRestart() throws Exception {
+        StreamingAsrSession session = client.open(1L, listener);
+        session.sendAudio(tone());
+        session.flush();
+        assertThat(finals.poll(RESULT_TIMEOUT_MS, TimeUnit.MILLISECONDS)).isEqualTo("测试。");
+
+        stub.destroyForcibly().waitFor(5, TimeUnit.SECONDS);
+        // 服务不可用期间发送不抛异常，音频暂存等待重连
+        assertThatCode(() -> {
+            session.sendAudio(tone());
+            session.flush();
+        }).doesNotThrowAnyException();
+        assertThat(session.isOpen()).isTrue();
+
+        stub = launchStub();
+        String result = null;
+        long deadline = System.currentTimeMillis() + RESULT_TIMEOUT_MS * 2;
+        while (result == null && System.currentTimeMillis() < deadline) {
+            session.sendAudio(tone());
+            session.flush();
+            result = finals.poll(500, TimeUnit.MILLISECONDS);
+        }
+
+        assertThat(result).isEqualTo("测试。");
+        session.finish();
+    }
+
+    private static boolean pythonAvailable() {
+        try {
+            Process check = new ProcessBuilder("python3", "-c", "import numpy, websockets")
+                .redirectErrorStream(true)
+                .start();
+            return check.waitFor(10, TimeUnit.SECONDS) && check.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Process launchStub() throws Exception {
+        Process process = new ProcessBuilder("python3", STUB_SCRIPT.toString(),
+            "--stub", "--host", "127.0.0.1", "--port", String.valueOf(port))
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress("127.0.0.1", port), 200);
+                return process;
+            } catch (IOException e) {
+                Thread.sleep(100);
+            }
+        }
+        process.destroyForcibly();
+        throw new IllegalStateException("stub streaming service did not start on port " + port);
+    }
+
+    /**
+     * 600ms 的 440Hz 正弦波，测试桩把有声音的分块识别为固定文字
+     */
+    private static ByteBuffer tone() {
+        ByteBuffer pcm = ByteBuffer.allocate(FRAME_SAMPLES * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < FRAME_SAMPLES; i++) {
+            pcm.putShort((short) (Math.sin(2 * Math.PI * 440 * i / 16000.0) * 10000));
+        }
+        return pcm.flip();
+    }
+}
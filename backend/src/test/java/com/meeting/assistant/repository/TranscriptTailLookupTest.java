@@ -0,0 +1,102 @@
+package com.meeting.assistant.repository;
+
+import com.meeting.assistant.entity.Meeting;
+import com.meeting.assistant.entity.Transcript;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 取会议最后一条转录（findFirstByMeetingIdOrderBySequenceOrderDesc）不随会议变长而变慢：
+ * 查询计划是 (meeting_id, sequence_order) 索引上的倒序扫描、没有排序
+ * 使用与生产相同的 PostgreSQL，没有 Docker 时跳过
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TranscriptBatchRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+class TranscriptTailLookupTest {
+
+    private static final int LARGE_MEETING = 100_000;
+    private static final int BATCH_SIZE = 5_000;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MeetingRepository meetingRepository;
+
+    @Autowired
+    private TranscriptRepository transcriptRepository;
+
+    @Autowired
+    private TranscriptBatchRepository transcriptBatchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void tailLookupUsesIndexWithoutSort() {
+        Long meetingId = seedMeeting(LARGE_MEETING);
+
+        List<String> plan = jdbcTemplate.queryForList(
+            "EXPLAIN SELECT * FROM transcripts WHERE meeting_id = ? ORDER BY sequence_order DESC LIMIT 1",
+            String.class, meetingId);
+
+        assertThat(String.join("\n", plan))
+            .contains("Index Scan Backward using idx_transcripts_sequence")
+            .doesNotContain("Sort");
+    }
+
+    @Test
+    void tailLookupReturnsLastTranscript() {
+        Long meetingId = seedMeeting(LARGE_MEETING);
+
+        assertThat(transcriptRepository.findFirstByMeetingIdOrderBySequenceOrderDesc(meetingId))
+            .hasValueSatisfying(tail -> assertThat(tail.getSequenceOrder()).isEqualTo(LARGE_MEETING));
+    }
+
+    /**
+     * 新建一个会议并按生产写入路径批量写入 count 条转录，序号从 1 开始
+     */
+    private Long seedMeeting(int count) {
+        Meeting meeting = new Meeting();
+        meeting.setTitle("tail-lookup-" + count);
+        meeting.setStartTime(LocalDateTime.now());
+        meeting = meetingRepository.saveAndFlush(meeting);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 1; from <= count; from += BATCH_SIZE) {
+            int size = Math.min(BATCH_SIZE, count - from + 1);
+            List<Long> ids = transcriptBatchRepository.allocateIds(size);
+            List<Transcript> batch = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                Transcript transcript = new Transcript();
+                transcript.setId(ids.get(i));
+                transcript.setMeeting(meeting);
+                transcript.setContent("第 " + (from + i) + " 段转录");
+                transcript.setTimestamp(now);
+                transcript.setSequenceOrder(from + i);
+                transcript.setCreatedAt(now);
+                batch.add(transcript);
+            }
+            transcriptBatchRepository.batchInsert(batch);
+        }
+        jdbcTemplate.execute("ANALYZE transcripts");
+        return meeting.getId();
+    }
+}
@@ -0,0 +1,9 @@
+#!/bin/bash
+# 启动 Paraformer 实时流式服务（WebSocket 长连接）
+# 传入 --stub 可在没有模型的环境下启动测试桩
+
+cd "$(dirname "$0")"
+
+echo "Starting Paraformer realtime streaming service..."
+source whisper_env/bin/activate
+python3 paraformer_streaming_service.py "$@"
@@ -0,0 +1,8 @@
+#!/bin/bash
+# 启动说话人声纹向量服务
+
+cd "$(dirname "$0")"
+
+echo "Starting speaker embedding service..."
+source whisper_env/bin/activate
+python3 speaker_embedding_service.py
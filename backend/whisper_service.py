@@ -5,6 +5,7 @@
 """
 
 import whisper
+import torch
 import numpy as np
 import io
 import logging
@@ -101,6 +102,67 @@ def transcribe():
             'error': f'Transcription failed: {str(e)}'
         }), 500
 
+def split_batch(audio_bytes, lengths_header):
+    """按 X-Segment-Lengths（逗号分隔的字节数）拆分批量请求中的各段 PCM"""
+    lengths = [int(x) for x in lengths_header.split(',') if x.strip()]
+    if sum(lengths) != len(audio_bytes):
+        raise ValueError(f'segment lengths {sum(lengths)} != body size {len(audio_bytes)}')
+    segments = []
+    offset = 0
+    for length in lengths:
+        pcm = audio_bytes[offset:offset + length]
+        segments.append(np.frombuffer(pcm, dtype=np.int16).astype(np.float32) / 32768.0)
+        offset += length
+    return segments
+
+@app.route('/transcribe_batch', methods=['POST'])
+def transcribe_batch():
+    """
+    批量音频转文字接口（后端跨会话合批）
+
+    接收：多段 PCM 16-bit 音频依次拼接（16kHz, Mono），X-Segment-Lengths 头给出每段字节数
+    返回：JSON { "texts": ["第一段文本", ...] }，顺序与请求一致
+    """
+    try:
+        segments = split_batch(request.data, request.headers.get('X-Segment-Lengths', ''))
+        if not segments:
+            return jsonify({'error': 'No audio data received'}), 400
+
+        model_instance = load_model()
+        options = whisper.DecodingOptions(
+            language='zh',
+            fp16=False,
+            prompt="以下是普通话的句子。",
+            beam_size=5,
+            temperature=0.0
+        )
+
+        texts = [None] * len(segments)
+        # 不超过 30 秒的音频段一次前向批量解码，更长的逐段转录
+        short = [i for i, audio in enumerate(segments) if len(audio) <= whisper.audio.N_SAMPLES]
+        if short:
+            mels = torch.stack([
+                whisper.log_mel_spectrogram(whisper.pad_or_trim(segments[i]), model_instance.dims.n_mels)
+                for i in short
+            ]).to(model_instance.device)
+            results = whisper.decode(model_instance, mels, options)
+            for i, result in zip(short, results):
+                texts[i] = '' if result.no_speech_prob > 0.7 else result.text.strip()
+        for i, audio in enumerate(segments):
+            if texts[i] is None:
+                result = model_instance.transcribe(audio, language='zh', fp16=False,
+                                                   initial_prompt="以下是普通话的句子。")
+                texts[i] = result['text'].strip()
+
+        logger.info(f"Batch transcription completed: {len(segments)} segments")
+        return jsonify({'texts': texts})
+
+    except Exception as e:
+        logger.error(f"Batch transcription error: {str(e)}", exc_info=True)
+        return jsonify({
+            'error': f'Batch transcription failed: {str(e)}'
+        }), 500
+
 @app.route('/model', methods=['GET'])
 def get_model_info():
     """获取当前模型信息"""
@@ -117,4 +179,4 @@ if __name__ == '__main__':
     # 启动 Flask 服务
     # host='0.0.0.0' 允许外部访问
     # port=5001 避免与其他服务冲突
-    app.run(host='0.0.0.0', port=5001, debug=False)
+    app.run(host='0.0.0.0', port=5001, debug=False, threaded=True)
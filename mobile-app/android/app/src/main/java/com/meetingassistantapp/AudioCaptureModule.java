@@ -138,10 +138,12 @@ public class AudioCaptureModule extends ReactContextBaseJavaModule implements Ac
                         // 等待MediaProjection完全初始化
                         Thread.sleep(500);
 
-                        audioCaptureService.setAudioDataCallback((base64Audio, length) -> {
+                        audioCaptureService.setAudioDataCallback((base64Audio, length, captureTimestamp, sampleRate) -> {
                             WritableMap params = Arguments.createMap();
                             params.putString("audioData", base64Audio);
                             params.putInt("length", length);
+                            params.putDouble("captureTimestamp", captureTimestamp);
+                            params.putInt("sampleRate", sampleRate);
 
                             getReactApplicationContext()
                                 .getJSModule(DeviceEventManagerModule.RCTDeviceEventEmitter.class)
@@ -46,11 +46,13 @@ public class AudioCaptureService extends Service {
     private static final int SEGMENT_DURATION_MS = 2500;   // 每2.5秒发送一次音频（足够说完整句话）
     private java.util.List<byte[]> audioBuffer = new java.util.ArrayList<>();
     private long segmentStartTime = System.currentTimeMillis();
+    // 当前分段第一块音频的采集时间（毫秒时间戳）
+    private long segmentCaptureTime = 0;
 
     private final IBinder binder = new LocalBinder();
 
     public interface AudioDataCallback {
-        void onAudioData(String base64Audio, int length);
+        void onAudioData(String base64Audio, int length, long captureTimestamp, int sampleRate);
     }
 
     public class LocalBinder extends Binder {
@@ -182,6 +184,9 @@ public class AudioCaptureService extends Service {
                     System.arraycopy(buffer, 0, audioData, 0, read);
 
                     // 添加到缓冲区
+                    if (audioBuffer.isEmpty()) {
+                        segmentCaptureTime = System.currentTimeMillis();
+                    }
                     audioBuffer.add(audioData);
 
                     // 检查是否达到分段时间
@@ -220,10 +225,10 @@ public class AudioCaptureService extends Service {
                 offset += data.length;
             }
 
-            // Base64 编码并发送
+            // Base64 编码并发送（RN 桥只能传字符串，JS 层解码后按二进制帧发送）
             String base64Audio = Base64.getEncoder().encodeToString(combined);
             if (callback != null) {
-                callback.onAudioData(base64Audio, totalLength);
+                callback.onAudioData(base64Audio, totalLength, segmentCaptureTime, SAMPLE_RATE);
             }
 
             long durationMs = (totalLength * 1000L) / (SAMPLE_RATE * 2); // 16-bit = 2 bytes per sample
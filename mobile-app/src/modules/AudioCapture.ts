@@ -13,6 +13,8 @@ const audioCaptureEmitter = new NativeEventEmitter(NativeModules.AudioCapture);
 export interface AudioDataEvent {
   audioData: string; // Base64 encoded
   length: number;
+  captureTimestamp: number; // 采集时间（毫秒时间戳）
+  sampleRate: number;
 }
 
 export class AudioCaptureService {
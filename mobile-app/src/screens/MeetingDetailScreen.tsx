@@ -25,6 +25,12 @@ interface Transcript {
   speaker: Speaker | null;
 }
 
+interface TranscriptPage {
+  items: Transcript[];
+  nextAfter: number;
+  hasMore: boolean;
+}
+
 interface Meeting {
   id: number;
   title: string;
@@ -34,6 +40,13 @@ interface Meeting {
   status: string;
 }
 
+const STATUS_TEXT: Record<string, string> = {
+  RECORDING: '进行中',
+  SUMMARIZING: '总结生成中',
+  COMPLETED: '已完成',
+  FAILED: '总结失败',
+};
+
 interface MeetingDetailScreenProps {
   route: any;
   navigation: any;
@@ -46,12 +59,87 @@ export default function MeetingDetailScreen({
   const { meetingId } = route.params;
   const [meeting, setMeeting] = useState<Meeting | null>(null);
   const [transcripts, setTranscripts] = useState<Transcript[]>([]);
+  const [nextAfter, setNextAfter] = useState(0);
+  const [hasMore, setHasMore] = useState(false);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
+  // 生成中的总结（SSE 流式接收）
+  const [streamingSummary, setStreamingSummary] = useState('');
 
   useEffect(() => {
     loadMeetingDetail();
   }, [meetingId]);
 
+  // 总结在服务端异步生成，生成期间定时刷新会议信息
+  useEffect(() => {
+    if (meeting?.status !== 'SUMMARIZING') {
+      return;
+    }
+    const timer = setInterval(async () => {
+      try {
+        const response = await fetch(`${API_BASE_URL}/api/meetings/${meetingId}`);
+        if (response.ok) {
+          setMeeting(await response.json());
+        }
+      } catch (error) {
+        console.warn('Failed to refresh meeting:', error);
+      }
+    }, 3000);
+    return () => clearInterval(timer);
+  }, [meeting?.status, meetingId]);
+
+  // 总结生成中时以 SSE 接收模型输出，边生成边显示
+  useEffect(() => {
+    if (meeting?.status !== 'SUMMARIZING') {
+      return;
+    }
+    setStreamingSummary('');
+    const xhr = new XMLHttpRequest();
+    let received = 0;
+    let pending = '';
+
+    const handleEvent = (block: string) => {
+      let name = 'message';
+      let data = '';
+      block.split('\n').forEach((line) => {
+        if (line.startsWith('event:')) {
+          name = line.slice(6).trim();
+        } else if (line.startsWith('data:')) {
+          data += line.slice(5);
+        }
+      });
+      if (!data) {
+        return;
+      }
+      const payload = JSON.parse(data);
+      if (name === 'delta') {
+        setStreamingSummary((prev) => prev + payload.delta);
+      } else if (name === 'done' && payload.status !== 'SUMMARIZING') {
+        setMeeting((prev) =>
+          prev ? { ...prev, status: payload.status, summary: payload.summary ?? prev.summary } : prev
+        );
+      }
+    };
+
+    xhr.open('GET', `${API_BASE_URL}/api/meetings/${meetingId}/summary/stream`);
+    xhr.setRequestHeader('Accept', 'text/event-stream');
+    xhr.onprogress = () => {
+      pending += xhr.responseText.slice(received);
+      received = xhr.responseText.length;
+      const blocks = pending.split('\n\n');
+      pending = blocks.pop() ?? '';
+      blocks.forEach((block) => {
+        try {
+          handleEvent(block);
+        } catch (error) {
+          console.warn('Failed to parse summary event:', error);
+        }
+      });
+    };
+    xhr.send();
+    return () => xhr.abort();
+  }, [meeting?.status, meetingId]);
+
   const loadMeetingDetail = async () => {
     try {
       // 加载会议信息
@@ -64,15 +152,11 @@ export default function MeetingDetailScreen({
       const meetingData = await meetingResponse.json();
       setMeeting(meetingData);
 
-      // 加载转录记录
-      const transcriptsResponse = await fetch(
-        `${API_BASE_URL}/api/meetings/${meetingId}/transcripts`
-      );
-      if (!transcriptsResponse.ok) {
-        throw new Error('Failed to load transcripts');
-      }
-      const transcriptsData = await transcriptsResponse.json();
-      setTranscripts(transcriptsData);
+      // 加载第一页转录记录
+      const page = await fetchTranscriptPage(0);
+      setTranscripts(page.items);
+      setNextAfter(page.nextAfter);
+      setHasMore(page.hasMore);
     } catch (error) {
       Alert.alert('加载失败', String(error));
     } finally {
@@ -80,6 +164,33 @@ export default function MeetingDetailScreen({
     }
   };
 
+  const fetchTranscriptPage = async (after: number): Promise<TranscriptPage> => {
+    const response = await fetch(
+      `${API_BASE_URL}/api/meetings/${meetingId}/transcripts?after=${after}`
+    );
+    if (!response.ok) {
+      throw new Error('Failed to load transcripts');
+    }
+    return response.json();
+  };
+
+  const loadMoreTranscripts = async () => {
+    if (loadingMore || !hasMore) {
+      return;
+    }
+    setLoadingMore(true);
+    try {
+      const page = await fetchTranscriptPage(nextAfter);
+      setTranscripts(prev => [...prev, ...page.items]);
+      setNextAfter(page.nextAfter);
+      setHasMore(page.hasMore);
+    } catch (error) {
+      Alert.alert('加载失败', String(error));
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const formatDateTime = (dateString: string) => {
     const date = new Date(dateString);
     return date.toLocaleString('zh-CN', {
@@ -149,23 +260,32 @@ export default function MeetingDetailScreen({
           <View style={styles.infoRow}>
             <Text style={styles.infoLabel}>状态:</Text>
             <Text style={styles.infoValue}>
-              {meeting.status === 'COMPLETED' ? '已完成' : '进行中'}
+              {STATUS_TEXT[meeting.status] || meeting.status}
             </Text>
           </View>
         </View>
 
         {/* 会议总结 */}
-        {meeting.summary && (
+        {meeting.summary && meeting.status !== 'SUMMARIZING' ? (
           <View style={styles.summaryCard}>
             <Text style={styles.sectionTitle}>会议总结</Text>
             <Text style={styles.summaryText}>{meeting.summary}</Text>
           </View>
-        )}
+        ) : meeting.status === 'SUMMARIZING' ? (
+          <View style={styles.summaryCard}>
+            <Text style={styles.sectionTitle}>会议总结（生成中...）</Text>
+            {streamingSummary ? (
+              <Text style={styles.summaryText}>{streamingSummary}</Text>
+            ) : (
+              <ActivityIndicator size="small" color="#4CAF50" />
+            )}
+          </View>
+        ) : null}
 
         {/* 文字记录 */}
         <View style={styles.transcriptsCard}>
           <Text style={styles.sectionTitle}>
-            文字记录 ({transcripts.length})
+            文字记录 ({transcripts.length}{hasMore ? '+' : ''})
           </Text>
           {transcripts.length === 0 ? (
             <Text style={styles.emptyText}>暂无文字记录</Text>
@@ -189,6 +309,19 @@ export default function MeetingDetailScreen({
                   )}
                 </View>
               ))}
+              {hasMore && (
+                <TouchableOpacity
+                  style={styles.loadMoreButton}
+                  onPress={loadMoreTranscripts}
+                  disabled={loadingMore}
+                >
+                  {loadingMore ? (
+                    <ActivityIndicator size="small" color="#4CAF50" />
+                  ) : (
+                    <Text style={styles.loadMoreText}>加载更多</Text>
+                  )}
+                </TouchableOpacity>
+              )}
             </View>
           )}
         </View>
@@ -312,6 +445,14 @@ const styles = StyleSheet.create({
     backgroundColor: '#f0f0f0',
     marginVertical: 8,
   },
+  loadMoreButton: {
+    paddingVertical: 12,
+    alignItems: 'center',
+  },
+  loadMoreText: {
+    fontSize: 14,
+    color: '#4CAF50',
+  },
   emptyText: {
     textAlign: 'center',
     color: '#999',
@@ -16,10 +16,16 @@ interface Meeting {
   title: string;
   startTime: string;
   endTime: string | null;
-  summary: string | null;
   status: string;
 }
 
+interface MeetingListPage {
+  items: Meeting[];
+  nextBeforeTime: string | null;
+  nextBeforeId: number | null;
+  hasMore: boolean;
+}
+
 interface MeetingListScreenProps {
   navigation: any;
 }
@@ -28,6 +34,8 @@ export default function MeetingListScreen({ navigation }: MeetingListScreenProps
   const [meetings, setMeetings] = useState<Meeting[]>([]);
   const [refreshing, setRefreshing] = useState(false);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [nextPage, setNextPage] = useState<{ beforeTime: string; beforeId: number } | null>(null);
   const [hasOngoingMeeting, setHasOngoingMeeting] = useState(false);
 
   useEffect(() => {
@@ -41,17 +49,34 @@ export default function MeetingListScreen({ navigation }: MeetingListScreenProps
     return unsubscribe;
   }, [navigation]);
 
+  const fetchMeetingPage = async (beforeTime?: string, beforeId?: number): Promise<MeetingListPage> => {
+    const query = beforeTime && beforeId
+      ? `?beforeTime=${encodeURIComponent(beforeTime)}&beforeId=${beforeId}`
+      : '';
+    const response = await fetch(`${API_BASE_URL}/api/meetings${query}`);
+    if (!response.ok) {
+      throw new Error('Failed to load meetings');
+    }
+    return response.json();
+  };
+
+  const applyNextPage = (page: MeetingListPage) => {
+    setNextPage(
+      page.hasMore && page.nextBeforeTime && page.nextBeforeId
+        ? { beforeTime: page.nextBeforeTime, beforeId: page.nextBeforeId }
+        : null
+    );
+  };
+
   const loadMeetings = async () => {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/meetings`);
-      if (!response.ok) {
-        throw new Error('Failed to load meetings');
-      }
-      const data = await response.json();
-      setMeetings(data);
+      // 只加载第一页；进行中的会议开始时间最晚，一定在第一页
+      const page = await fetchMeetingPage();
+      setMeetings(page.items);
+      applyNextPage(page);
 
       // 检查是否有进行中的会议（RECORDING 状态）
-      const ongoing = data.some((meeting: Meeting) => meeting.status === 'RECORDING');
+      const ongoing = page.items.some((meeting: Meeting) => meeting.status === 'RECORDING');
       setHasOngoingMeeting(ongoing);
     } catch (error) {
       Alert.alert('加载失败', String(error));
@@ -61,6 +86,22 @@ export default function MeetingListScreen({ navigation }: MeetingListScreenProps
     }
   };
 
+  const loadMoreMeetings = async () => {
+    if (loadingMore || !nextPage) {
+      return;
+    }
+    setLoadingMore(true);
+    try {
+      const page = await fetchMeetingPage(nextPage.beforeTime, nextPage.beforeId);
+      setMeetings(prev => [...prev, ...page.items]);
+      applyNextPage(page);
+    } catch (error) {
+      Alert.alert('加载失败', String(error));
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleNewMeeting = () => {
     if (hasOngoingMeeting) {
       Alert.alert(
@@ -102,8 +143,12 @@ export default function MeetingListScreen({ navigation }: MeetingListScreenProps
     switch (status) {
       case 'RECORDING':
         return '录音中';
+      case 'SUMMARIZING':
+        return '总结中';
       case 'COMPLETED':
         return '已完成';
+      case 'FAILED':
+        return '总结失败';
       default:
         return status;
     }
@@ -113,8 +158,12 @@ export default function MeetingListScreen({ navigation }: MeetingListScreenProps
     switch (status) {
       case 'RECORDING':
         return '#4CAF50';
+      case 'SUMMARIZING':
+        return '#FF9800';
       case 'COMPLETED':
         return '#2196F3';
+      case 'FAILED':
+        return '#F44336';
       default:
         return '#999';
     }
@@ -146,12 +195,6 @@ export default function MeetingListScreen({ navigation }: MeetingListScreenProps
           结束时间: {formatDateTime(item.endTime)}
         </Text>
       )}
-
-      {item.summary && (
-        <Text style={styles.meetingSummary} numberOfLines={3}>
-          {item.summary}
-        </Text>
-      )}
     </TouchableOpacity>
   );
 
@@ -177,6 +220,8 @@ export default function MeetingListScreen({ navigation }: MeetingListScreenProps
         renderItem={renderMeetingItem}
         keyExtractor={(item) => item.id.toString()}
         contentContainerStyle={styles.listContent}
+        onEndReached={loadMoreMeetings}
+        onEndReachedThreshold={0.5}
         refreshControl={
           <RefreshControl refreshing={refreshing} onRefresh={onRefresh} />
         }
@@ -273,12 +318,6 @@ const styles = StyleSheet.create({
     color: '#666',
     marginBottom: 4,
   },
-  meetingSummary: {
-    fontSize: 14,
-    color: '#888',
-    marginTop: 8,
-    lineHeight: 20,
-  },
   emptyContainer: {
     alignItems: 'center',
     justifyContent: 'center',
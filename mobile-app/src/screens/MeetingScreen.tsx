@@ -9,7 +9,7 @@ import {
   PermissionsAndroid,
   Platform,
 } from 'react-native';
-import MeetingService, { Transcript } from '../services/MeetingService';
+import MeetingService, { PartialTranscript, Transcript } from '../services/MeetingService';
 
 interface MeetingScreenProps {
   navigation: any;
@@ -19,6 +19,9 @@ export default function MeetingScreen({ navigation }: MeetingScreenProps) {
   const [isRecording, setIsRecording] = useState(false);
   const [meetingId, setMeetingId] = useState<number | null>(null);
   const [transcripts, setTranscripts] = useState<Transcript[]>([]);
+  const [partial, setPartial] = useState<PartialTranscript | null>(null);
+  const [runningSummary, setRunningSummary] = useState<string | null>(null);
+  const [summaryExpanded, setSummaryExpanded] = useState(false);
   const scrollViewRef = useRef<ScrollView>(null);
 
   useEffect(() => {
@@ -28,12 +31,29 @@ export default function MeetingScreen({ navigation }: MeetingScreenProps) {
     // 监听转录结果
     MeetingService.onTranscript((transcript) => {
       setTranscripts((prev) => [...prev, transcript]);
+      // 最终结果替换同一语句段的临时结果
+      setPartial((prev) =>
+        prev && prev.segmentId === transcript.segmentId ? null : prev
+      );
       // 自动滚动到底部
       setTimeout(() => {
         scrollViewRef.current?.scrollToEnd({ animated: true });
       }, 100);
     });
 
+    // 监听临时转录结果
+    MeetingService.onPartial((next) => {
+      setPartial(next);
+      setTimeout(() => {
+        scrollViewRef.current?.scrollToEnd({ animated: true });
+      }, 100);
+    });
+
+    // 监听会议进行中的滚动总结
+    MeetingService.onSummaryPartial((summary) => {
+      setRunningSummary(summary);
+    });
+
     // 监听错误
     MeetingService.onError((error) => {
       Alert.alert('错误', error);
@@ -69,7 +89,7 @@ export default function MeetingScreen({ navigation }: MeetingScreenProps) {
                 // 提示成功并跳转详情
                 Alert.alert(
                   '会议已结束',
-                  '会议总结已生成',
+                  '会议总结正在生成，稍后可在详情中查看',
                   [
                     {
                       text: '查看详情',
@@ -163,13 +183,15 @@ export default function MeetingScreen({ navigation }: MeetingScreenProps) {
     try {
       // 先设置状态，避免返回拦截触发
       setIsRecording(false);
+      // 未完成的临时结果不会再收到最终版本
+      setPartial(null);
 
       const completedMeetingId = await MeetingService.stopMeeting();
 
       // 提示成功
       Alert.alert(
         '会议已结束',
-        '会议总结已生成',
+        '会议总结正在生成，稍后可在详情中查看',
         [
           {
             text: '查看详情',
@@ -249,13 +271,29 @@ export default function MeetingScreen({ navigation }: MeetingScreenProps) {
         </Text>
       </View>
 
+      {/* 滚动总结，点击展开/收起 */}
+      {runningSummary && (
+        <TouchableOpacity
+          style={styles.summaryCard}
+          onPress={() => setSummaryExpanded((prev) => !prev)}
+          activeOpacity={0.8}
+        >
+          <Text style={styles.summaryTitle}>
+            目前总结 {summaryExpanded ? '▲' : '▼'}
+          </Text>
+          <Text style={styles.summaryText} numberOfLines={summaryExpanded ? undefined : 3}>
+            {runningSummary}
+          </Text>
+        </TouchableOpacity>
+      )}
+
       {/* 转录内容显示 */}
       <ScrollView
         ref={scrollViewRef}
         style={styles.transcriptContainer}
         contentContainerStyle={styles.transcriptContent}
       >
-        {transcripts.length === 0 ? (
+        {transcripts.length === 0 && !partial ? (
           <Text style={styles.emptyText}>
             {isRecording ? '等待转录结果...' : '点击开始按钮启动会议'}
           </Text>
@@ -269,6 +307,14 @@ export default function MeetingScreen({ navigation }: MeetingScreenProps) {
             </View>
           ))
         )}
+        {partial && (
+          <View style={styles.transcriptItem}>
+            <Text style={styles.speakerHeader}>识别中...</Text>
+            <Text style={[styles.transcriptText, styles.partialText]}>
+              {partial.content}
+            </Text>
+          </View>
+        )}
       </ScrollView>
 
       {/* 控制按钮 */}
@@ -366,6 +412,27 @@ const styles = StyleSheet.create({
     color: '#333',
     lineHeight: 24,
   },
+  partialText: {
+    color: '#999',
+  },
+  summaryCard: {
+    backgroundColor: '#f1f8e9',
+    paddingHorizontal: 20,
+    paddingVertical: 12,
+    borderBottomWidth: 1,
+    borderBottomColor: '#e0e0e0',
+  },
+  summaryTitle: {
+    fontSize: 14,
+    color: '#4CAF50',
+    fontWeight: '600',
+    marginBottom: 6,
+  },
+  summaryText: {
+    fontSize: 14,
+    color: '#555',
+    lineHeight: 20,
+  },
   controls: {
     padding: 20,
     backgroundColor: 'white',
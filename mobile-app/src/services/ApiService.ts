@@ -8,16 +8,49 @@ export interface Meeting {
   title: string;
   startTime: string;
   endTime?: string;
-  status: 'RECORDING' | 'COMPLETED';
+  status: 'RECORDING' | 'SUMMARIZING' | 'COMPLETED' | 'FAILED';
   summary?: string;
 }
 
+// 会议完成（生成总结）的异步任务
+export interface CompletionJob {
+  jobId: string;
+  meetingId: number;
+  state: 'PENDING' | 'RUNNING' | 'SUCCEEDED' | 'FAILED';
+  error?: string;
+  submittedAt: string;
+  finishedAt?: string;
+}
+
+// 会议列表项（不含总结）
+export interface MeetingListItem {
+  id: number;
+  title: string;
+  startTime: string;
+  endTime?: string;
+  status: Meeting['status'];
+}
+
+export interface MeetingListPage {
+  items: MeetingListItem[];
+  nextBeforeTime: string | null;
+  nextBeforeId: number | null;
+  hasMore: boolean;
+}
+
 export interface Transcript {
   id: number;
   content: string;
   timestamp: string;
   speakerId: number | null;
   sequenceOrder: number;
+  speaker: Speaker | null;
+}
+
+export interface TranscriptPage {
+  items: Transcript[];
+  nextAfter: number;
+  hasMore: boolean;
 }
 
 export interface Speaker {
@@ -36,10 +69,20 @@ export class ApiService {
   }
 
   /**
-   * 完成会议（生成总结）
+   * 完成会议：服务端异步生成总结，立即返回任务（202）；已在生成总结时返回 null
+   */
+  async completeMeeting(meetingId: number): Promise<CompletionJob | null> {
+    const response = await axios.post(`${API_BASE_URL}/meetings/${meetingId}/complete`, undefined, {
+      validateStatus: status => status === 202 || status === 409,
+    });
+    return response.status === 202 ? response.data : null;
+  }
+
+  /**
+   * 查询完成任务状态
    */
-  async completeMeeting(meetingId: number): Promise<Meeting> {
-    const response = await axios.post(`${API_BASE_URL}/meetings/${meetingId}/complete`);
+  async getCompletionJob(meetingId: number, jobId: string): Promise<CompletionJob> {
+    const response = await axios.get(`${API_BASE_URL}/meetings/${meetingId}/complete/${jobId}`);
     return response.data;
   }
 
@@ -52,10 +95,12 @@ export class ApiService {
   }
 
   /**
-   * 获取所有会议列表
+   * 分页获取会议列表（按开始时间倒序，下一页带上返回的 nextBeforeTime 和 nextBeforeId）
    */
-  async getAllMeetings(): Promise<Meeting[]> {
-    const response = await axios.get(`${API_BASE_URL}/meetings`);
+  async getMeetings(beforeTime?: string, beforeId?: number, limit?: number): Promise<MeetingListPage> {
+    const response = await axios.get(`${API_BASE_URL}/meetings`, {
+      params: { beforeTime, beforeId, limit },
+    });
     return response.data;
   }
 
@@ -67,10 +112,12 @@ export class ApiService {
   }
 
   /**
-   * 获取会议的所有转录
+   * 分页获取会议的转录（按序号游标，after 为上一页的 nextAfter）
    */
-  async getTranscripts(meetingId: number): Promise<Transcript[]> {
-    const response = await axios.get(`${API_BASE_URL}/meetings/${meetingId}/transcripts`);
+  async getTranscripts(meetingId: number, after = 0, limit?: number): Promise<TranscriptPage> {
+    const response = await axios.get(`${API_BASE_URL}/meetings/${meetingId}/transcripts`, {
+      params: { after, limit },
+    });
     return response.data;
   }
 
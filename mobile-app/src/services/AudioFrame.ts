@@ -0,0 +1,58 @@
+/**
+ * 音频二进制帧协议 v1（与后端 AudioFrame 对应，大端序）
+ *
+ *  0  magic        'M' 'A'
+ *  2  version      u8  = 1
+ *  3  codec        u8  0 = PCM 16-bit LE，1 = Opus（负载为若干个 [u16 长度][Opus 包]）
+ *  4  flags        u8  保留
+ *  5  channels     u8
+ *  6  headerLength u16 = 24
+ *  8  sequence     u32 会话内递增
+ * 12  sampleRate   u32
+ * 16  captureTime  i64 采集时间（毫秒时间戳）
+ * 24  payload
+ */
+export const AUDIO_FRAME_VERSION = 1;
+export const AUDIO_FRAME_HEADER_LENGTH = 24;
+
+export enum AudioCodec {
+  PCM16 = 0,
+  OPUS = 1,
+}
+
+export interface AudioFrameHeader {
+  sequence: number;
+  sampleRate: number;
+  captureTimestamp: number;
+  codec?: AudioCodec;
+  channels?: number;
+}
+
+/**
+ * 把 Base64 音频解码后直接写入帧的负载区域，只分配一次
+ */
+export function encodeAudioFrame(header: AudioFrameHeader, base64Payload: string): ArrayBuffer {
+  const binary = atob(base64Payload);
+  const buffer = new ArrayBuffer(AUDIO_FRAME_HEADER_LENGTH + binary.length);
+  const view = new DataView(buffer);
+
+  view.setUint8(0, 0x4d); // 'M'
+  view.setUint8(1, 0x41); // 'A'
+  view.setUint8(2, AUDIO_FRAME_VERSION);
+  view.setUint8(3, header.codec ?? AudioCodec.PCM16);
+  view.setUint8(4, 0);
+  view.setUint8(5, header.channels ?? 1);
+  view.setUint16(6, AUDIO_FRAME_HEADER_LENGTH);
+  view.setUint32(8, header.sequence >>> 0);
+  view.setUint32(12, header.sampleRate);
+  // i64：拆成高低 32 位写入
+  const timestamp = Math.floor(header.captureTimestamp);
+  view.setUint32(16, Math.floor(timestamp / 0x100000000));
+  view.setUint32(20, timestamp >>> 0);
+
+  const payload = new Uint8Array(buffer, AUDIO_FRAME_HEADER_LENGTH);
+  for (let i = 0; i < binary.length; i++) {
+    payload[i] = binary.charCodeAt(i);
+  }
+  return buffer;
+}
@@ -1,5 +1,9 @@
 import AudioCaptureService, { AudioDataEvent } from '../modules/AudioCapture';
-import WebSocketService, { TranscriptMessage } from './WebSocketService';
+import WebSocketService, {
+  PartialMessage,
+  SummaryPartialMessage,
+  TranscriptMessage,
+} from './WebSocketService';
 import ApiService from './ApiService';
 
 // const WEBSOCKET_URL = 'ws://10.0.2.2:8080/ws/audio-stream'; // Android模拟器
@@ -7,11 +11,17 @@ const WEBSOCKET_URL = 'ws://192.168.207.210:8080/ws/audio-stream'; // 真机使
 
 export interface Transcript {
   id: number;
+  segmentId?: number;
   content: string;
   timestamp: string;
   speakerId: number | null;
 }
 
+export interface PartialTranscript {
+  segmentId: number;
+  content: string;
+}
+
 export class MeetingService {
   private meetingId: number | null = null;
   private isRecording = false;
@@ -63,11 +73,11 @@ export class MeetingService {
       const currentMeetingId = this.meetingId;
       this.meetingId = null;
 
-      // 调用后端完成会议接口，生成总结（同步等待）
+      // 调用后端完成会议接口，总结在服务端异步生成，详情页轮询会议状态
       if (currentMeetingId) {
-        console.log('Completing meeting and generating summary...');
-        await ApiService.completeMeeting(currentMeetingId);
-        console.log('Meeting completed successfully');
+        console.log('Completing meeting, summary is generated in the background...');
+        const job = await ApiService.completeMeeting(currentMeetingId);
+        console.log('Completion job submitted:', job?.jobId);
       }
 
       console.log('Meeting stopped');
@@ -85,6 +95,7 @@ export class MeetingService {
     WebSocketService.onTranscript((message: TranscriptMessage) => {
       callback({
         id: message.id,
+        segmentId: message.segmentId,
         content: message.content,
         timestamp: message.timestamp,
         speakerId: message.speakerId,
@@ -92,6 +103,27 @@ export class MeetingService {
     });
   }
 
+  /**
+   * 监听临时转录结果（未完成的语句，不入库）
+   */
+  onPartial(callback: (partial: PartialTranscript) => void): void {
+    WebSocketService.onPartial((message: PartialMessage) => {
+      callback({
+        segmentId: message.segmentId,
+        content: message.content,
+      });
+    });
+  }
+
+  /**
+   * 监听会议进行中的滚动总结
+   */
+  onSummaryPartial(callback: (summary: string) => void): void {
+    WebSocketService.onSummaryPartial((message: SummaryPartialMessage) => {
+      callback(message.summary);
+    });
+  }
+
   /**
    * 监听错误
    */
@@ -109,7 +141,7 @@ export class MeetingService {
     console.log(`Received audio segment after silence detection, length: ${event.length}`);
 
     // 直接发送（原生层已经做了 VAD 检测和缓冲）
-    WebSocketService.sendAudio([event.audioData]);
+    WebSocketService.sendAudio(event.audioData, event.captureTimestamp, event.sampleRate);
   }
 
   /**
@@ -1,14 +1,35 @@
+import { encodeAudioFrame } from './AudioFrame';
+
 export interface TranscriptMessage {
   type: 'transcript';
+  segmentId: number;
   id: number;
   content: string;
   timestamp: string;
   speakerId: number | null;
 }
 
+// 未完成语句的临时结果，随后由相同 segmentId 的 transcript 替换
+export interface PartialMessage {
+  type: 'partial';
+  segmentId: number;
+  content: string;
+}
+
+// 会议进行中的滚动总结
+export interface SummaryPartialMessage {
+  type: 'summary_partial';
+  meetingId: number;
+  summary: string;
+  throughSequence: number;
+}
+
 export interface ConnectedMessage {
   type: 'connected';
   meetingId: number;
+  audioProtocol: number;
+  codec: string; // 协商后的上行编码
+  codecs: string[]; // 服务端支持的编码
   message: string;
 }
 
@@ -17,14 +38,23 @@ export interface ErrorMessage {
   message: string;
 }
 
-type WebSocketMessage = TranscriptMessage | ConnectedMessage | ErrorMessage;
+type WebSocketMessage =
+  | TranscriptMessage
+  | PartialMessage
+  | SummaryPartialMessage
+  | ConnectedMessage
+  | ErrorMessage;
 
 export class WebSocketService {
   private ws: WebSocket | null = null;
   private reconnectAttempts = 0;
   private maxReconnectAttempts = 5;
   private reconnectDelay = 3000;
+  // 音频帧序号，每条连接从 0 开始
+  private audioSequence = 0;
   private onTranscriptCallback: ((transcript: TranscriptMessage) => void) | null = null;
+  private onPartialCallback: ((partial: PartialMessage) => void) | null = null;
+  private onSummaryPartialCallback: ((summary: SummaryPartialMessage) => void) | null = null;
   private onConnectedCallback: ((meetingId: number) => void) | null = null;
   private onErrorCallback: ((error: string) => void) | null = null;
 
@@ -44,6 +74,7 @@ export class WebSocketService {
       this.ws.onopen = () => {
         console.log('WebSocket connected');
         this.reconnectAttempts = 0;
+        this.audioSequence = 0;
       };
 
       this.ws.onmessage = (event) => {
@@ -66,6 +97,18 @@ export class WebSocketService {
               }
               break;
 
+            case 'partial':
+              if (this.onPartialCallback) {
+                this.onPartialCallback(message);
+              }
+              break;
+
+            case 'summary_partial':
+              if (this.onSummaryPartialCallback) {
+                this.onSummaryPartialCallback(message);
+              }
+              break;
+
             case 'error':
               console.error('Server error:', message.message);
               if (this.onErrorCallback) {
@@ -96,51 +139,19 @@ export class WebSocketService {
   }
 
   /**
-   * 发送音频数据（Base64编码的音频数据数组）
+   * 发送一段音频（Base64编码的PCM），以带序号和采集时间的二进制帧发送
    */
-  sendAudio(audioDataArray: string[]): void {
+  sendAudio(audioData: string, captureTimestamp: number, sampleRate: number): void {
     if (this.ws && this.ws.readyState === WebSocket.OPEN) {
       try {
-        // 计算总长度
-        let totalLength = 0;
-        const decodedArrays: Uint8Array[] = [];
-
-        // 将所有Base64字符串解码为字节数组
-        for (const audioData of audioDataArray) {
-          try {
-            const binaryString = atob(audioData);
-            const bytes = new Uint8Array(binaryString.length);
-            for (let i = 0; i < binaryString.length; i++) {
-              bytes[i] = binaryString.charCodeAt(i);
-            }
-            decodedArrays.push(bytes);
-            totalLength += bytes.length;
-          } catch (error) {
-            console.error('Failed to decode audio data:', error);
-            console.error('Invalid base64 string length:', audioData.length);
-            console.error('First 50 chars:', audioData.substring(0, 50));
-            // 跳过这个损坏的数据块，继续处理其他的
-            continue;
-          }
-        }
-
-        if (decodedArrays.length === 0) {
-          console.warn('No valid audio data to send');
-          return;
-        }
-
-        // 合并所有字节数组
-        const combined = new Uint8Array(totalLength);
-        let offset = 0;
-        for (const arr of decodedArrays) {
-          combined.set(arr, offset);
-          offset += arr.length;
-        }
-
-        // 发送合并后的数据
-        console.log(`Sending ${totalLength} bytes of audio data (${decodedArrays.length} chunks)`);
-        this.ws.send(combined.buffer);
+        const frame = encodeAudioFrame(
+          { sequence: this.audioSequence, sampleRate, captureTimestamp },
+          audioData
+        );
+        this.audioSequence++;
+        this.ws.send(frame);
       } catch (error) {
+        // 跳过损坏的数据块，序号不递增
         console.error('Error sending audio data:', error);
       }
     } else {
@@ -155,6 +166,20 @@ export class WebSocketService {
     this.onTranscriptCallback = callback;
   }
 
+  /**
+   * 监听临时转录结果
+   */
+  onPartial(callback: (partial: PartialMessage) => void): void {
+    this.onPartialCallback = callback;
+  }
+
+  /**
+   * 监听滚动总结
+   */
+  onSummaryPartial(callback: (summary: SummaryPartialMessage) => void): void {
+    this.onSummaryPartialCallback = callback;
+  }
+
   /**
    * 监听连接成功
    */
@@ -176,6 +201,7 @@ export class WebSocketService {
     // 清空回调，防止断开时触发错误提示
     this.onErrorCallback = null;
     this.onTranscriptCallback = null;
+    this.onPartialCallback = null;
     this.onConnectedCallback = null;
 
     if (this.ws) {